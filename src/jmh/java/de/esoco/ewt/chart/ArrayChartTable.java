@@ -0,0 +1,149 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.googlecode.gwt.charts.client.ColumnType;
+
+
+/********************************************************************
+ * A plain Java stand-in for the data table of the chart API that is used to
+ * measure the chart data conversion on a JVM. Like the JavaScript data table
+ * it stores each row as an array of (boxed) cell values that grows when
+ * columns are added.
+ *
+ * @author eso
+ */
+public class ArrayChartTable implements ChartTableBuilder
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final List<ColumnType> aColumnTypes  = new ArrayList<>();
+	private final List<String>     aColumnLabels = new ArrayList<>();
+	private final List<Object[]>   aRows		 = new ArrayList<>();
+
+	private final Map<Integer, String> aFormattedValues = new HashMap<>();
+	private final Map<String, String>  aRowProperties   = new HashMap<>();
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addColumn(ColumnType eType, String sLabel)
+	{
+		aColumnTypes.add(eType);
+		aColumnLabels.add(sLabel);
+
+		for (int i = 0; i < aRows.size(); i++)
+		{
+			Object[] rRow    = aRows.get(i);
+			Object[] aNewRow = new Object[rRow.length + 1];
+
+			System.arraycopy(rRow, 0, aNewRow, 0, rRow.length);
+			aRows.set(i, aNewRow);
+		}
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addRows(int nCount)
+	{
+		int nColumns = aColumnTypes.size();
+
+		for (int i = 0; i < nCount; i++)
+		{
+			aRows.add(new Object[nColumns]);
+		}
+	}
+
+	/***************************************
+	 * Returns the number of columns.
+	 *
+	 * @return The column count
+	 */
+	public int getColumnCount()
+	{
+		return aColumnTypes.size();
+	}
+
+	/***************************************
+	 * Returns the number of rows.
+	 *
+	 * @return The row count
+	 */
+	public int getRowCount()
+	{
+		return aRows.size();
+	}
+
+	/***************************************
+	 * Returns a cell value.
+	 *
+	 * @param  nRow The row index
+	 * @param  nCol The column index
+	 *
+	 * @return The cell value (NULL if not set)
+	 */
+	public Object getValue(int nRow, int nCol)
+	{
+		return aRows.get(nRow)[nCol];
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setFormattedValue(int nRow, int nCol, String sFormatted)
+	{
+		aFormattedValues.put(nRow * aColumnTypes.size() + nCol, sFormatted);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setRowProperty(int nRow, String sName, String sValue)
+	{
+		aRowProperties.put(nRow + ":" + sName, sValue);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(int nRow, int nCol, double fValue)
+	{
+		aRows.get(nRow)[nCol] = Double.valueOf(fValue);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(int nRow, int nCol, String sValue)
+	{
+		aRows.get(nRow)[nCol] = sValue;
+	}
+}
@@ -0,0 +1,118 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * A {@link ChartData} implementation for benchmarks that stores all values as
+ * boxed objects in row arrays, similar to a generic data set. It is used to
+ * compare the boxed data path with {@link ColumnarChartData}.
+ *
+ * @author eso
+ */
+public class BoxedChartData implements ChartData
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final String[]   rRowLabels;
+	private final String[]   rColumnLabels;
+	private final Object[][] rRows;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rRowLabels    The row labels
+	 * @param rColumnLabels The column labels
+	 * @param rRows         The row values
+	 */
+	public BoxedChartData(String[]   rRowLabels,
+						  String[]   rColumnLabels,
+						  Object[][] rRows)
+	{
+		this.rRowLabels    = rRowLabels;
+		this.rColumnLabels = rColumnLabels;
+		this.rRows		   = rRows;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getColumnCount()
+	{
+		return rColumnLabels.length;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getColumnLabel(int nColumn)
+	{
+		return rColumnLabels[nColumn];
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowAxisLabel()
+	{
+		return "Rows";
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRowCount()
+	{
+		return rRows.length;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowLabel(int nRow)
+	{
+		return rRowLabels[nRow];
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getValue(int nRow, int nColumn)
+	{
+		Object rValue = rRows[nRow][nColumn];
+
+		return rValue != null ? ((Number) rValue).doubleValue() : Double.NaN;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isNull(int nRow, int nColumn)
+	{
+		return rRows[nRow][nColumn] == null;
+	}
+}
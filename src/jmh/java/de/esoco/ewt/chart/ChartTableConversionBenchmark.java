@@ -0,0 +1,147 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/********************************************************************
+ * JMH benchmark of the conversion of numeric chart data into chart tables as
+ * performed by {@link ChartTableConverter#convertData(ChartData, Function,
+ * ChartTableBuilder)}. The conversion is measured for columnar and boxed data
+ * at different cell counts and for tall (few columns, many rows) and wide
+ * (many columns, few rows) shapes. Run with the 'gc' profiler (the default of
+ * the 'jmh' Gradle task) to also measure the allocation rate.
+ *
+ * @author eso
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChartTableConversionBenchmark
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	private static final Function<String, String> IDENTITY =
+		Function.identity();
+
+	//~ Instance fields --------------------------------------------------------
+
+	@Param({ "1000", "100000", "1000000" })
+	int nCells;
+
+	@Param({ "TALL", "WIDE" })
+	String sShape;
+
+	private ChartData aColumnarData;
+	private ChartData aBoxedData;
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Benchmarks the conversion of boxed data.
+	 *
+	 * @return The converted table
+	 */
+	@Benchmark
+	public ArrayChartTable convertBoxedData()
+	{
+		ArrayChartTable aTable = new ArrayChartTable();
+
+		ChartTableConverter.convertData(aBoxedData, IDENTITY, aTable);
+
+		return aTable;
+	}
+
+	/***************************************
+	 * Benchmarks the conversion of columnar data.
+	 *
+	 * @return The converted table
+	 */
+	@Benchmark
+	public ArrayChartTable convertColumnarData()
+	{
+		ArrayChartTable aTable = new ArrayChartTable();
+
+		ChartTableConverter.convertData(aColumnarData, IDENTITY, aTable);
+
+		return aTable;
+	}
+
+	/***************************************
+	 * Creates the benchmark data.
+	 */
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		int nColumns = "TALL".equals(sShape) ? 4 : 100;
+		int nRows    = Math.max(1, nCells / nColumns);
+
+		Random     aRandom	    = new Random(42);
+		String[]   aRowLabels    = new String[nRows];
+		String[]   aColumnLabels = new String[nColumns];
+		double[][] aColumns	    = new double[nColumns][nRows];
+		Object[][] aRows		    = new Object[nRows][nColumns];
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			aRowLabels[nRow] = "Row " + nRow;
+		}
+
+		for (int nCol = 0; nCol < nColumns; nCol++)
+		{
+			aColumnLabels[nCol] = "Series " + nCol;
+
+			for (int nRow = 0; nRow < nRows; nRow++)
+			{
+				double fValue = aRandom.nextDouble() * 1000;
+
+				aColumns[nCol][nRow] = fValue;
+				aRows[nRow][nCol]    = Double.valueOf(fValue);
+			}
+		}
+
+		ColumnarChartData aColumnar =
+			new ColumnarChartData("Rows", aRowLabels);
+
+		for (int nCol = 0; nCol < nColumns; nCol++)
+		{
+			aColumnar.addColumn(aColumnLabels[nCol], aColumns[nCol]);
+		}
+
+		aColumnarData = aColumnar;
+		aBoxedData    = new BoxedChartData(aRowLabels, aColumnLabels, aRows);
+	}
+}
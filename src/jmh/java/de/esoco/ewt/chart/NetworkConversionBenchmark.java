@@ -0,0 +1,160 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/********************************************************************
+ * JMH benchmark of the conversion of hierarchical node data into the node and
+ * relation tables of network charts as performed by {@link
+ * ChartTableConverter#convertNetwork(ChartNodeData, ChartTableBuilder,
+ * ChartTableBuilder)} and into the tree table of the NETWORK chart type as
+ * performed by {@link ChartTableConverter#convertNetworkTree(ChartNetwork,
+ * ChartTableBuilder)}.
+ *
+ * @author eso
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkConversionBenchmark
+{
+	//~ Instance fields --------------------------------------------------------
+
+	@Param({ "1000", "10000" })
+	int nNodes;
+
+	private String[][] aNodes;
+
+	private ChartNetwork aNetwork;
+
+	private ChartNodeData aNodeData =
+		new ChartNodeData()
+		{
+			@Override
+			public int getNodeCount()
+			{
+				return aNodes.length;
+			}
+
+			@Override
+			public String getNodeId(int nNode)
+			{
+				return aNodes[nNode][0];
+			}
+
+			@Override
+			public String getNodeStyle(int nNode)
+			{
+				return aNodes[nNode][3];
+			}
+
+			@Override
+			public String getNodeText(int nNode)
+			{
+				return aNodes[nNode][2];
+			}
+
+			@Override
+			public String getParentId(int nNode)
+			{
+				return aNodes[nNode][1];
+			}
+		};
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Benchmarks the network conversion. Both result tables are consumed so
+	 * that no part of the conversion can be eliminated.
+	 *
+	 * @param rBlackhole The blackhole to consume the result tables
+	 */
+	@Benchmark
+	public void convertNetwork(Blackhole rBlackhole)
+	{
+		ArrayChartTable aNodeTable     = new ArrayChartTable();
+		ArrayChartTable aRelationTable = new ArrayChartTable();
+
+		ChartTableConverter.convertNetwork(aNodeData,
+										   aNodeTable,
+										   aRelationTable);
+
+		rBlackhole.consume(aNodeTable);
+		rBlackhole.consume(aRelationTable);
+	}
+
+	/***************************************
+	 * Benchmarks the conversion of the visible nodes of a network.
+	 *
+	 * @param rBlackhole The blackhole to consume the result table
+	 */
+	@Benchmark
+	public void convertNetworkTree(Blackhole rBlackhole)
+	{
+		ArrayChartTable aTable = new ArrayChartTable();
+
+		ChartTableConverter.convertNetworkTree(aNetwork, aTable);
+
+		rBlackhole.consume(aTable);
+	}
+
+	/***************************************
+	 * Creates a random tree of nodes and the network that contains them.
+	 */
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		Random aRandom = new Random(42);
+
+		aNodes = new String[nNodes][];
+
+		for (int i = 0; i < nNodes; i++)
+		{
+			String sParent =
+				i > 0 ? aNodes[aRandom.nextInt(i)][0] : null;
+			String sStyle  =
+				i % 10 == 0 ? "image:node" + i + ".png" : "default";
+
+			aNodes[i] = new String[] { "node" + i, sParent, "Node " + i, sStyle };
+		}
+
+		aNetwork = new ChartNetwork(aNodeData);
+
+		// resolve the visible nodes once so that only the conversion is measured
+		aNetwork.getVisibleNodes();
+	}
+}
@@ -0,0 +1,324 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.ewt.chart.ChartPainter.Shape;
+
+import com.google.gwt.canvas.client.Canvas;
+import com.google.gwt.canvas.dom.client.Context2d;
+
+import com.googlecode.gwt.charts.client.options.LegendPosition;
+
+
+/********************************************************************
+ * A renderer that draws numeric chart data onto an HTML5 canvas instead of
+ * using the SVG-based widgets of the chart API. It supports the chart shapes
+ * defined in {@link Shape} and is intended for very large series where the
+ * SVG rendering becomes too slow. The chart layout is implemented by a
+ * {@link ChartPainter} that is also used for headless rendering on the
+ * server so that both create the same charts. The DOM only contains a single
+ * canvas element.
+ *
+ * <p>Interactive features of the chart API like tooltips and selection
+ * events are not available.</p>
+ *
+ * @author eso
+ */
+public class CanvasChartRenderer
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The width that is used if the canvas has not been laid out yet. */
+	public static final int DEFAULT_WIDTH = 400;
+
+	/** The height that is used if the canvas has not been laid out yet. */
+	public static final int DEFAULT_HEIGHT = 200;
+
+	private static final String FONT = ChartSurface.FONT_SIZE + "px sans-serif";
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final Canvas rCanvas;
+
+	private ChartPainter aPainter = new ChartPainter();
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance that draws onto a certain canvas.
+	 *
+	 * @param rCanvas The target canvas
+	 */
+	public CanvasChartRenderer(Canvas rCanvas)
+	{
+		this.rCanvas = rCanvas;
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Creates a new renderer with a new canvas if the browser supports the
+	 * HTML5 canvas.
+	 *
+	 * @return The new renderer or NULL if canvases are not supported
+	 */
+	public static CanvasChartRenderer createIfSupported()
+	{
+		Canvas aCanvas = Canvas.createIfSupported();
+
+		return aCanvas != null ? new CanvasChartRenderer(aCanvas) : null;
+	}
+
+	/***************************************
+	 * Returns the device pixel ratio of the browser window.
+	 *
+	 * @return The device pixel ratio
+	 */
+	private static native double getDevicePixelRatio() /*-{
+		return $wnd.devicePixelRatio || 1;
+	}-*/;
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Draws chart data onto the canvas. The canvas will be resized to the
+	 * given size with a backing store that matches the device pixel ratio.
+	 *
+	 * @param rData   The data to draw
+	 * @param nWidth  The width in pixels or zero for the default
+	 * @param nHeight The height in pixels or zero for the default
+	 */
+	public void draw(ChartData rData, int nWidth, int nHeight)
+	{
+		double    fRatio   = getDevicePixelRatio();
+		Context2d rContext = rCanvas.getContext2d();
+
+		nWidth  = nWidth > 0 ? nWidth : DEFAULT_WIDTH;
+		nHeight = nHeight > 0 ? nHeight : DEFAULT_HEIGHT;
+
+		rCanvas.setPixelSize(nWidth, nHeight);
+		rCanvas.setCoordinateSpaceWidth((int) Math.round(nWidth * fRatio));
+		rCanvas.setCoordinateSpaceHeight((int) Math.round(nHeight * fRatio));
+		rContext.setTransform(fRatio, 0, 0, fRatio, 0, 0);
+		rContext.clearRect(0, 0, nWidth, nHeight);
+		rContext.setFont(FONT);
+
+		aPainter.paint(new CanvasSurface(rContext), rData, nWidth, nHeight);
+	}
+
+	/***************************************
+	 * Returns the canvas of this renderer.
+	 *
+	 * @return The canvas
+	 */
+	public final Canvas getCanvas()
+	{
+		return rCanvas;
+	}
+
+	/***************************************
+	 * Sets the background color.
+	 *
+	 * @param sColor The HTML background color or NULL for transparent
+	 */
+	public void setBackgroundColor(String sColor)
+	{
+		aPainter.setBackgroundColor(sColor);
+	}
+
+	/***************************************
+	 * Sets the legend position. {@link LegendPosition#IN} draws the legend
+	 * inside the top left corner of the plot area.
+	 *
+	 * @param ePosition The legend position or NULL for the default position
+	 *                  on the right side
+	 */
+	public void setLegendPosition(LegendPosition ePosition)
+	{
+		aPainter.setLegendPosition(ePosition);
+	}
+
+	/***************************************
+	 * Sets the shape to draw.
+	 *
+	 * @param eShape The shape
+	 */
+	public void setShape(Shape eShape)
+	{
+		aPainter.setShape(eShape);
+	}
+
+	/***************************************
+	 * Sets whether the series are drawn stacked. This has no effect on
+	 * lines.
+	 *
+	 * @param bStacked The stacked flag
+	 */
+	public void setStacked(boolean bStacked)
+	{
+		aPainter.setStacked(bStacked);
+	}
+
+	//~ Inner Classes ----------------------------------------------------------
+
+	/********************************************************************
+	 * A chart surface implementation that draws onto a canvas context.
+	 *
+	 * @author eso
+	 */
+	static class CanvasSurface implements ChartSurface
+	{
+		//~ Instance fields ----------------------------------------------------
+
+		private final Context2d rContext;
+
+		//~ Constructors -------------------------------------------------------
+
+		/***************************************
+		 * Creates a new instance.
+		 *
+		 * @param rContext The canvas context to draw on
+		 */
+		CanvasSurface(Context2d rContext)
+		{
+			this.rContext = rContext;
+		}
+
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void arc(double fX,
+						double fY,
+						double fR,
+						double fStart,
+						double fEnd)
+		{
+			rContext.arc(fX, fY, fR, fStart, fEnd);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void beginPath()
+		{
+			rContext.beginPath();
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void closePath()
+		{
+			rContext.closePath();
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void fill(String sColor, double fAlpha)
+		{
+			rContext.setFillStyle(sColor);
+			rContext.setGlobalAlpha(fAlpha);
+			rContext.fill();
+			rContext.setGlobalAlpha(1);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void fillRect(double fX,
+							 double fY,
+							 double fWidth,
+							 double fHeight,
+							 String sColor)
+		{
+			rContext.setFillStyle(sColor);
+			rContext.fillRect(fX, fY, fWidth, fHeight);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void fillText(String		  sText,
+							 double		  fX,
+							 double		  fY,
+							 TextAlign    eAlign,
+							 TextBaseline eBaseline,
+							 String		  sColor)
+		{
+			rContext.setFillStyle(sColor);
+			rContext.setTextAlign(eAlign.name().toLowerCase());
+			rContext.setTextBaseline(eBaseline.name().toLowerCase());
+			rContext.fillText(sText, fX, fY);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void lineTo(double fX, double fY)
+		{
+			rContext.lineTo(fX, fY);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public double measureText(String sText)
+		{
+			return rContext.measureText(sText).getWidth();
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void moveTo(double fX, double fY)
+		{
+			rContext.moveTo(fX, fY);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void rect(double fX, double fY, double fWidth, double fHeight)
+		{
+			rContext.rect(fX, fY, fWidth, fHeight);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void stroke(String sColor, double fLineWidth)
+		{
+			rContext.setStrokeStyle(sColor);
+			rContext.setLineWidth(fLineWidth);
+			rContext.stroke();
+		}
+	}
+}
@@ -0,0 +1,645 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/********************************************************************
+ * The specification of an aggregation that computes chart data from raw
+ * {@link ChartFacts} on the client. This allows to change the granularity or
+ * grouping of a chart without requesting pre-aggregated data from a server.
+ * The facts are aggregated in a single pass with hash lookups of the result
+ * cells.
+ *
+ * <p>The shape of the result depends on the configured columns:</p>
+ *
+ * <ul>
+ *   <li>With a time column and a {@link TimeBucket} each row of the result
+ *     contains a time bucket in ascending order. If a group column is set
+ *     each group becomes a separate result column (i.e. a chart series),
+ *     otherwise the result contains a single column.</li>
+ *   <li>Without a time column each row of the result contains a group and
+ *     the result contains a single column.</li>
+ * </ul>
+ *
+ * <p>Groups are ordered alphabetically. Undefined values are ignored by all
+ * functions except {@link AggregateFunction#COUNT} which counts all facts.
+ * Result cells without facts are undefined.</p>
+ *
+ * @author eso
+ */
+public class ChartAggregation
+{
+	//~ Enums ------------------------------------------------------------------
+
+	/********************************************************************
+	 * Enumeration of the functions that aggregate the values of a result
+	 * cell.
+	 */
+	public enum AggregateFunction
+	{
+		SUM, AVERAGE, MIN, MAX, COUNT, PERCENTILE
+	}
+
+	/********************************************************************
+	 * Enumeration of the time intervals that facts can be grouped into.
+	 * Weeks start on Monday.
+	 */
+	public enum TimeBucket
+	{
+		MINUTE(60000L, 0), HOUR(3600000L, 0), DAY(86400000L, 0),
+		WEEK(7 * 86400000L, 3 * 86400000L);
+
+		//~ Instance fields ----------------------------------------------------
+
+		private final long nLength;
+		private final long nOffset;
+
+		//~ Constructors -------------------------------------------------------
+
+		/***************************************
+		 * Creates a new instance.
+		 *
+		 * @param nLength The bucket length in milliseconds
+		 * @param nOffset The offset of the bucket start from the epoch start
+		 *                (Thursday, 1970-01-01) in milliseconds
+		 */
+		private TimeBucket(long nLength, long nOffset)
+		{
+			this.nLength = nLength;
+			this.nOffset = nOffset;
+		}
+
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Returns the start of the bucket that contains a certain time.
+		 *
+		 * @param  nTime The time in milliseconds
+		 *
+		 * @return The bucket start in milliseconds
+		 */
+		public long getBucketStart(long nTime)
+		{
+			long nShifted = nTime + nOffset;
+			long nBucket  = nShifted / nLength;
+
+			if (nShifted < 0 && nShifted % nLength != 0)
+			{
+				nBucket--;
+			}
+
+			return nBucket * nLength - nOffset;
+		}
+	}
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final AggregateFunction eFunction;
+	private final int			    nValueColumn;
+
+	private int		   nGroupColumn    = -1;
+	private int		   nTimeColumn     = -1;
+	private TimeBucket eTimeBucket     = null;
+	private int		   nTimeZoneOffset = 0;
+	private double     fPercentile     = 50;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param eFunction    The aggregate function
+	 * @param nValueColumn The index of the fact column containing the values
+	 *                     to aggregate (ignored for {@link
+	 *                     AggregateFunction#COUNT})
+	 */
+	public ChartAggregation(AggregateFunction eFunction, int nValueColumn)
+	{
+		this.eFunction    = eFunction;
+		this.nValueColumn = nValueColumn;
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Formats the start time of a bucket as an ISO 8601 date (for days and
+	 * weeks) or date and time (for hours and minutes).
+	 *
+	 * @param  nTime   The bucket start in milliseconds (in the target time
+	 *                 zone)
+	 * @param  eBucket The time bucket
+	 *
+	 * @return The formatted time
+	 */
+	static String formatBucket(long nTime, TimeBucket eBucket)
+	{
+		long nDays   = Math.floorDiv(nTime, 86400000L);
+		int  nMinute = (int) (Math.floorMod(nTime, 86400000L) / 60000);
+
+		// civil date from days since the epoch (proleptic Gregorian)
+		long nShifted = nDays + 719468;
+		long nEra     = Math.floorDiv(nShifted, 146097);
+		long nDoe     = nShifted - nEra * 146097;
+		long nYoe     =
+			(nDoe - nDoe / 1460 + nDoe / 36524 - nDoe / 146096) / 365;
+		long nDoy     = nDoe - (365 * nYoe + nYoe / 4 - nYoe / 100);
+		long nMp	  = (5 * nDoy + 2) / 153;
+		long nDay     = nDoy - (153 * nMp + 2) / 5 + 1;
+		long nMonth   = nMp < 10 ? nMp + 3 : nMp - 9;
+		long nYear    = nYoe + nEra * 400 + (nMonth <= 2 ? 1 : 0);
+
+		StringBuilder aResult = new StringBuilder();
+
+		aResult.append(nYear).append('-');
+		appendTwoDigits(aResult, nMonth).append('-');
+		appendTwoDigits(aResult, nDay);
+
+		if (eBucket == TimeBucket.MINUTE || eBucket == TimeBucket.HOUR)
+		{
+			aResult.append(' ');
+			appendTwoDigits(aResult, nMinute / 60).append(':');
+			appendTwoDigits(aResult, nMinute % 60);
+		}
+
+		return aResult.toString();
+	}
+
+	/***************************************
+	 * Appends a number with at least two digits to a string builder.
+	 *
+	 * @param  rBuilder The string builder
+	 * @param  nValue   The value to append
+	 *
+	 * @return The string builder
+	 */
+	private static StringBuilder appendTwoDigits(
+		StringBuilder rBuilder,
+		long		  nValue)
+	{
+		if (nValue < 10)
+		{
+			rBuilder.append('0');
+		}
+
+		return rBuilder.append(nValue);
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Aggregates facts according to this specification.
+	 *
+	 * @param  rFacts The facts to aggregate
+	 *
+	 * @return The aggregated chart data
+	 */
+	public ColumnarChartData aggregate(ChartFacts rFacts)
+	{
+		boolean bTimeRows   = nTimeColumn >= 0 && eTimeBucket != null;
+		boolean bGroupCols  = bTimeRows && nGroupColumn >= 0;
+		int     nFacts	    = rFacts.getFactCount();
+		long    nZoneMillis = nTimeZoneOffset * 60000L;
+
+		Map<Object, Integer> aRowIndexes = new HashMap<>();
+		Map<String, Integer> aColIndexes = new HashMap<>();
+		List<Object>		 aRowKeys    = new ArrayList<>();
+		List<String>		 aColKeys    = new ArrayList<>();
+		List<Accumulator[]>  aCells	     = new ArrayList<>();
+
+		for (int nFact = 0; nFact < nFacts; nFact++)
+		{
+			Object rRowKey;
+			int    nCol = 0;
+
+			if (bTimeRows)
+			{
+				double fTime = rFacts.getNumber(nFact, nTimeColumn);
+
+				if (Double.isNaN(fTime))
+				{
+					continue;
+				}
+
+				rRowKey =
+					Long.valueOf(eTimeBucket.getBucketStart((long) fTime +
+															nZoneMillis));
+			}
+			else
+			{
+				rRowKey = getGroup(rFacts, nFact);
+			}
+
+			if (bGroupCols)
+			{
+				String  sGroup = getGroup(rFacts, nFact);
+				Integer rCol   = aColIndexes.get(sGroup);
+
+				if (rCol == null)
+				{
+					rCol = Integer.valueOf(aColKeys.size());
+					aColIndexes.put(sGroup, rCol);
+					aColKeys.add(sGroup);
+				}
+
+				nCol = rCol.intValue();
+			}
+
+			Integer rRow = aRowIndexes.get(rRowKey);
+
+			if (rRow == null)
+			{
+				rRow = Integer.valueOf(aRowKeys.size());
+				aRowIndexes.put(rRowKey, rRow);
+				aRowKeys.add(rRowKey);
+				aCells.add(new Accumulator[Math.max(aColKeys.size(), 1)]);
+			}
+
+			Accumulator[] rRowCells = aCells.get(rRow.intValue());
+
+			if (nCol >= rRowCells.length)
+			{
+				rRowCells = Arrays.copyOf(rRowCells, aColKeys.size());
+				aCells.set(rRow.intValue(), rRowCells);
+			}
+
+			Accumulator rCell = rRowCells[nCol];
+
+			if (rCell == null)
+			{
+				rCell = new Accumulator(eFunction ==
+										AggregateFunction.PERCENTILE);
+				rRowCells[nCol] = rCell;
+			}
+
+			if (eFunction == AggregateFunction.COUNT)
+			{
+				rCell.nCount++;
+			}
+			else
+			{
+				double fValue = rFacts.getNumber(nFact, nValueColumn);
+
+				if (!Double.isNaN(fValue))
+				{
+					rCell.add(fValue);
+				}
+			}
+		}
+
+		return createResult(rFacts, aRowKeys, aColKeys, aCells);
+	}
+
+	/***************************************
+	 * Returns the aggregate function.
+	 *
+	 * @return The aggregate function
+	 */
+	public final AggregateFunction getFunction()
+	{
+		return eFunction;
+	}
+
+	/***************************************
+	 * Returns the index of the group column.
+	 *
+	 * @return The group column index or -1 for none
+	 */
+	public final int getGroupColumn()
+	{
+		return nGroupColumn;
+	}
+
+	/***************************************
+	 * Returns the time bucket.
+	 *
+	 * @return The time bucket or NULL for none
+	 */
+	public final TimeBucket getTimeBucket()
+	{
+		return eTimeBucket;
+	}
+
+	/***************************************
+	 * Returns the index of the time column.
+	 *
+	 * @return The time column index or -1 for none
+	 */
+	public final int getTimeColumn()
+	{
+		return nTimeColumn;
+	}
+
+	/***************************************
+	 * Sets the fact column that contains the group keys.
+	 *
+	 * @param nColumn The group column index or -1 for none
+	 */
+	public void setGroupColumn(int nColumn)
+	{
+		nGroupColumn = nColumn;
+	}
+
+	/***************************************
+	 * Sets the percentile that is calculated by the function {@link
+	 * AggregateFunction#PERCENTILE}. The default is 50 (the median).
+	 *
+	 * @param fPercentile The percentile in the range 0 to 100
+	 */
+	public void setPercentile(double fPercentile)
+	{
+		this.fPercentile = fPercentile;
+	}
+
+	/***************************************
+	 * Sets the fact column that contains the timestamps and the time bucket
+	 * to group the timestamps into.
+	 *
+	 * @param nColumn The time column index or -1 for none
+	 * @param eBucket The time bucket
+	 */
+	public void setTimeColumn(int nColumn, TimeBucket eBucket)
+	{
+		nTimeColumn = nColumn;
+		eTimeBucket = eBucket;
+	}
+
+	/***************************************
+	 * Sets the offset of the time zone in which time buckets start. The
+	 * default is UTC.
+	 *
+	 * @param nMinutes The time zone offset from UTC in minutes
+	 */
+	public void setTimeZoneOffset(int nMinutes)
+	{
+		nTimeZoneOffset = nMinutes;
+	}
+
+	/***************************************
+	 * Creates the result data from the aggregated cells.
+	 *
+	 * @param  rFacts   The aggregated facts
+	 * @param  rRowKeys The keys of the result rows
+	 * @param  rColKeys The keys of the result columns (empty for a single
+	 *                  column)
+	 * @param  rCells   The accumulators of the result cells
+	 *
+	 * @return The result data
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ColumnarChartData createResult(ChartFacts		   rFacts,
+										   List<Object>		   rRowKeys,
+										   List<String>		   rColKeys,
+										   List<Accumulator[]> rCells)
+	{
+		int		 nRows		 = rRowKeys.size();
+		int		 nCols		 = Math.max(rColKeys.size(), 1);
+		int[]    aRowOrder   = sortedOrder((List) rRowKeys);
+		int[]    aColOrder   = sortedOrder((List) rColKeys);
+		String[] aRowLabels  = new String[nRows];
+		String   sRowAxis    =
+			nTimeColumn >= 0 && eTimeBucket != null
+			? rFacts.getColumnName(nTimeColumn)
+			: nGroupColumn >= 0 ? rFacts.getColumnName(nGroupColumn) : null;
+
+		for (int i = 0; i < nRows; i++)
+		{
+			Object rKey = rRowKeys.get(aRowOrder[i]);
+
+			aRowLabels[i] =
+				rKey instanceof Long
+				? formatBucket(((Long) rKey).longValue(), eTimeBucket)
+				: (String) rKey;
+		}
+
+		ColumnarChartData aResult = new ColumnarChartData(sRowAxis, aRowLabels);
+
+		for (int nCol = 0; nCol < nCols; nCol++)
+		{
+			int		 nKeyCol = rColKeys.isEmpty() ? 0 : aColOrder[nCol];
+			double[] aValues = new double[nRows];
+
+			for (int i = 0; i < nRows; i++)
+			{
+				Accumulator[] rRowCells = rCells.get(aRowOrder[i]);
+				Accumulator   rCell     =
+					nKeyCol < rRowCells.length ? rRowCells[nKeyCol] : null;
+
+				aValues[i] =
+					rCell != null ? rCell.getResult(eFunction, fPercentile)
+								  : Double.NaN;
+			}
+
+			String sLabel =
+				rColKeys.isEmpty()
+				? (eFunction == AggregateFunction.COUNT
+				   ? "count" : rFacts.getColumnName(nValueColumn))
+				: rColKeys.get(nKeyCol);
+
+			aResult.addColumn(sLabel, aValues);
+
+			for (int i = 0; i < nRows; i++)
+			{
+				if (Double.isNaN(aValues[i]))
+				{
+					aResult.setNull(i, nCol);
+				}
+			}
+		}
+
+		return aResult;
+	}
+
+	/***************************************
+	 * Returns the group key of a fact.
+	 *
+	 * @param  rFacts The facts
+	 * @param  nFact  The fact index
+	 *
+	 * @return The group key (an empty string for undefined groups)
+	 */
+	private String getGroup(ChartFacts rFacts, int nFact)
+	{
+		String sGroup =
+			nGroupColumn >= 0 ? rFacts.getString(nFact, nGroupColumn) : null;
+
+		return sGroup != null ? sGroup : "";
+	}
+
+	/***************************************
+	 * Returns the indices of a list of keys in the ascending order of the
+	 * keys.
+	 *
+	 * @param  rKeys The keys to sort
+	 *
+	 * @return The key indices in sort order
+	 */
+	private <T extends Comparable<T>> int[] sortedOrder(final List<T> rKeys)
+	{
+		int			  nCount  = rKeys.size();
+		List<Integer> aOrder  = new ArrayList<>(nCount);
+		int[]		  aResult = new int[nCount];
+
+		for (int i = 0; i < nCount; i++)
+		{
+			aOrder.add(Integer.valueOf(i));
+		}
+
+		Collections.sort(aOrder,
+			new Comparator<Integer>()
+			{
+				@Override
+				public int compare(Integer rFirst, Integer rSecond)
+				{
+					T rFirstKey = rKeys.get(rFirst.intValue());
+
+					return rFirstKey.compareTo(rKeys.get(rSecond.intValue()));
+				}
+			});
+
+		for (int i = 0; i < nCount; i++)
+		{
+			aResult[i] = aOrder.get(i).intValue();
+		}
+
+		return aResult;
+	}
+
+	//~ Inner Classes ----------------------------------------------------------
+
+	/********************************************************************
+	 * Accumulates the values of a result cell.
+	 *
+	 * @author eso
+	 */
+	static class Accumulator
+	{
+		//~ Instance fields ----------------------------------------------------
+
+		int nCount = 0;
+
+		private double   fSum = 0;
+		private double   fMin = Double.POSITIVE_INFINITY;
+		private double   fMax = Double.NEGATIVE_INFINITY;
+		private double[] aValues;
+
+		//~ Constructors -------------------------------------------------------
+
+		/***************************************
+		 * Creates a new instance.
+		 *
+		 * @param bKeepValues TRUE to keep all values (for percentiles)
+		 */
+		Accumulator(boolean bKeepValues)
+		{
+			aValues = bKeepValues ? new double[8] : null;
+		}
+
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Adds a value.
+		 *
+		 * @param fValue The value to add
+		 */
+		void add(double fValue)
+		{
+			if (aValues != null)
+			{
+				if (nCount == aValues.length)
+				{
+					aValues = Arrays.copyOf(aValues, nCount * 2);
+				}
+
+				aValues[nCount] = fValue;
+			}
+
+			fSum += fValue;
+			fMin = Math.min(fMin, fValue);
+			fMax = Math.max(fMax, fValue);
+			nCount++;
+		}
+
+		/***************************************
+		 * Returns the result of an aggregate function.
+		 *
+		 * @param  eFunction   The aggregate function
+		 * @param  fPercentile The percentile for percentile calculations
+		 *
+		 * @return The result value or NaN if no values have been added
+		 */
+		double getResult(AggregateFunction eFunction, double fPercentile)
+		{
+			if (nCount == 0)
+			{
+				return Double.NaN;
+			}
+
+			switch (eFunction)
+			{
+				case SUM:
+					return fSum;
+
+				case AVERAGE:
+					return fSum / nCount;
+
+				case MIN:
+					return fMin;
+
+				case MAX:
+					return fMax;
+
+				case COUNT:
+					return nCount;
+
+				case PERCENTILE:
+					return getPercentile(fPercentile);
+
+				default:
+					throw new IllegalArgumentException("Unsupported function: " +
+													   eFunction);
+			}
+		}
+
+		/***************************************
+		 * Calculates a percentile of the added values by linear interpolation
+		 * between the closest ranks.
+		 *
+		 * @param  fPercentile The percentile in the range 0 to 100
+		 *
+		 * @return The percentile value
+		 */
+		private double getPercentile(double fPercentile)
+		{
+			Arrays.sort(aValues, 0, nCount);
+
+			double fRank  = fPercentile / 100 * (nCount - 1);
+			int    nLower = (int) Math.floor(fRank);
+			int    nUpper = Math.min(nLower + 1, nCount - 1);
+
+			return aValues[nLower] +
+				   (fRank - nLower) * (aValues[nUpper] - aValues[nLower]);
+		}
+	}
+}
@@ -0,0 +1,509 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.user.client.Timer;
+
+import com.googlecode.gwt.charts.client.ChartLoader;
+import com.googlecode.gwt.charts.client.ChartPackage;
+
+
+/********************************************************************
+ * Loads the packages of the external chart API on demand and notifies waiting
+ * clients when the packages they need become available. The loading state of
+ * each package is managed by an explicit state machine (see {@link State}).
+ * If a package has not been loaded after a timeout the loading will be retried
+ * up to a maximum number of attempts after which the package is considered as
+ * failed. A new request for a failed package starts a new loading cycle.
+ *
+ * <p>Each client is contained at most once in the queue of pending requests,
+ * so the queue size is bounded by the number of active clients. Clients that
+ * are no longer interested (e.g. because they have been removed from the UI)
+ * should invoke {@link #cancel(ApiClient)}. After a package has been loaded
+ * the waiting clients are notified in batches of a limited size in successive
+ * animation frames to prevent that the rendering of many charts blocks the
+ * browser.</p>
+ *
+ * <p>The loader also records the loading latency and the number of attempts
+ * for each package.</p>
+ *
+ * @author eso
+ */
+public class ChartApiLoader
+{
+	//~ Enums ------------------------------------------------------------------
+
+	/********************************************************************
+	 * Enumeration of the loading states of a chart package.
+	 */
+	public enum State { IDLE, LOADING, LOADED, FAILED }
+
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The default timeout for the loading of packages in milliseconds. */
+	public static final int DEFAULT_TIMEOUT = 15000;
+
+	/** The default number of attempts to load a package. */
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+	/** The default number of clients that are notified per frame. */
+	public static final int DEFAULT_BATCH_SIZE = 8;
+
+	private static ChartApiLoader aInstance = null;
+
+	//~ Instance fields --------------------------------------------------------
+
+	private int nTimeout     = DEFAULT_TIMEOUT;
+	private int nMaxAttempts = DEFAULT_MAX_ATTEMPTS;
+	private int nBatchSize   = DEFAULT_BATCH_SIZE;
+
+	private Map<ChartPackage, State>   aStates     =
+		new EnumMap<>(ChartPackage.class);
+	private Map<ChartPackage, Integer> aAttempts   =
+		new EnumMap<>(ChartPackage.class);
+	private Map<ChartPackage, Double>  aStartTimes =
+		new EnumMap<>(ChartPackage.class);
+	private Map<ChartPackage, Double>  aLatencies  =
+		new EnumMap<>(ChartPackage.class);
+
+	private List<ChartPackage>			 aLoadQueue		 = new ArrayList<>();
+	private List<ApiClient>				 aNotifyQueue    = new ArrayList<>();
+	private Map<ApiClient, ChartPackage> aPendingClients =
+		new LinkedHashMap<>();
+
+	private boolean bNotifyScheduled = false;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Private, only used through {@link #get()}.
+	 */
+	private ChartApiLoader()
+	{
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Returns the singleton loader instance.
+	 *
+	 * @return The loader instance
+	 */
+	public static ChartApiLoader get()
+	{
+		if (aInstance == null)
+		{
+			aInstance = new ChartApiLoader();
+		}
+
+		return aInstance;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Removes a client from the pending requests.
+	 *
+	 * @param  rClient The client to remove
+	 *
+	 * @return TRUE if the client had a pending request
+	 */
+	public boolean cancel(ApiClient rClient)
+	{
+		boolean bPending = aPendingClients.remove(rClient) != null;
+
+		return aNotifyQueue.remove(rClient) || bPending;
+	}
+
+	/***************************************
+	 * Returns the number of attempts that have been made to load a certain
+	 * package.
+	 *
+	 * @param  ePackage The chart package
+	 *
+	 * @return The number of loading attempts
+	 */
+	public int getLoadAttempts(ChartPackage ePackage)
+	{
+		Integer rAttempts = aAttempts.get(ePackage);
+
+		return rAttempts != null ? rAttempts.intValue() : 0;
+	}
+
+	/***************************************
+	 * Returns the time that had been needed to load a certain package,
+	 * including all retries.
+	 *
+	 * @param  ePackage The chart package
+	 *
+	 * @return The loading latency in milliseconds or -1 if the package has not
+	 *         been loaded yet
+	 */
+	public double getLoadLatency(ChartPackage ePackage)
+	{
+		Double rLatency = aLatencies.get(ePackage);
+
+		return rLatency != null ? rLatency.doubleValue() : -1;
+	}
+
+	/***************************************
+	 * Returns the number of clients that are waiting for packages to be
+	 * loaded or for their notification.
+	 *
+	 * @return The number of pending clients
+	 */
+	public int getPendingCount()
+	{
+		return aPendingClients.size() + aNotifyQueue.size();
+	}
+
+	/***************************************
+	 * Returns the loading state of a certain package.
+	 *
+	 * @param  ePackage The chart package
+	 *
+	 * @return The package state
+	 */
+	public State getState(ChartPackage ePackage)
+	{
+		State eState = aStates.get(ePackage);
+
+		return eState != null ? eState : State.IDLE;
+	}
+
+	/***************************************
+	 * Checks whether a certain package has been loaded.
+	 *
+	 * @param  ePackage The chart package
+	 *
+	 * @return TRUE if the package is available
+	 */
+	public boolean isLoaded(ChartPackage ePackage)
+	{
+		return getState(ePackage) == State.LOADED;
+	}
+
+	/***************************************
+	 * Requests a certain chart package for a client. If the package is
+	 * already loaded the client will be notified in the next animation frame.
+	 * Otherwise the package will be loaded if necessary and the client will be
+	 * notified after loading has finished or failed. All packages that are
+	 * requested while processing the current browser event will be loaded
+	 * together. If the client has a pending request for another package that
+	 * request will be replaced.
+	 *
+	 * @param ePackage The chart package to load
+	 * @param rClient  The client to notify
+	 */
+	public void request(ChartPackage ePackage, ApiClient rClient)
+	{
+		State eState = getState(ePackage);
+
+		aNotifyQueue.remove(rClient);
+
+		if (eState == State.LOADED)
+		{
+			aPendingClients.remove(rClient);
+			aNotifyQueue.add(rClient);
+			scheduleNotification();
+		}
+		else
+		{
+			aPendingClients.put(rClient, ePackage);
+
+			if (eState != State.LOADING)
+			{
+				aStates.put(ePackage, State.LOADING);
+				aAttempts.put(ePackage, Integer.valueOf(0));
+				aStartTimes.put(ePackage,
+								Double.valueOf(Duration.currentTimeMillis()));
+				queueLoading(ePackage);
+			}
+		}
+	}
+
+	/***************************************
+	 * Sets the maximum number of clients that are notified in a single
+	 * animation frame.
+	 *
+	 * @param nBatchSize The batch size (must be > 0)
+	 */
+	public void setBatchSize(int nBatchSize)
+	{
+		this.nBatchSize = Math.max(1, nBatchSize);
+	}
+
+	/***************************************
+	 * Sets the maximum number of attempts to load a package.
+	 *
+	 * @param nMaxAttempts The maximum number of attempts (must be > 0)
+	 */
+	public void setMaxAttempts(int nMaxAttempts)
+	{
+		this.nMaxAttempts = Math.max(1, nMaxAttempts);
+	}
+
+	/***************************************
+	 * Sets the time after which a loading attempt is considered as failed.
+	 *
+	 * @param nMillis The timeout in milliseconds
+	 */
+	public void setTimeout(int nMillis)
+	{
+		this.nTimeout = nMillis;
+	}
+
+	/***************************************
+	 * Starts the loading of all packages in the load queue.
+	 */
+	void loadQueuedPackages()
+	{
+		final ChartPackage[] rPackages =
+			aLoadQueue.toArray(new ChartPackage[aLoadQueue.size()]);
+
+		aLoadQueue.clear();
+
+		for (ChartPackage ePackage : rPackages)
+		{
+			aAttempts.put(ePackage,
+						  Integer.valueOf(getLoadAttempts(ePackage) + 1));
+		}
+
+		final Timer aTimeout =
+			new Timer()
+			{
+				@Override
+				public void run()
+				{
+					packagesTimedOut(rPackages);
+				}
+			};
+
+		new ChartLoader(rPackages).loadApi(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					aTimeout.cancel();
+					packagesLoaded(rPackages);
+				}
+			});
+
+		aTimeout.schedule(nTimeout);
+	}
+
+	/***************************************
+	 * Notifies the next batch of clients in the notification queue and
+	 * schedules the next batch if necessary.
+	 */
+	void notifyNextBatch()
+	{
+		int nCount = Math.min(nBatchSize, aNotifyQueue.size());
+
+		List<ApiClient> rBatchView = aNotifyQueue.subList(0, nCount);
+		List<ApiClient> aBatch     = new ArrayList<>(rBatchView);
+
+		rBatchView.clear();
+		bNotifyScheduled = false;
+
+		for (ApiClient rClient : aBatch)
+		{
+			rClient.chartApiLoaded();
+		}
+
+		scheduleNotification();
+	}
+
+	/***************************************
+	 * Invoked after packages have been loaded successfully. This may also
+	 * happen after a timeout in which case the package will be accepted if
+	 * it is not already loaded.
+	 *
+	 * @param rPackages The loaded packages
+	 */
+	void packagesLoaded(ChartPackage[] rPackages)
+	{
+		double fNow = Duration.currentTimeMillis();
+
+		for (ChartPackage ePackage : rPackages)
+		{
+			if (getState(ePackage) != State.LOADED)
+			{
+				aStates.put(ePackage, State.LOADED);
+				double fStart = aStartTimes.get(ePackage).doubleValue();
+
+				aLatencies.put(ePackage, Double.valueOf(fNow - fStart));
+			}
+		}
+
+		Iterator<Entry<ApiClient, ChartPackage>> rEntries =
+			aPendingClients.entrySet().iterator();
+
+		while (rEntries.hasNext())
+		{
+			Entry<ApiClient, ChartPackage> rEntry = rEntries.next();
+
+			if (isLoaded(rEntry.getValue()))
+			{
+				aNotifyQueue.add(rEntry.getKey());
+				rEntries.remove();
+			}
+		}
+
+		scheduleNotification();
+	}
+
+	/***************************************
+	 * Invoked if loading packages has not finished before the timeout. The
+	 * loading will either be retried or the packages will be marked as failed
+	 * and the waiting clients will be notified of the failure.
+	 *
+	 * @param rPackages The packages that timed out
+	 */
+	void packagesTimedOut(ChartPackage[] rPackages)
+	{
+		for (ChartPackage ePackage : rPackages)
+		{
+			if (getState(ePackage) == State.LOADING)
+			{
+				if (getLoadAttempts(ePackage) < nMaxAttempts)
+				{
+					queueLoading(ePackage);
+				}
+				else
+				{
+					aStates.put(ePackage, State.FAILED);
+					notifyFailure(ePackage);
+				}
+			}
+		}
+	}
+
+	/***************************************
+	 * Notifies all clients that are waiting for a certain package that the
+	 * loading has failed and removes them from the pending requests.
+	 *
+	 * @param ePackage The failed package
+	 */
+	private void notifyFailure(ChartPackage ePackage)
+	{
+		List<ApiClient> aFailed = new ArrayList<>();
+
+		Iterator<Entry<ApiClient, ChartPackage>> rEntries =
+			aPendingClients.entrySet().iterator();
+
+		while (rEntries.hasNext())
+		{
+			Entry<ApiClient, ChartPackage> rEntry = rEntries.next();
+
+			if (rEntry.getValue() == ePackage)
+			{
+				aFailed.add(rEntry.getKey());
+				rEntries.remove();
+			}
+		}
+
+		for (ApiClient rClient : aFailed)
+		{
+			rClient.chartApiFailed(ePackage);
+		}
+	}
+
+	/***************************************
+	 * Adds a package to the load queue and schedules the loading of the queue
+	 * at the end of the current browser event if necessary.
+	 *
+	 * @param ePackage The package to load
+	 */
+	private void queueLoading(ChartPackage ePackage)
+	{
+		if (aLoadQueue.isEmpty())
+		{
+			Scheduler.get().scheduleFinally(new ScheduledCommand()
+				{
+					@Override
+					public void execute()
+					{
+						loadQueuedPackages();
+					}
+				});
+		}
+
+		aLoadQueue.add(ePackage);
+	}
+
+	/***************************************
+	 * Schedules the notification of the next batch of clients in the next
+	 * animation frame if the notification queue is not empty.
+	 */
+	private void scheduleNotification()
+	{
+		if (!bNotifyScheduled && !aNotifyQueue.isEmpty())
+		{
+			bNotifyScheduled = true;
+
+			AnimationScheduler rScheduler = AnimationScheduler.get();
+
+			rScheduler.requestAnimationFrame(new AnimationCallback()
+				{
+					@Override
+					public void execute(double fTimestamp)
+					{
+						notifyNextBatch();
+					}
+				});
+		}
+	}
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The interface for clients of the chart API loader.
+	 *
+	 * @author eso
+	 */
+	public interface ApiClient
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Will be invoked if loading a requested package has failed after the
+		 * maximum number of attempts.
+		 *
+		 * @param ePackage The failed package
+		 */
+		public void chartApiFailed(ChartPackage ePackage);
+
+		/***************************************
+		 * Will be invoked when the requested package is available.
+		 */
+		public void chartApiLoaded();
+	}
+}
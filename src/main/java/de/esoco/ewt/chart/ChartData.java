@@ -0,0 +1,90 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * Interface for numeric chart data that is organized in rows and columns. In
+ * contrast to a generic data set the values are accessed as primitive double
+ * values. Each row has a label that is displayed on the row axis of a chart
+ * and each column corresponds to a data series.
+ *
+ * @author eso
+ */
+public interface ChartData
+{
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns the number of data columns (i.e. series).
+	 *
+	 * @return The column count
+	 */
+	public int getColumnCount();
+
+	/***************************************
+	 * Returns the label of a certain column.
+	 *
+	 * @param  nColumn The column index
+	 *
+	 * @return The column label (may be NULL)
+	 */
+	public String getColumnLabel(int nColumn);
+
+	/***************************************
+	 * Returns the label of the row axis.
+	 *
+	 * @return The row axis label (may be NULL)
+	 */
+	public String getRowAxisLabel();
+
+	/***************************************
+	 * Returns the number of data rows.
+	 *
+	 * @return The row count
+	 */
+	public int getRowCount();
+
+	/***************************************
+	 * Returns the label of a certain row.
+	 *
+	 * @param  nRow The row index
+	 *
+	 * @return The row label
+	 */
+	public String getRowLabel(int nRow);
+
+	/***************************************
+	 * Returns a certain data value. If the value is undefined the result will
+	 * be {@link Double#NaN}.
+	 *
+	 * @param  nRow    The row index
+	 * @param  nColumn The column index
+	 *
+	 * @return The data value or NaN if undefined
+	 */
+	public double getValue(int nRow, int nColumn);
+
+	/***************************************
+	 * Checks whether a certain data value is undefined.
+	 *
+	 * @param  nRow    The row index
+	 * @param  nColumn The column index
+	 *
+	 * @return TRUE if the value is undefined
+	 */
+	public boolean isNull(int nRow, int nColumn);
+}
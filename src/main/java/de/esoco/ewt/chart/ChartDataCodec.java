@@ -0,0 +1,588 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.core.client.JsonUtils;
+
+import com.googlecode.gwt.charts.client.DataTable;
+
+
+/********************************************************************
+ * Encodes and decodes chart data in a compact JSON format for the transfer
+ * between server and client. In contrast to a generic data set the format is
+ * columnar and typed and all labels are stored only once in a dictionary.
+ * The structure of an encoded object is:
+ *
+ * <pre>
+ * {"v":1,                              // the format version
+ *  "d":["Month","Jan","Feb","Sales"],  // the label dictionary
+ *  "a":0,                              // the row axis label (-1 for none)
+ *  "r":[1,2],                          // the row labels
+ *  "c":[[3,2,1250,-75,null]]}          // the columns
+ * </pre>
+ *
+ * <p>All labels are indices into the dictionary. Each column starts with the
+ * index of its label and the number of decimal digits of its values (-1 for
+ * integer columns), followed by one entry per row. Numeric values are scaled
+ * to integers by the decimal digits and stored as the difference to the
+ * previous defined value of the column (starting at zero) so that slowly
+ * changing series like time series are encoded with short numbers.
+ * Undefined values are stored as NULL. In the example the values of the
+ * column are 12.50 and 11.75 followed by an undefined value.</p>
+ *
+ * <p>Encoding is performed in plain Java so that it can be used on the
+ * server. The client can either decode the data into {@link
+ * ColumnarChartData} for charts that process the data (e.g. by downsampling)
+ * or convert it directly into a data table of the chart API with {@link
+ * #decodeTable(String, Function)}, which creates the table in a single call
+ * from the table literal format instead of setting each cell separately.</p>
+ *
+ * @author eso
+ */
+public class ChartDataCodec
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The version of the encoding format. */
+	public static final int VERSION = 1;
+
+	/** The default maximum number of decimal digits of encoded values. */
+	public static final int DEFAULT_MAX_DECIMALS = 6;
+
+	/**
+	 * The maximum magnitude of scaled values (2^52) so that the differences
+	 * between them can still be represented exactly by JavaScript numbers.
+	 */
+	private static final double MAX_SCALED_VALUE = 4503599627370496d;
+
+	/** The absolute tolerance for the detection of decimal digits. */
+	private static final double DECIMALS_TOLERANCE = 1e-6;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Private, only static use.
+	 */
+	private ChartDataCodec()
+	{
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Decodes encoded chart data on the client.
+	 *
+	 * @param  sEncoded The encoded chart data
+	 *
+	 * @return The decoded chart data
+	 *
+	 * @throws IllegalArgumentException If the format version is not supported
+	 */
+	public static ColumnarChartData decode(String sEncoded)
+	{
+		JavaScriptObject rData = parse(sEncoded);
+
+		JsArrayString			  rDictionary = getArray(rData, "d").cast();
+		JsArrayNumber			  rRowKeys    = getArray(rData, "r").cast();
+		JsArray<JavaScriptObject> rColumns    = getArray(rData, "c").cast();
+
+		int		 nRows	    = rRowKeys.length();
+		String[] aRowLabels = new String[nRows];
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			aRowLabels[nRow] =
+				getEntry(rDictionary, (int) rRowKeys.get(nRow));
+		}
+
+		String sAxisLabel = getEntry(rDictionary, getInt(rData, "a"));
+
+		ColumnarChartData aResult =
+			new ColumnarChartData(sAxisLabel, aRowLabels);
+
+		for (int nCol = 0; nCol < rColumns.length(); nCol++)
+		{
+			JavaScriptObject rColumn  = rColumns.get(nCol);
+			JsArrayNumber    rValues  = decodeColumn(rColumn);
+			String			 sLabel   =
+				getEntry(rDictionary, getElement(rColumn, 0));
+
+			if (getElement(rColumn, 1) < 0)
+			{
+				int[]		  aValues = new int[nRows];
+				List<Integer> aNulls  = new ArrayList<>();
+
+				for (int nRow = 0; nRow < nRows; nRow++)
+				{
+					double fValue = rValues.get(nRow);
+
+					if (Double.isNaN(fValue))
+					{
+						aNulls.add(nRow);
+					}
+					else
+					{
+						aValues[nRow] = (int) fValue;
+					}
+				}
+
+				aResult.addColumn(sLabel, aValues);
+
+				for (int nRow : aNulls)
+				{
+					aResult.setNull(nRow, nCol);
+				}
+			}
+			else
+			{
+				double[] aValues = new double[nRows];
+
+				for (int nRow = 0; nRow < nRows; nRow++)
+				{
+					aValues[nRow] = rValues.get(nRow);
+				}
+
+				aResult.addColumn(sLabel, aValues);
+			}
+		}
+
+		return aResult;
+	}
+
+	/***************************************
+	 * Decodes encoded chart data directly into a data table of the chart API
+	 * with a string column for the row labels and a number column for each
+	 * data column. The labels in the dictionary are expanded once before the
+	 * table is created in a single call. The chart API must have been loaded
+	 * before this method is invoked.
+	 *
+	 * @param  sEncoded        The encoded chart data
+	 * @param  fExpandResource A function that expands resources in labels
+	 *
+	 * @return The new data table
+	 *
+	 * @throws IllegalArgumentException If the format version is not supported
+	 */
+	public static DataTable decodeTable(
+		String					 sEncoded,
+		Function<String, String> fExpandResource)
+	{
+		JavaScriptObject rData		 = parse(sEncoded);
+		JsArrayString    rDictionary = getArray(rData, "d").cast();
+
+		for (int i = 0; i < rDictionary.length(); i++)
+		{
+			rDictionary.set(i, fExpandResource.apply(rDictionary.get(i)));
+		}
+
+		return createTable(rData);
+	}
+
+	/***************************************
+	 * Encodes chart data with the default maximum number of decimal digits.
+	 *
+	 * @param  rData The chart data to encode
+	 *
+	 * @return The encoded data
+	 *
+	 * @see    #encode(ChartData, int)
+	 */
+	public static String encode(ChartData rData)
+	{
+		return encode(rData, DEFAULT_MAX_DECIMALS);
+	}
+
+	/***************************************
+	 * Encodes chart data. Integer columns of {@link ColumnarChartData} are
+	 * encoded as integer columns. For all other columns the smallest number
+	 * of decimal digits up to the given maximum is used that represents all
+	 * values of the column exactly. If no such number exists the values will
+	 * be rounded to the maximum number of decimal digits or to the number of
+	 * digits that keeps the largest value of the column in the exactly
+	 * representable range of 2^52 if that is smaller. Undefined values that
+	 * are not marked as NULL (i.e. NaN) are encoded as NULL.
+	 *
+	 * @param  rData        The chart data to encode
+	 * @param  nMaxDecimals The maximum number of decimal digits (0 - 15)
+	 *
+	 * @return The encoded data
+	 *
+	 * @throws IllegalArgumentException If the data contains an infinite value
+	 *                                  or a value with a magnitude above 2^52
+	 */
+	public static String encode(ChartData rData, int nMaxDecimals)
+	{
+		Map<String, Integer> aDictionary = new LinkedHashMap<>();
+		StringBuilder		 aColumns    = new StringBuilder("[");
+		StringBuilder		 aRows	     = new StringBuilder("[");
+
+		int nRows	   = rData.getRowCount();
+		int nCols	   = rData.getColumnCount();
+		int nAxisLabel = getKey(aDictionary, rData.getRowAxisLabel());
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			if (nRow > 0)
+			{
+				aRows.append(',');
+			}
+
+			aRows.append(getKey(aDictionary, rData.getRowLabel(nRow)));
+		}
+
+		for (int nCol = 0; nCol < nCols; nCol++)
+		{
+			boolean bInteger =
+				rData instanceof ColumnarChartData &&
+				((ColumnarChartData) rData).isIntegerColumn(nCol);
+
+			int nDecimals =
+				bInteger ? 0 : getDecimals(rData, nCol, nMaxDecimals);
+
+			double fScale    = Math.pow(10, nDecimals);
+			long   nPrevious = 0;
+
+			if (nCol > 0)
+			{
+				aColumns.append(',');
+			}
+
+			aColumns.append('[');
+			aColumns.append(getKey(aDictionary, rData.getColumnLabel(nCol)));
+			aColumns.append(',').append(bInteger ? -1 : nDecimals);
+
+			for (int nRow = 0; nRow < nRows; nRow++)
+			{
+				aColumns.append(',');
+
+				double fValue =
+					rData.isNull(nRow, nCol) ? Double.NaN
+											 : rData.getValue(nRow, nCol);
+
+				if (Double.isNaN(fValue))
+				{
+					aColumns.append("null");
+				}
+				else
+				{
+					double fScaled = Math.rint(fValue * fScale);
+
+					if (!(Math.abs(fScaled) <= MAX_SCALED_VALUE))
+					{
+						throw new IllegalArgumentException(
+							"Value not encodable: " + fValue);
+					}
+
+					long nValue = (long) fScaled;
+
+					aColumns.append(nValue - nPrevious);
+					nPrevious = nValue;
+				}
+			}
+
+			aColumns.append(']');
+		}
+
+		StringBuilder aResult = new StringBuilder("{\"v\":");
+		boolean		  bFirst  = true;
+
+		aResult.append(VERSION).append(",\"d\":[");
+
+		for (String sLabel : aDictionary.keySet())
+		{
+			if (!bFirst)
+			{
+				aResult.append(',');
+			}
+
+			appendString(aResult, sLabel);
+			bFirst = false;
+		}
+
+		aResult.append("],\"a\":").append(nAxisLabel);
+		aResult.append(",\"r\":").append(aRows).append(']');
+		aResult.append(",\"c\":").append(aColumns).append("]}");
+
+		return aResult.toString();
+	}
+
+	/***************************************
+	 * Appends a string as a JSON string literal.
+	 *
+	 * @param rBuilder The string builder
+	 * @param sValue   The string value
+	 */
+	private static void appendString(StringBuilder rBuilder, String sValue)
+	{
+		rBuilder.append('"');
+
+		for (int i = 0; i < sValue.length(); i++)
+		{
+			char c = sValue.charAt(i);
+
+			if (c == '"' || c == '\\')
+			{
+				rBuilder.append('\\').append(c);
+			}
+			else if (c < 0x20 || c == 0x2028 || c == 0x2029)
+			{
+				String sHex = Integer.toHexString(c);
+
+				rBuilder.append("\\u");
+				rBuilder.append("0000".substring(sHex.length())).append(sHex);
+			}
+			else
+			{
+				rBuilder.append(c);
+			}
+		}
+
+		rBuilder.append('"');
+	}
+
+	/***************************************
+	 * Creates a data table from the table literal format of the chart API.
+	 *
+	 * @param  rData The parsed encoded data with expanded labels
+	 *
+	 * @return The new data table
+	 */
+	private static native DataTable createTable(JavaScriptObject rData) /*-{
+		var d = rData.d, r = rData.r, c = rData.c, n = r.length;
+		var cols = [{type: 'string', label: rData.a >= 0 ? d[rData.a] : ''}];
+		var values = [], rows = new Array(n), i, k;
+
+		for (k = 0; k < c.length; k++)
+		{
+			cols.push({type: 'number', label: d[c[k][0]]});
+			values.push(
+				@de.esoco.ewt.chart.ChartDataCodec::decodeColumn(*)(c[k]));
+		}
+
+		for (i = 0; i < n; i++)
+		{
+			var cells = [{v: d[r[i]]}];
+
+			for (k = 0; k < values.length; k++)
+			{
+				var v = values[k][i];
+
+				cells.push({v: v === v ? v : null});
+			}
+
+			rows[i] = {c: cells};
+		}
+
+		var aLiteral = {cols: cols, rows: rows};
+
+		return new $wnd.google.visualization.DataTable(aLiteral);
+	}-*/;
+
+	/***************************************
+	 * Decodes the values of an encoded column.
+	 *
+	 * @param  rColumn The encoded column
+	 *
+	 * @return The decoded values with NaN for undefined values
+	 */
+	private static native JsArrayNumber decodeColumn(
+		JavaScriptObject rColumn) /*-{
+		var n = rColumn.length - 2, d = rColumn[1];
+		var s = d > 0 ? Math.pow(10, d) : 1, a = new Array(n), x = 0, i, v;
+
+		for (i = 0; i < n; i++)
+		{
+			v = rColumn[i + 2];
+
+			if (v === null)
+			{
+				a[i] = NaN;
+			}
+			else
+			{
+				x += v;
+				a[i] = x / s;
+			}
+		}
+
+		return a;
+	}-*/;
+
+	/***************************************
+	 * Returns an array property of a JavaScript object.
+	 *
+	 * @param  rObject   The object
+	 * @param  sProperty The property name
+	 *
+	 * @return The array
+	 */
+	private static native JavaScriptObject getArray(
+		JavaScriptObject rObject,
+		String			 sProperty) /*-{
+		return rObject[sProperty];
+	}-*/;
+
+	/***************************************
+	 * Determines the smallest number of decimal digits that represents all
+	 * values of a column exactly. The number of digits is reduced if the
+	 * largest value of the column would otherwise exceed {@link
+	 * #MAX_SCALED_VALUE} because additional digits beyond that range are not
+	 * significant anyway. Undefined and infinite values are ignored.
+	 *
+	 * @param  rData        The chart data
+	 * @param  nCol         The column index
+	 * @param  nMaxDecimals The maximum number of decimal digits
+	 *
+	 * @return The number of decimal digits
+	 */
+	private static int getDecimals(ChartData rData, int nCol, int nMaxDecimals)
+	{
+		int    nRows	 = rData.getRowCount();
+		int    nDecimals = 0;
+		double fMax		 = 0;
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			double fValue =
+				rData.isNull(nRow, nCol) ? Double.NaN
+										 : rData.getValue(nRow, nCol);
+
+			if (Double.isNaN(fValue) || Double.isInfinite(fValue))
+			{
+				continue;
+			}
+
+			double fScaled = fValue * Math.pow(10, nDecimals);
+
+			fMax = Math.max(fMax, Math.abs(fValue));
+
+			while (nDecimals < nMaxDecimals &&
+				   Math.abs(fScaled - Math.rint(fScaled)) > DECIMALS_TOLERANCE)
+			{
+				nDecimals++;
+				fScaled = fValue * Math.pow(10, nDecimals);
+			}
+		}
+
+		while (nDecimals > 0 &&
+			   fMax * Math.pow(10, nDecimals) > MAX_SCALED_VALUE)
+		{
+			nDecimals--;
+		}
+
+		return nDecimals;
+	}
+
+	/***************************************
+	 * Returns an element of a JavaScript array as an integer.
+	 *
+	 * @param  rArray The array
+	 * @param  nIndex The element index
+	 *
+	 * @return The integer value
+	 */
+	private static native int getElement(JavaScriptObject rArray,
+										 int			  nIndex) /*-{
+		return rArray[nIndex];
+	}-*/;
+
+	/***************************************
+	 * Returns an entry of the label dictionary.
+	 *
+	 * @param  rDictionary The dictionary
+	 * @param  nIndex      The entry index or -1 for none
+	 *
+	 * @return The entry or NULL for a negative index
+	 */
+	private static String getEntry(JsArrayString rDictionary, int nIndex)
+	{
+		return nIndex >= 0 ? rDictionary.get(nIndex) : null;
+	}
+
+	/***************************************
+	 * Returns an integer property of a JavaScript object.
+	 *
+	 * @param  rObject   The object
+	 * @param  sProperty The property name
+	 *
+	 * @return The integer value
+	 */
+	private static native int getInt(JavaScriptObject rObject,
+									 String			  sProperty) /*-{
+		return rObject[sProperty];
+	}-*/;
+
+	/***************************************
+	 * Returns the dictionary key of a label and adds the label to the
+	 * dictionary if necessary.
+	 *
+	 * @param  rDictionary The dictionary
+	 * @param  sLabel      The label
+	 *
+	 * @return The dictionary key or -1 if the label is NULL
+	 */
+	private static int getKey(Map<String, Integer> rDictionary, String sLabel)
+	{
+		if (sLabel == null)
+		{
+			return -1;
+		}
+
+		Integer rKey = rDictionary.get(sLabel);
+
+		if (rKey == null)
+		{
+			rKey = Integer.valueOf(rDictionary.size());
+			rDictionary.put(sLabel, rKey);
+		}
+
+		return rKey.intValue();
+	}
+
+	/***************************************
+	 * Parses encoded chart data and checks the format version.
+	 *
+	 * @param  sEncoded The encoded chart data
+	 *
+	 * @return The parsed JavaScript object
+	 *
+	 * @throws IllegalArgumentException If the format version is not supported
+	 */
+	private static JavaScriptObject parse(String sEncoded)
+	{
+		JavaScriptObject rData    = JsonUtils.safeEval(sEncoded);
+		int				 nVersion = getInt(rData, "v");
+
+		if (nVersion != VERSION)
+		{
+			throw new IllegalArgumentException("Unsupported version: " +
+											   nVersion);
+		}
+
+		return rData;
+	}
+}
@@ -0,0 +1,180 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.ewt.UserInterfaceContext;
+
+import de.esoco.lib.model.DataSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.i18n.client.LocaleInfo;
+
+import com.googlecode.gwt.charts.client.DataTable;
+
+
+/********************************************************************
+ * A data model that can be shared by multiple charts which display the same
+ * data, e.g. as a line, a column, and a pie chart on the same page. The data
+ * table of the chart API is only built once by the model and each chart
+ * displays it through a lightweight view that can be defined with a {@link
+ * ChartDataView}. If the data of the model changes all registered listeners
+ * (including the charts that display the model) will be notified so that
+ * the charts are redrawn from the single new data table.
+ *
+ * <p>The model table contains a string column with the row labels followed
+ * by a number column for each data column. It can therefore be displayed by
+ * all chart types that use this standard table layout.</p>
+ *
+ * @author eso
+ */
+public class ChartDataModel
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final UserInterfaceContext rContext;
+
+	private ChartData			rData	   = null;
+	private DataTable			aDataTable = null;
+	private int					nRevision  = 0;
+	private List<ModelListener> aListeners = new ArrayList<>();
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rContext The user interface context for resource expansion
+	 */
+	public ChartDataModel(UserInterfaceContext rContext)
+	{
+		this.rContext = rContext;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Adds a listener that will be notified of data changes.
+	 *
+	 * @param rListener The listener to add
+	 */
+	public void addListener(ModelListener rListener)
+	{
+		aListeners.add(rListener);
+	}
+
+	/***************************************
+	 * Returns the current data of this model.
+	 *
+	 * @return The chart data or NULL if no data has been set
+	 */
+	public final ChartData getData()
+	{
+		return rData;
+	}
+
+	/***************************************
+	 * Returns the data table of this model. The table will be built on the
+	 * first access after the data has been set.
+	 *
+	 * @return The data table or NULL if no data has been set
+	 */
+	public DataTable getDataTable()
+	{
+		if (aDataTable == null && rData != null)
+		{
+			ChartLabelCache	    rLabels  = ChartLabelCache.get(rContext);
+			JsArrayTableBuilder aBuilder = new JsArrayTableBuilder();
+
+			rLabels.setLocale(LocaleInfo.getCurrentLocale().getLocaleName());
+			ChartTableConverter.convertData(rData, rLabels, aBuilder);
+			aDataTable = aBuilder.getDataTable();
+		}
+
+		return aDataTable;
+	}
+
+	/***************************************
+	 * Returns the revision of the model data that will be incremented on each
+	 * data change.
+	 *
+	 * @return The data revision
+	 */
+	public final int getRevision()
+	{
+		return nRevision;
+	}
+
+	/***************************************
+	 * Removes a data change listener.
+	 *
+	 * @param rListener The listener to remove
+	 */
+	public void removeListener(ModelListener rListener)
+	{
+		aListeners.remove(rListener);
+	}
+
+	/***************************************
+	 * Sets the data of this model from a data set. The values of the data set
+	 * must either be NULL or instances of {@link Number}.
+	 *
+	 * @param rDataSet The new data
+	 */
+	public void setData(DataSet<?> rDataSet)
+	{
+		setData(new DataSetChartData(rDataSet));
+	}
+
+	/***************************************
+	 * Sets the data of this model and notifies all listeners. The data table
+	 * will be rebuilt on the next access.
+	 *
+	 * @param rData The new data
+	 */
+	public void setData(ChartData rData)
+	{
+		this.rData = rData;
+		aDataTable = null;
+		nRevision++;
+
+		for (ModelListener rListener : new ArrayList<>(aListeners))
+		{
+			rListener.dataModelChanged(this);
+		}
+	}
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The interface for listeners that are notified of data model changes.
+	 *
+	 * @author eso
+	 */
+	public static interface ModelListener
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Will be invoked after the data of a model has changed.
+		 *
+		 * @param rModel The changed model
+		 */
+		public void dataModelChanged(ChartDataModel rModel);
+	}
+}
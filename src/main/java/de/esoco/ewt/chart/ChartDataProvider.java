@@ -0,0 +1,74 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * Interface for the providers of chart data that is loaded on demand for a
+ * certain range of the row axis. This is used by {@link ChartTileCache} to
+ * fetch only the data that is visible in a zoomed chart at the resolution
+ * that is needed to display it. The row axis is a continuous numeric domain,
+ * typically a time range in milliseconds.
+ *
+ * <p>The data of a request must contain at most the requested number of rows
+ * and the rows must be evenly distributed over the requested range so that
+ * row {@code i} of {@code n} rows represents the interval that starts at
+ * {@code fStart + i * (fEnd - fStart) / n}. A provider will typically
+ * aggregate the original data into buckets of this size on the server.
+ * Intervals without data should be returned as rows with undefined (NaN)
+ * values.</p>
+ *
+ * @author eso
+ */
+public interface ChartDataProvider
+{
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Requests the chart data for a certain range of the row axis. The data
+	 * can be loaded asynchronously and must then be handed to the given
+	 * callback. If the request fails the callback must be invoked with NULL.
+	 * The column layout of the data must be the same for all ranges.
+	 *
+	 * @param fStart    The start of the range (inclusive)
+	 * @param fEnd      The end of the range (exclusive)
+	 * @param nRows     The maximum number of rows to return
+	 * @param rCallback The callback to hand the data to
+	 */
+	public void requestData(double		 fStart,
+							double		 fEnd,
+							int			 nRows,
+							DataCallback rCallback);
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The callback interface for the data of a request.
+	 *
+	 * @author eso
+	 */
+	public static interface DataCallback
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Will be invoked when the requested data is available.
+		 *
+		 * @param rData The chart data or NULL if the request failed
+		 */
+		public void dataAvailable(ChartData rData);
+	}
+}
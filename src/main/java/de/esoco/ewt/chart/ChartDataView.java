@@ -0,0 +1,320 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+
+import com.googlecode.gwt.charts.client.DataTable;
+import com.googlecode.gwt.charts.client.DataView;
+
+
+/********************************************************************
+ * Defines a lightweight view of the data table of a {@link ChartDataModel}.
+ * A view can restrict the displayed data columns, filter rows, and sort the
+ * rows by the values of a data column. It is applied by creating a {@link
+ * DataView} of the chart API over the shared model table so that the table
+ * data will not be copied.
+ *
+ * <p>All column indices of a view refer to the columns of the {@link
+ * ChartData} of the model. The row label column of the data table will
+ * always be contained in a view.</p>
+ *
+ * @author eso
+ */
+public class ChartDataView
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private int[]	  aColumns    = null;
+	private RowFilter rFilter     = null;
+	private int		  nSortColumn = -1;
+	private boolean   bAscending  = true;
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Creates a chart API data view over a data table that has been created
+	 * from the given chart data.
+	 *
+	 * @param  rTable The data table
+	 * @param  rData  The chart data the table has been created from
+	 *
+	 * @return The new data view
+	 */
+	public DataView createView(DataTable rTable, ChartData rData)
+	{
+		DataView aView = DataView.create(rTable);
+		int[]    aRows = getRows(rData);
+
+		if (aColumns != null)
+		{
+			aView.setColumns(toJsArray(getTableColumns()));
+		}
+
+		if (aRows != null)
+		{
+			aView.setRows(toJsArray(aRows));
+		}
+
+		return aView;
+	}
+
+	/***************************************
+	 * Returns the data columns that are displayed by this view.
+	 *
+	 * @return The data column indices or NULL for all columns
+	 */
+	public final int[] getColumns()
+	{
+		return aColumns;
+	}
+
+	/***************************************
+	 * Returns the row filter of this view.
+	 *
+	 * @return The row filter or NULL for none
+	 */
+	public final RowFilter getFilter()
+	{
+		return rFilter;
+	}
+
+	/***************************************
+	 * Returns the indices of the data rows that are displayed by this view in
+	 * display order.
+	 *
+	 * @param  rData The chart data to determine the rows of
+	 *
+	 * @return The row indices or NULL if all rows are displayed in their
+	 *         original order
+	 */
+	public int[] getRows(final ChartData rData)
+	{
+		if (rFilter == null && nSortColumn < 0)
+		{
+			return null;
+		}
+
+		int			  nRows = rData.getRowCount();
+		List<Integer> aRows = new ArrayList<>(nRows);
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			if (rFilter == null || rFilter.accept(rData, nRow))
+			{
+				aRows.add(Integer.valueOf(nRow));
+			}
+		}
+
+		if (nSortColumn >= 0 && nSortColumn < rData.getColumnCount())
+		{
+			Collections.sort(aRows,
+				new Comparator<Integer>()
+				{
+					@Override
+					public int compare(Integer rFirst, Integer rSecond)
+					{
+						return compareRows(rData,
+										   rFirst.intValue(),
+										   rSecond.intValue());
+					}
+				});
+		}
+
+		int[] aResult = new int[aRows.size()];
+
+		for (int i = 0; i < aResult.length; i++)
+		{
+			aResult[i] = aRows.get(i).intValue();
+		}
+
+		return aResult;
+	}
+
+	/***************************************
+	 * Returns the index of the data column that the rows are sorted by.
+	 *
+	 * @return The sort column index or -1 if the rows are not sorted
+	 */
+	public final int getSortColumn()
+	{
+		return nSortColumn;
+	}
+
+	/***************************************
+	 * Returns the data table columns of this view, including the row label
+	 * column at index 0.
+	 *
+	 * @return The data table column indices or NULL for all columns
+	 */
+	public int[] getTableColumns()
+	{
+		int[] aResult = null;
+
+		if (aColumns != null)
+		{
+			aResult    = new int[aColumns.length + 1];
+			aResult[0] = 0;
+
+			for (int i = 0; i < aColumns.length; i++)
+			{
+				aResult[i + 1] = aColumns[i] + 1;
+			}
+		}
+
+		return aResult;
+	}
+
+	/***************************************
+	 * Checks whether the rows are sorted in ascending order.
+	 *
+	 * @return TRUE for ascending, FALSE for descending order
+	 */
+	public final boolean isAscending()
+	{
+		return bAscending;
+	}
+
+	/***************************************
+	 * Sets the data columns that are displayed by this view.
+	 *
+	 * @param  rColumns The data column indices or NULL for all columns
+	 *
+	 * @return This instance for concatenation
+	 */
+	public ChartDataView setColumns(int... rColumns)
+	{
+		aColumns = rColumns != null ? rColumns.clone() : null;
+
+		return this;
+	}
+
+	/***************************************
+	 * Sets a filter for the rows that are displayed by this view.
+	 *
+	 * @param  rFilter The row filter or NULL for none
+	 *
+	 * @return This instance for concatenation
+	 */
+	public ChartDataView setFilter(RowFilter rFilter)
+	{
+		this.rFilter = rFilter;
+
+		return this;
+	}
+
+	/***************************************
+	 * Sorts the rows of this view by the values of a data column. Undefined
+	 * values will always be placed after all defined values.
+	 *
+	 * @param  nColumn    The data column index or -1 to keep the original
+	 *                    row order
+	 * @param  bAscending TRUE for ascending, FALSE for descending order
+	 *
+	 * @return This instance for concatenation
+	 */
+	public ChartDataView setSort(int nColumn, boolean bAscending)
+	{
+		this.nSortColumn = nColumn;
+		this.bAscending  = bAscending;
+
+		return this;
+	}
+
+	/***************************************
+	 * Compares the values of two rows in the sort column.
+	 *
+	 * @param  rData   The chart data
+	 * @param  nFirst  The first row
+	 * @param  nSecond The second row
+	 *
+	 * @return The comparison result
+	 */
+	private int compareRows(ChartData rData, int nFirst, int nSecond)
+	{
+		double fFirst  = rData.getValue(nFirst, nSortColumn);
+		double fSecond = rData.getValue(nSecond, nSortColumn);
+		int    nResult;
+
+		if (Double.isNaN(fFirst))
+		{
+			nResult = Double.isNaN(fSecond) ? 0 : 1;
+		}
+		else if (Double.isNaN(fSecond))
+		{
+			nResult = -1;
+		}
+		else
+		{
+			nResult = Double.compare(fFirst, fSecond);
+
+			if (!bAscending)
+			{
+				nResult = -nResult;
+			}
+		}
+
+		return nResult != 0 ? nResult : nFirst - nSecond;
+	}
+
+	/***************************************
+	 * Converts an integer array into a JavaScript array for the chart API.
+	 *
+	 * @param  rValues The values to convert
+	 *
+	 * @return The JavaScript array
+	 */
+	private JsArrayInteger toJsArray(int[] rValues)
+	{
+		JsArrayInteger aArray = JavaScriptObject.createArray().cast();
+
+		for (int nValue : rValues)
+		{
+			aArray.push(nValue);
+		}
+
+		return aArray;
+	}
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The interface for filters of the rows that are displayed by a view.
+	 *
+	 * @author eso
+	 */
+	public static interface RowFilter
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Checks whether a row is displayed by a view.
+		 *
+		 * @param  rData The chart data
+		 * @param  nRow  The row index
+		 *
+		 * @return TRUE if the row is displayed
+		 */
+		public boolean accept(ChartData rData, int nRow);
+	}
+}
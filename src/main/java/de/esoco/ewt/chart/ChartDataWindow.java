@@ -0,0 +1,232 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * A {@link ChartData} implementation that contains a sliding window over a
+ * stream of data rows. New rows are appended at the end and if the maximum
+ * number of rows is reached the oldest rows will be dropped. The rows are
+ * stored in a ring buffer of fixed size so that appending a row has constant
+ * cost and the memory consumption stays bounded for arbitrarily long streams.
+ * Undefined values are stored as {@link Double#NaN}.
+ *
+ * @author eso
+ */
+public class ChartDataWindow implements ChartData
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final String   sRowAxisLabel;
+	private final String[] rColumnLabels;
+
+	private final String[]   aRowLabels;
+	private final double[][] aColumns;
+
+	private int nStart = 0;
+	private int nSize  = 0;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param sRowAxisLabel The label of the row axis
+	 * @param nMaxRows      The maximum number of rows in this window
+	 * @param rColumnLabels The labels of the data columns
+	 */
+	public ChartDataWindow(String    sRowAxisLabel,
+						   int		 nMaxRows,
+						   String... rColumnLabels)
+	{
+		if (nMaxRows <= 0)
+		{
+			throw new IllegalArgumentException("Window size must be > 0");
+		}
+
+		this.sRowAxisLabel = sRowAxisLabel;
+		this.rColumnLabels = rColumnLabels;
+
+		aRowLabels = new String[nMaxRows];
+		aColumns   = new double[rColumnLabels.length][nMaxRows];
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Appends a new row to the end of this window. If the window is full the
+	 * first (i.e. oldest) row will be removed.
+	 *
+	 * @param  sRowLabel The label of the new row
+	 * @param  rValues   The row values (must match the column count)
+	 *
+	 * @return The number of rows that have been removed from the start of the
+	 *         window (0 or 1)
+	 */
+	public int append(String sRowLabel, double... rValues)
+	{
+		int nCapacity = aRowLabels.length;
+		int nRemoved  = 0;
+
+		if (rValues.length != aColumns.length)
+		{
+			throw new IllegalArgumentException("Expected " + aColumns.length +
+											   " values");
+		}
+
+		if (nSize == nCapacity)
+		{
+			nStart = (nStart + 1) % nCapacity;
+			nSize--;
+			nRemoved = 1;
+		}
+
+		int nIndex = (nStart + nSize) % nCapacity;
+
+		aRowLabels[nIndex] = sRowLabel;
+
+		for (int nCol = 0; nCol < rValues.length; nCol++)
+		{
+			aColumns[nCol][nIndex] = rValues[nCol];
+		}
+
+		nSize++;
+
+		return nRemoved;
+	}
+
+	/***************************************
+	 * Removes all rows from this window.
+	 */
+	public void clear()
+	{
+		trim(0);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getColumnCount()
+	{
+		return aColumns.length;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getColumnLabel(int nColumn)
+	{
+		return rColumnLabels[nColumn];
+	}
+
+	/***************************************
+	 * Returns the maximum number of rows in this window.
+	 *
+	 * @return The maximum row count
+	 */
+	public int getMaxRows()
+	{
+		return aRowLabels.length;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowAxisLabel()
+	{
+		return sRowAxisLabel;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRowCount()
+	{
+		return nSize;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowLabel(int nRow)
+	{
+		return aRowLabels[index(nRow)];
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getValue(int nRow, int nColumn)
+	{
+		return aColumns[nColumn][index(nRow)];
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isNull(int nRow, int nColumn)
+	{
+		return Double.isNaN(getValue(nRow, nColumn));
+	}
+
+	/***************************************
+	 * Removes the oldest rows from this window so that it contains at most
+	 * the given number of the most recent rows.
+	 *
+	 * @param  nMaxRows The maximum number of rows to keep
+	 *
+	 * @return The number of rows that have been removed from the start of the
+	 *         window
+	 */
+	public int trim(int nMaxRows)
+	{
+		int nRemoved = Math.max(0, nSize - nMaxRows);
+
+		for (int i = 0; i < nRemoved; i++)
+		{
+			aRowLabels[index(i)] = null;
+		}
+
+		nStart = (nStart + nRemoved) % aRowLabels.length;
+		nSize -= nRemoved;
+
+		return nRemoved;
+	}
+
+	/***************************************
+	 * Maps a logical row index to the index in the ring buffer.
+	 *
+	 * @param  nRow The logical row index
+	 *
+	 * @return The buffer index
+	 */
+	private int index(int nRow)
+	{
+		if (nRow < 0 || nRow >= nSize)
+		{
+			throw new IndexOutOfBoundsException("Invalid row: " + nRow);
+		}
+
+		return (nStart + nRow) % aRowLabels.length;
+	}
+}
@@ -0,0 +1,621 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+
+/********************************************************************
+ * Performs the downsampling of large chart data asynchronously in a Web
+ * Worker so that the user interface thread is not blocked while the data of
+ * a chart is prepared. The value columns of the sampled row range are copied
+ * into typed arrays that are transferred to the worker without further
+ * copying. The worker runs a JavaScript implementation of the algorithms in
+ * {@link ChartDownsampling} and transfers back the indices of the selected
+ * rows and, for aggregating algorithms, the aggregated values. These are
+ * wrapped into a chart data instance that refers to the original data for
+ * the row labels.
+ *
+ * <p>The worker script is created from a string at runtime so that it
+ * doesn't require a separate GWT module or an additional deployment
+ * artifact. If the worker cannot be created (e.g. because a content security
+ * policy doesn't allow workers from blob URLs) or if it fails all pending and
+ * subsequent requests will be completed synchronously on the user interface
+ * thread.</p>
+ *
+ * @author eso
+ */
+public class ChartDataWorker
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	private static final String WORKER_SCRIPT =
+		"function v(c,i){var x=c[i];return x!==x?0:x;}" +
+		"function lttb(d,n,t){" +
+		"var r=new Int32Array(t),b=(n-2)/(t-2),s=0,a=[],k,c,i;" +
+		"r[0]=0;r[t-1]=n-1;" +
+		"for(k=0;k<t-2;k++){" +
+		"var st=Math.floor(k*b)+1,en=Math.floor((k+1)*b)+1," +
+		"ne=Math.min(Math.floor((k+2)*b)+1,n),ax=(en+ne-1)/2,m=-1,mr=st;" +
+		"for(c=0;c<d.length;c++){var u=0;" +
+		"for(i=en;i<ne;i++)u+=v(d[c],i);a[c]=ne>en?u/(ne-en):0;}" +
+		"for(i=st;i<en;i++){var ar=0;" +
+		"for(c=0;c<d.length;c++){var f=v(d[c],s);" +
+		"ar+=Math.abs((s-ax)*(v(d[c],i)-f)-(s-i)*(a[c]-f));}" +
+		"if(ar>m){m=ar;mr=i;}}" +
+		"r[k+1]=mr;s=mr;}" +
+		"return{rows:r,values:null};}" +
+		"function minMax(d,n,t){" +
+		"var nb=Math.max(1,Math.floor(t/2)),b=n/nb," +
+		"r=new Int32Array(nb*2),m=0,k,c,i;" +
+		"for(k=0;k<nb;k++){" +
+		"var st=Math.floor(k*b),en=Math.floor((k+1)*b),lo=st,hi=st," +
+		"fl=Infinity,fh=-Infinity;" +
+		"for(i=st;i<en;i++)for(c=0;c<d.length;c++){var x=d[c][i];" +
+		"if(x<fl){fl=x;lo=i;}if(x>fh){fh=x;hi=i;}}" +
+		"r[m++]=Math.min(lo,hi);if(lo!=hi)r[m++]=Math.max(lo,hi);}" +
+		"return{rows:r.subarray(0,m),values:null};}" +
+		"function average(d,n,t){" +
+		"var b=n/t,r=new Int32Array(t),w=[],k,c,i;" +
+		"for(c=0;c<d.length;c++)w.push(new Float64Array(t));" +
+		"for(k=0;k<t;k++){" +
+		"var st=Math.floor(k*b),en=Math.floor((k+1)*b);r[k]=st;" +
+		"for(c=0;c<d.length;c++){var u=0,z=0,l=d[c];" +
+		"for(i=st;i<en;i++){var x=l[i];if(x===x){u+=x;z++;}}" +
+		"w[c][k]=z>0?u/z:NaN;}}" +
+		"return{rows:r,values:w};}" +
+		"onmessage=function(e){var q=e.data,p=" +
+		"q.mode=='LTTB'?lttb(q.cols,q.count,q.target):" +
+		"q.mode=='MIN_MAX'?minMax(q.cols,q.count,q.target):" +
+		"average(q.cols,q.count,q.target);" +
+		"var x=[p.rows.buffer];" +
+		"if(p.values)for(var c=0;c<p.values.length;c++)" +
+		"x.push(p.values[c].buffer);" +
+		"p.id=q.id;postMessage(p,x);};";
+
+	private static ChartDataWorker aInstance = null;
+
+	//~ Instance fields --------------------------------------------------------
+
+	private JavaScriptObject rWorker;
+	private int				 nNextJobId = 0;
+
+	private Map<Integer, Job> aJobs = new HashMap<>();
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Private, only used through {@link #get()}.
+	 */
+	private ChartDataWorker()
+	{
+		rWorker = createWorker(WORKER_SCRIPT);
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Returns the singleton worker instance which will be created on the
+	 * first invocation.
+	 *
+	 * @return The worker instance
+	 */
+	public static ChartDataWorker get()
+	{
+		if (aInstance == null)
+		{
+			aInstance = new ChartDataWorker();
+		}
+
+		return aInstance;
+	}
+
+	/***************************************
+	 * Checks whether the browser supports the creation of Web Workers from
+	 * script blobs. This will return FALSE after the creation or the
+	 * execution of the worker has failed.
+	 *
+	 * @return TRUE if workers are supported
+	 */
+	public static boolean isSupported()
+	{
+		return (aInstance == null || aInstance.rWorker != null) &&
+			   isWorkerApiAvailable();
+	}
+
+	/***************************************
+	 * Copies a range of values from a Java array into a new typed array. The
+	 * values are copied in a single operation without accessing each
+	 * element from Java code.
+	 *
+	 * @param  rValues The double or int array to copy
+	 * @param  nFirst  The index of the first value to copy
+	 * @param  nCount  The number of values to copy
+	 *
+	 * @return The new typed array
+	 */
+	private static native JavaScriptObject copyColumn(Object rValues,
+													  int    nFirst,
+													  int    nCount) /*-{
+		var column = new $wnd.Float64Array(nCount);
+
+		column.set(rValues.slice(nFirst, nFirst + nCount));
+
+		return column;
+	}-*/;
+
+	/***************************************
+	 * Adds a column array to the array of columns.
+	 *
+	 * @param rColumns The column arrays
+	 * @param rColumn  The column to add
+	 */
+	private static native void addColumn(JavaScriptObject rColumns,
+										 JavaScriptObject rColumn) /*-{
+		rColumns.push(rColumn);
+	}-*/;
+
+	/***************************************
+	 * Creates a typed array for the values of a data column.
+	 *
+	 * @param  nSize The array size
+	 *
+	 * @return The new array
+	 */
+	private static native JavaScriptObject createColumn(int nSize) /*-{
+		return new $wnd.Float64Array(nSize);
+	}-*/;
+
+	/***************************************
+	 * Returns the request ID of a worker result.
+	 *
+	 * @param  rResult The worker result
+	 *
+	 * @return The request ID
+	 */
+	private static native int getResultId(JavaScriptObject rResult) /*-{
+		return rResult.id;
+	}-*/;
+
+	/***************************************
+	 * Returns a row index from a worker result.
+	 *
+	 * @param  rResult The worker result
+	 * @param  nIndex  The index in the result rows
+	 *
+	 * @return The row index
+	 */
+	private static native int getResultRow(JavaScriptObject rResult,
+										   int				nIndex) /*-{
+		return rResult.rows[nIndex];
+	}-*/;
+
+	/***************************************
+	 * Returns the number of rows in a worker result.
+	 *
+	 * @param  rResult The worker result
+	 *
+	 * @return The row count
+	 */
+	private static native int getResultRowCount(JavaScriptObject rResult) /*-{
+		return rResult.rows.length;
+	}-*/;
+
+	/***************************************
+	 * Returns an aggregated value from a worker result.
+	 *
+	 * @param  rResult The worker result
+	 * @param  nCol    The column index
+	 * @param  nIndex  The index in the result rows
+	 *
+	 * @return The value
+	 */
+	private static native double getResultValue(JavaScriptObject rResult,
+												int				 nCol,
+												int				 nIndex) /*-{
+		return rResult.values[nCol][nIndex];
+	}-*/;
+
+	/***************************************
+	 * Checks whether a worker result contains aggregated values.
+	 *
+	 * @param  rResult The worker result
+	 *
+	 * @return TRUE if values are contained
+	 */
+	private static native boolean hasResultValues(JavaScriptObject rResult) /*-{
+		return rResult.values != null;
+	}-*/;
+
+	/***************************************
+	 * Checks whether the browser APIs that are needed to create workers from
+	 * script blobs are available.
+	 *
+	 * @return TRUE if the worker APIs are available
+	 */
+	private static native boolean isWorkerApiAvailable() /*-{
+		return typeof $wnd.Worker !== 'undefined' &&
+			   typeof $wnd.Blob !== 'undefined' &&
+			   typeof $wnd.URL !== 'undefined' &&
+			   typeof $wnd.Float64Array !== 'undefined';
+	}-*/;
+
+	/***************************************
+	 * Posts a sampling request to the worker and transfers the column arrays.
+	 *
+	 * @param rWorker  The worker
+	 * @param nJobId   The request ID
+	 * @param sMode    The name of the downsampling algorithm
+	 * @param nCount   The number of rows in the columns
+	 * @param nTarget  The target row count
+	 * @param rColumns The column arrays
+	 */
+	private static native void postJob(JavaScriptObject rWorker,
+									   int				nJobId,
+									   String			sMode,
+									   int				nCount,
+									   int				nTarget,
+									   JavaScriptObject rColumns) /*-{
+		var transfer = [];
+
+		for (var i = 0; i < rColumns.length; i++) {
+			transfer.push(rColumns[i].buffer);
+		}
+
+		rWorker.postMessage({ id : nJobId, mode : sMode, count : nCount,
+							  target : nTarget, cols : rColumns }, transfer);
+	}-*/;
+
+	/***************************************
+	 * Sets a value in a column array.
+	 *
+	 * @param rColumn The column array
+	 * @param nIndex  The value index
+	 * @param fValue  The value
+	 */
+	private static native void setColumnValue(JavaScriptObject rColumn,
+											  int			   nIndex,
+											  double		   fValue) /*-{
+		rColumn[nIndex] = fValue;
+	}-*/;
+
+	/***************************************
+	 * Sets the values of a column array to NaN for all rows that are marked
+	 * in a null bitmap.
+	 *
+	 * @param rColumn The column array
+	 * @param rBitmap The null bitmap of the original data column
+	 * @param nFirst  The index of the original row of the first array value
+	 */
+	private static native void setNullValues(JavaScriptObject rColumn,
+											 int[]			  rBitmap,
+											 int			  nFirst) /*-{
+		for (var i = 0; i < rColumn.length; i++) {
+			var row = nFirst + i;
+
+			if ((rBitmap[row >> 5] & (1 << (row & 31))) != 0) {
+				rColumn[i] = NaN;
+			}
+		}
+	}-*/;
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Cancels a preparation request. The result handler of the request will
+	 * not be invoked.
+	 *
+	 * @param nJobId The ID of the request as returned by {@link
+	 *               #prepare(ChartData, ChartDownsampling, int, int, int,
+	 *               ResultHandler)}
+	 */
+	public void cancel(int nJobId)
+	{
+		aJobs.remove(Integer.valueOf(nJobId));
+	}
+
+	/***************************************
+	 * Returns the number of pending preparation requests.
+	 *
+	 * @return The pending request count
+	 */
+	public int getPendingCount()
+	{
+		return aJobs.size();
+	}
+
+	/***************************************
+	 * Prepares chart data by sampling a range of rows in the worker. The
+	 * result handler will be invoked asynchronously with the sampled data.
+	 * If the row range doesn't need to be reduced the handler is invoked
+	 * immediately.
+	 *
+	 * @param  rData       The chart data to sample
+	 * @param  eMode       The downsampling algorithm
+	 * @param  nFirstRow   The index of the first row to sample
+	 * @param  nRowCount   The number of rows to sample
+	 * @param  nTargetRows The maximum number of rows in the result
+	 * @param  rHandler    The handler to receive the result
+	 *
+	 * @return The ID of the request
+	 */
+	public int prepare(ChartData		 rData,
+					   ChartDownsampling eMode,
+					   int				 nFirstRow,
+					   int				 nRowCount,
+					   int				 nTargetRows,
+					   ResultHandler	 rHandler)
+	{
+		int nJobId = nNextJobId++;
+		Job aJob   =
+			new Job(rData, eMode, nFirstRow, nRowCount, nTargetRows, rHandler);
+
+		nTargetRows = Math.max(nTargetRows, ChartDownsampling.MIN_TARGET_ROWS);
+
+		if (rWorker == null || eMode == ChartDownsampling.NONE ||
+			nRowCount <= nTargetRows)
+		{
+			aJob.completeSynchronously();
+		}
+		else
+		{
+			int				 nCols    = rData.getColumnCount();
+			JavaScriptObject aColumns = JavaScriptObject.createArray();
+
+			for (int nCol = 0; nCol < nCols; nCol++)
+			{
+				addColumn(aColumns,
+						  createColumn(rData, nCol, nFirstRow, nRowCount));
+			}
+
+			aJobs.put(Integer.valueOf(nJobId), aJob);
+			postJob(rWorker,
+					nJobId,
+					eMode.name(),
+					nRowCount,
+					nTargetRows,
+					aColumns);
+		}
+
+		return nJobId;
+	}
+
+	/***************************************
+	 * Creates a typed array that contains the values of a range of rows in a
+	 * data column. The arrays of columnar data are copied directly while the
+	 * values of other data are copied cell by cell.
+	 *
+	 * @param  rData     The chart data
+	 * @param  nCol      The column index
+	 * @param  nFirstRow The index of the first row to copy
+	 * @param  nRowCount The number of rows to copy
+	 *
+	 * @return The new column array
+	 */
+	private JavaScriptObject createColumn(ChartData rData,
+										  int		nCol,
+										  int		nFirstRow,
+										  int		nRowCount)
+	{
+		JavaScriptObject aColumn;
+
+		if (rData instanceof ColumnarChartData)
+		{
+			ColumnarChartData rColumnar = (ColumnarChartData) rData;
+			double[]		  rDoubles  = rColumnar.getDoubleColumn(nCol);
+			int[]			  rBitmap   = rColumnar.getNullBitmap(nCol);
+
+			aColumn =
+				copyColumn(rDoubles != null
+						   ? rDoubles : rColumnar.getIntegerColumn(nCol),
+						   nFirstRow,
+						   nRowCount);
+
+			if (rBitmap != null)
+			{
+				setNullValues(aColumn, rBitmap, nFirstRow);
+			}
+		}
+		else
+		{
+			aColumn = createColumn(nRowCount);
+
+			for (int nRow = 0; nRow < nRowCount; nRow++)
+			{
+				int nDataRow = nFirstRow + nRow;
+
+				setColumnValue(aColumn,
+							   nRow,
+							   rData.isNull(nDataRow, nCol)
+							   ? Double.NaN : rData.getValue(nDataRow, nCol));
+			}
+		}
+
+		return aColumn;
+	}
+
+	/***************************************
+	 * Creates the worker from the worker script.
+	 *
+	 * @param  sScript The worker script
+	 *
+	 * @return The worker or NULL if the worker could not be created
+	 */
+	private native JavaScriptObject createWorker(String sScript) /*-{
+		var self = this;
+		var blob = new $wnd.Blob([ sScript ], {
+			type : 'application/javascript'
+		});
+		var worker;
+
+		try {
+			worker = new $wnd.Worker($wnd.URL.createObjectURL(blob));
+		} catch (e) {
+			// thrown if a content security policy disallows blob workers
+			return null;
+		}
+
+		worker.onmessage = $entry(function(e) {
+			self.@de.esoco.ewt.chart.ChartDataWorker::handleResult(Lcom/google/gwt/core/client/JavaScriptObject;)(e.data);
+		});
+		worker.onerror = $entry(function(e) {
+			self.@de.esoco.ewt.chart.ChartDataWorker::handleError()();
+		});
+
+		return worker;
+	}-*/;
+
+	/***************************************
+	 * Handles a worker error by disabling the worker and completing all
+	 * pending requests synchronously.
+	 */
+	private void handleError()
+	{
+		Job[] rJobs = aJobs.values().toArray(new Job[aJobs.size()]);
+
+		rWorker = null;
+		aJobs.clear();
+
+		for (Job rJob : rJobs)
+		{
+			rJob.completeSynchronously();
+		}
+	}
+
+	/***************************************
+	 * Handles a result from the worker.
+	 *
+	 * @param rResult The result object
+	 */
+	private void handleResult(JavaScriptObject rResult)
+	{
+		Job rJob = aJobs.remove(Integer.valueOf(getResultId(rResult)));
+
+		if (rJob != null)
+		{
+			int		   nRows   = getResultRowCount(rResult);
+			int[]	   aRows   = new int[nRows];
+			double[][] aValues = null;
+
+			for (int i = 0; i < nRows; i++)
+			{
+				aRows[i] = rJob.nFirstRow + getResultRow(rResult, i);
+			}
+
+			if (hasResultValues(rResult))
+			{
+				int nCols = rJob.rData.getColumnCount();
+
+				aValues = new double[nCols][nRows];
+
+				for (int nCol = 0; nCol < nCols; nCol++)
+				{
+					for (int i = 0; i < nRows; i++)
+					{
+						aValues[nCol][i] = getResultValue(rResult, nCol, i);
+					}
+				}
+			}
+
+			rJob.rHandler.dataPrepared(new SampledChartData(rJob.rData,
+															aRows,
+															aValues));
+		}
+	}
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The interface for the receivers of prepared chart data.
+	 *
+	 * @author eso
+	 */
+	public static interface ResultHandler
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Will be invoked when the chart data has been prepared.
+		 *
+		 * @param rData The prepared chart data
+		 */
+		public void dataPrepared(ChartData rData);
+	}
+
+	//~ Inner Classes ----------------------------------------------------------
+
+	/********************************************************************
+	 * Holds the parameters of a preparation request.
+	 *
+	 * @author eso
+	 */
+	static class Job
+	{
+		//~ Instance fields ----------------------------------------------------
+
+		final ChartData		    rData;
+		final ChartDownsampling eMode;
+		final int			    nFirstRow;
+		final int			    nRowCount;
+		final int			    nTargetRows;
+		final ResultHandler     rHandler;
+
+		//~ Constructors -------------------------------------------------------
+
+		/***************************************
+		 * Creates a new instance.
+		 *
+		 * @param rData       The chart data
+		 * @param eMode       The downsampling algorithm
+		 * @param nFirstRow   The index of the first row
+		 * @param nRowCount   The number of rows
+		 * @param nTargetRows The target row count
+		 * @param rHandler    The result handler
+		 */
+		Job(ChartData		  rData,
+			ChartDownsampling eMode,
+			int				  nFirstRow,
+			int				  nRowCount,
+			int				  nTargetRows,
+			ResultHandler	  rHandler)
+		{
+			this.rData		 = rData;
+			this.eMode		 = eMode;
+			this.nFirstRow   = nFirstRow;
+			this.nRowCount   = nRowCount;
+			this.nTargetRows = nTargetRows;
+			this.rHandler    = rHandler;
+		}
+
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Performs the sampling of this request on the current thread and
+		 * notifies the result handler.
+		 */
+		void completeSynchronously()
+		{
+			rHandler.dataPrepared(eMode.sample(rData,
+											   nFirstRow,
+											   nRowCount,
+											   nTargetRows));
+		}
+	}
+}
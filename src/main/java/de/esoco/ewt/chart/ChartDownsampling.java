@@ -0,0 +1,348 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * Enumeration of the algorithms that can be used to reduce the number of rows
+ * of large chart data before it is converted into a chart data table. The
+ * target row count is typically about the pixel width of the chart because
+ * rendering more rows than pixels only costs time without adding visible
+ * details. Downsampling does not modify the original data so that it can be
+ * re-sampled with a different range or resolution later (e.g. on zooming).
+ *
+ * @author eso
+ */
+public enum ChartDownsampling
+{
+	/**
+	 * No downsampling, all rows in the sampled range are displayed.
+	 */
+	NONE
+	{
+		@Override
+		ChartData reduce(ChartData rData,
+						 int	   nFirstRow,
+						 int	   nRowCount,
+						 int	   nTargetRows)
+		{
+			return rangeOf(rData, nFirstRow, nRowCount);
+		}
+	},
+
+	/**
+	 * The Largest-Triangle-Three-Buckets algorithm which selects from each
+	 * bucket the row that forms the largest triangle with the previously
+	 * selected row and the average of the next bucket. This preserves the
+	 * visual shape of line and area charts very well. For multiple columns
+	 * the triangle areas of all columns are summed up.
+	 */
+	LTTB
+	{
+		@Override
+		ChartData reduce(ChartData rData,
+						 int	   nFirstRow,
+						 int	   nRowCount,
+						 int	   nTargetRows)
+		{
+			int    nCols	    = rData.getColumnCount();
+			int[]  aRows	    = new int[nTargetRows];
+			double fBucketSize = (double) (nRowCount - 2) / (nTargetRows - 2);
+			int    nSelected   = nFirstRow;
+
+			double[] aAverage = new double[nCols];
+
+			aRows[0]			   = nFirstRow;
+			aRows[nTargetRows - 1] = nFirstRow + nRowCount - 1;
+
+			for (int nBucket = 0; nBucket < nTargetRows - 2; nBucket++)
+			{
+				int nStart    = nFirstRow + (int) (nBucket * fBucketSize) + 1;
+				int nEnd	  =
+					nFirstRow + (int) ((nBucket + 1) * fBucketSize) + 1;
+				int nNextEnd  =
+					Math.min(nFirstRow +
+							 (int) ((nBucket + 2) * fBucketSize) + 1,
+							 nFirstRow + nRowCount);
+				int nNextSize = nNextEnd - nEnd;
+
+				double fAverageX = (nEnd + nNextEnd - 1) / 2.0;
+				double fMaxArea  = -1;
+
+				for (int nCol = 0; nCol < nCols; nCol++)
+				{
+					double fSum = 0;
+
+					for (int nRow = nEnd; nRow < nNextEnd; nRow++)
+					{
+						fSum += valueOf(rData, nRow, nCol);
+					}
+
+					aAverage[nCol] = nNextSize > 0 ? fSum / nNextSize : 0;
+				}
+
+				int nMaxRow = nStart;
+
+				for (int nRow = nStart; nRow < nEnd; nRow++)
+				{
+					double fArea = 0;
+
+					for (int nCol = 0; nCol < nCols; nCol++)
+					{
+						double fSelected = valueOf(rData, nSelected, nCol);
+
+						fArea +=
+							Math.abs((nSelected - fAverageX) *
+									 (valueOf(rData, nRow, nCol) - fSelected) -
+									 (nSelected - nRow) *
+									 (aAverage[nCol] - fSelected));
+					}
+
+					if (fArea > fMaxArea)
+					{
+						fMaxArea = fArea;
+						nMaxRow  = nRow;
+					}
+				}
+
+				aRows[nBucket + 1] = nMaxRow;
+				nSelected		   = nMaxRow;
+			}
+
+			return new SampledChartData(rData, aRows);
+		}
+	},
+
+	/**
+	 * Divides the rows into buckets of which each contributes the rows with
+	 * the minimum and the maximum value over all columns. This preserves
+	 * peaks and is therefore suited for monitoring data where outliers must
+	 * remain visible.
+	 */
+	MIN_MAX
+	{
+		@Override
+		ChartData reduce(ChartData rData,
+						 int	   nFirstRow,
+						 int	   nRowCount,
+						 int	   nTargetRows)
+		{
+			int    nCols	    = rData.getColumnCount();
+			int    nBuckets    = Math.max(1, nTargetRows / 2);
+			double fBucketSize = (double) nRowCount / nBuckets;
+			int[]  aRows	    = new int[nBuckets * 2];
+			int    nCount	    = 0;
+
+			for (int nBucket = 0; nBucket < nBuckets; nBucket++)
+			{
+				int nStart = nFirstRow + (int) (nBucket * fBucketSize);
+				int nEnd   = nFirstRow + (int) ((nBucket + 1) * fBucketSize);
+
+				int    nMinRow = nStart;
+				int    nMaxRow = nStart;
+				double fMin    = Double.POSITIVE_INFINITY;
+				double fMax    = Double.NEGATIVE_INFINITY;
+
+				for (int nRow = nStart; nRow < nEnd; nRow++)
+				{
+					for (int nCol = 0; nCol < nCols; nCol++)
+					{
+						double fValue = rData.getValue(nRow, nCol);
+
+						if (fValue < fMin)
+						{
+							fMin    = fValue;
+							nMinRow = nRow;
+						}
+
+						if (fValue > fMax)
+						{
+							fMax    = fValue;
+							nMaxRow = nRow;
+						}
+					}
+				}
+
+				aRows[nCount++] = Math.min(nMinRow, nMaxRow);
+
+				if (nMinRow != nMaxRow)
+				{
+					aRows[nCount++] = Math.max(nMinRow, nMaxRow);
+				}
+			}
+
+			int[] aResult = new int[nCount];
+
+			System.arraycopy(aRows, 0, aResult, 0, nCount);
+
+			return new SampledChartData(rData, aResult);
+		}
+	},
+
+	/**
+	 * Divides the rows into buckets that are each replaced by a single row
+	 * containing the average values of the bucket. The label of the first row
+	 * in a bucket is used as the label of the result row.
+	 */
+	AVERAGE
+	{
+		@Override
+		ChartData reduce(ChartData rData,
+						 int	   nFirstRow,
+						 int	   nRowCount,
+						 int	   nTargetRows)
+		{
+			int		   nCols	   = rData.getColumnCount();
+			double	   fBucketSize = (double) nRowCount / nTargetRows;
+			int[]	   aRows	   = new int[nTargetRows];
+			double[][] aValues     = new double[nCols][nTargetRows];
+
+			for (int nBucket = 0; nBucket < nTargetRows; nBucket++)
+			{
+				int nStart = nFirstRow + (int) (nBucket * fBucketSize);
+				int nEnd   = nFirstRow + (int) ((nBucket + 1) * fBucketSize);
+
+				aRows[nBucket] = nStart;
+
+				for (int nCol = 0; nCol < nCols; nCol++)
+				{
+					double fSum   = 0;
+					int    nCount = 0;
+
+					for (int nRow = nStart; nRow < nEnd; nRow++)
+					{
+						if (!rData.isNull(nRow, nCol))
+						{
+							fSum += rData.getValue(nRow, nCol);
+							nCount++;
+						}
+					}
+
+					aValues[nCol][nBucket] =
+						nCount > 0 ? fSum / nCount : Double.NaN;
+				}
+			}
+
+			return new SampledChartData(rData, aRows, aValues);
+		}
+	};
+
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The minimum number of rows that a downsampling will produce. */
+	public static final int MIN_TARGET_ROWS = 3;
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Returns a chart data view of a range of rows without any reduction.
+	 *
+	 * @param  rData     The chart data
+	 * @param  nFirstRow The index of the first row in the range
+	 * @param  nRowCount The number of rows in the range
+	 *
+	 * @return The input data if the range covers all rows or else a chart
+	 *         data instance containing the row range
+	 */
+	static ChartData rangeOf(ChartData rData, int nFirstRow, int nRowCount)
+	{
+		if (nFirstRow == 0 && nRowCount == rData.getRowCount())
+		{
+			return rData;
+		}
+
+		int[] aRows = new int[nRowCount];
+
+		for (int i = 0; i < nRowCount; i++)
+		{
+			aRows[i] = nFirstRow + i;
+		}
+
+		return new SampledChartData(rData, aRows);
+	}
+
+	/***************************************
+	 * Returns a chart data value or zero if the value is undefined.
+	 *
+	 * @param  rData The chart data
+	 * @param  nRow  The row index
+	 * @param  nCol  The column index
+	 *
+	 * @return The value or zero
+	 */
+	static double valueOf(ChartData rData, int nRow, int nCol)
+	{
+		double fValue = rData.getValue(nRow, nCol);
+
+		return Double.isNaN(fValue) ? 0 : fValue;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Reduces a range of rows from chart data to at most the given target
+	 * number of rows. If the range contains less rows than the target count
+	 * the rows will be returned unchanged.
+	 *
+	 * @param  rData       The chart data to sample
+	 * @param  nFirstRow   The index of the first row to sample
+	 * @param  nRowCount   The number of rows to sample
+	 * @param  nTargetRows The maximum number of rows in the result
+	 *
+	 * @return The sampled chart data (may be the input data if no reduction
+	 *         has been necessary)
+	 */
+	public ChartData sample(ChartData rData,
+							int		  nFirstRow,
+							int		  nRowCount,
+							int		  nTargetRows)
+	{
+		int nRows = rData.getRowCount();
+
+		if (nFirstRow < 0 || nRowCount < 0 || nFirstRow + nRowCount > nRows)
+		{
+			throw new IndexOutOfBoundsException("Invalid row range: " +
+												nFirstRow + "+" + nRowCount);
+		}
+
+		nTargetRows = Math.max(nTargetRows, MIN_TARGET_ROWS);
+
+		if (nRowCount <= nTargetRows)
+		{
+			return rangeOf(rData, nFirstRow, nRowCount);
+		}
+		else
+		{
+			return reduce(rData, nFirstRow, nRowCount, nTargetRows);
+		}
+	}
+
+	/***************************************
+	 * Must be implemented to perform the actual data reduction. Will only be
+	 * invoked if the row count is larger than the target count.
+	 *
+	 * @param  rData       The chart data to sample
+	 * @param  nFirstRow   The index of the first row to sample
+	 * @param  nRowCount   The number of rows to sample
+	 * @param  nTargetRows The maximum number of rows in the result
+	 *
+	 * @return The reduced chart data
+	 */
+	abstract ChartData reduce(ChartData rData,
+							  int		nFirstRow,
+							  int		nRowCount,
+							  int		nTargetRows);
+}
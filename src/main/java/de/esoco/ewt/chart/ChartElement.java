@@ -0,0 +1,109 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * Describes an element of a chart that is the target of an event. The
+ * element is identified by the row and column of the chart's data table
+ * where -1 indicates that an event doesn't refer to a row or column (e.g.
+ * the column of a row selection). Elements are immutable and can be compared
+ * with {@link #equals(Object)}.
+ *
+ * @author eso
+ */
+public class ChartElement
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final int nRow;
+	private final int nColumn;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param nRow    The row index or -1 for none
+	 * @param nColumn The column index or -1 for none
+	 */
+	public ChartElement(int nRow, int nColumn)
+	{
+		this.nRow    = nRow;
+		this.nColumn = nColumn;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object rObject)
+	{
+		if (this == rObject)
+		{
+			return true;
+		}
+
+		if (!(rObject instanceof ChartElement))
+		{
+			return false;
+		}
+
+		ChartElement rOther = (ChartElement) rObject;
+
+		return nRow == rOther.nRow && nColumn == rOther.nColumn;
+	}
+
+	/***************************************
+	 * Returns the column index of this element.
+	 *
+	 * @return The column index or -1 for none
+	 */
+	public final int getColumn()
+	{
+		return nColumn;
+	}
+
+	/***************************************
+	 * Returns the row index of this element.
+	 *
+	 * @return The row index or -1 for none
+	 */
+	public final int getRow()
+	{
+		return nRow;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return 31 * nRow + nColumn;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return "ChartElement(" + nRow + "," + nColumn + ")";
+	}
+}
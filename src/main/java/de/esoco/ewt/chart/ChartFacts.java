@@ -0,0 +1,74 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * Interface for raw, non-aggregated fact data from which chart data can be
+ * computed on the client with a {@link ChartAggregation}. Facts are rows of a
+ * table with string and numeric columns, e.g. a group key, a timestamp, and
+ * one or more measured values.
+ *
+ * @author eso
+ */
+public interface ChartFacts
+{
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns the number of fact columns.
+	 *
+	 * @return The column count
+	 */
+	public int getColumnCount();
+
+	/***************************************
+	 * Returns the name of a fact column.
+	 *
+	 * @param  nColumn The column index
+	 *
+	 * @return The column name
+	 */
+	public String getColumnName(int nColumn);
+
+	/***************************************
+	 * Returns the number of facts.
+	 *
+	 * @return The fact count
+	 */
+	public int getFactCount();
+
+	/***************************************
+	 * Returns a numeric fact value. Timestamps must be returned as
+	 * milliseconds since the epoch.
+	 *
+	 * @param  nFact   The fact index
+	 * @param  nColumn The column index
+	 *
+	 * @return The value or NaN if undefined
+	 */
+	public double getNumber(int nFact, int nColumn);
+
+	/***************************************
+	 * Returns a fact value as a string.
+	 *
+	 * @param  nFact   The fact index
+	 * @param  nColumn The column index
+	 *
+	 * @return The string value or NULL if undefined
+	 */
+	public String getString(int nFact, int nColumn);
+}
@@ -0,0 +1,458 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * An immutable 64 bit fingerprint of chart data and the settings that affect
+ * the rendering of a chart. Two charts with the same fingerprint will render
+ * identically so that the fingerprint can be used as the key for caching
+ * rendered charts or to detect that a chart doesn't need to be redrawn. The
+ * fingerprint is computed from the row and column labels and the values of
+ * all data cells, therefore its computation has linear cost in the number of
+ * cells. For data that is modified incrementally, like a sliding data window,
+ * a data fingerprint can be updated with constant cost by {@link
+ * #appendRow(String, double...)} and {@link #removeRows(int)}. Such updated
+ * fingerprints depend on the modification history and therefore differ from
+ * the fingerprint of the same data computed by {@link #of(ChartData,
+ * Object...)}.
+ *
+ * <p>Because the {@code long} type is emulated in GWT the fingerprint is
+ * computed in two independent 32 bit lanes that only use integer operations
+ * which are exact in JavaScript. The bits of double values are also
+ * extracted without {@link Double#doubleToLongBits(double)}.</p>
+ *
+ * <p>This class doesn't depend on browser APIs and can be used on the client
+ * and on the server, e.g. by the server-side rendering in the package
+ * <code>de.esoco.ewt.server</code>.</p>
+ *
+ * @author eso
+ */
+public class ChartFingerprint
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	private static final int OFFSET_BASIS_HIGH = 0x811c9dc5;
+	private static final int OFFSET_BASIS_LOW  = 0x9747b28c;
+	private static final int NULL_HIGH		   = 0x7ff80000;
+	private static final int NULL_LOW		   = 0xa1;
+	private static final int APPEND_ROW		   = 0x41;
+	private static final int REMOVE_ROWS	   = 0x52;
+
+	private static final double TWO_POW_32  = 4294967296.0;
+	private static final double TWO_POW_52  = TWO_POW_32 * 1048576.0;
+	private static final double TWO_POW_537 = Math.pow(2, 537);
+	private static final double INV_LN2     = 1 / Math.log(2);
+
+	private static final double[] POWERS_OF_TWO = new double[2046];
+
+	static
+	{
+		// the powers of two from 2^-1022 to 2^1023
+		POWERS_OF_TWO[1022] = 1.0;
+
+		for (int i = 1; i <= 1023; i++)
+		{
+			POWERS_OF_TWO[1022 + i] = POWERS_OF_TWO[1021 + i] * 2;
+		}
+
+		for (int i = 1; i <= 1022; i++)
+		{
+			POWERS_OF_TWO[1022 - i] = POWERS_OF_TWO[1023 - i] / 2;
+		}
+	}
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final int nHigh;
+	private final int nLow;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param nValue The fingerprint value
+	 */
+	public ChartFingerprint(long nValue)
+	{
+		this((int) (nValue >>> 32), (int) nValue);
+	}
+
+	/***************************************
+	 * Creates a new instance from the two halves of the fingerprint value.
+	 *
+	 * @param nHigh The upper 32 bits of the value
+	 * @param nLow  The lower 32 bits of the value
+	 */
+	private ChartFingerprint(int nHigh, int nLow)
+	{
+		this.nHigh = nHigh;
+		this.nLow  = nLow;
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Computes the fingerprint of chart data and rendering settings. The
+	 * settings can be arbitrary objects like the chart type, the legend
+	 * position, flags, colors, or the chart size which will be included
+	 * through their string representation in the given order.
+	 *
+	 * @param  rData     The chart data or NULL for none
+	 * @param  rSettings The rendering settings
+	 *
+	 * @return The new fingerprint
+	 */
+	public static ChartFingerprint of(ChartData rData, Object... rSettings)
+	{
+		Hash aHash = new Hash(OFFSET_BASIS_HIGH, OFFSET_BASIS_LOW);
+
+		for (Object rSetting : rSettings)
+		{
+			aHash.mix(String.valueOf(rSetting));
+		}
+
+		if (rData != null)
+		{
+			aHash.mixData(rData);
+		}
+
+		return aHash.finish();
+	}
+
+	/***************************************
+	 * Determines the bits of a double value in the IEEE 754 format without
+	 * using the emulated long type of GWT. The result is identical to the
+	 * upper and lower half of {@link Double#doubleToLongBits(double)} for all
+	 * values except NaN.
+	 *
+	 * @param fValue The double value
+	 * @param rBits  An array of two integers to receive the upper and lower
+	 *               32 bits of the value
+	 */
+	static void getBits(double fValue, int[] rBits)
+	{
+		int    nSign = 0;
+		double fAbs  = fValue;
+		int    nExponent;
+		double fMantissa;
+
+		if (fValue < 0 || (fValue == 0 && 1 / fValue < 0))
+		{
+			nSign = 0x80000000;
+			fAbs  = -fValue;
+		}
+
+		if (Double.isInfinite(fAbs))
+		{
+			nExponent = 2047;
+			fMantissa = 0;
+		}
+		else if (fAbs < POWERS_OF_TWO[0])
+		{
+			// subnormal values are multiples of 2^-1074
+			nExponent = 0;
+			fMantissa = fAbs * TWO_POW_537 * TWO_POW_537;
+		}
+		else
+		{
+			int nPower = (int) Math.floor(Math.log(fAbs) * INV_LN2);
+
+			// correct rounding errors of the logarithm
+			nPower = Math.max(-1022, Math.min(1023, nPower));
+
+			if (fAbs < POWERS_OF_TWO[nPower + 1022])
+			{
+				nPower--;
+			}
+			else if (nPower < 1023 && fAbs >= POWERS_OF_TWO[nPower + 1023])
+			{
+				nPower++;
+			}
+
+			nExponent = nPower + 1023;
+			fMantissa = (fAbs / POWERS_OF_TWO[nPower + 1022] - 1) * TWO_POW_52;
+		}
+
+		int    nUpper = (int) (fMantissa / TWO_POW_32);
+		double fLower = fMantissa - nUpper * TWO_POW_32;
+
+		rBits[0] = nSign | (nExponent << 20) | nUpper;
+		rBits[1] =
+			(int) (fLower >= 2147483648.0 ? fLower - TWO_POW_32 : fLower);
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns a new data fingerprint that extends this fingerprint with a row
+	 * that has been appended to the data.
+	 *
+	 * @param  sRowLabel The label of the appended row
+	 * @param  rValues   The row values (NaN for undefined values)
+	 *
+	 * @return The updated fingerprint
+	 */
+	public ChartFingerprint appendRow(String sRowLabel, double... rValues)
+	{
+		Hash aHash = new Hash(nHigh, nLow);
+
+		aHash.mix(APPEND_ROW);
+		aHash.mix(sRowLabel);
+
+		for (double fValue : rValues)
+		{
+			aHash.mixValue(fValue);
+		}
+
+		aHash.mix(rValues.length);
+
+		return aHash.finish();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object rObject)
+	{
+		if (!(rObject instanceof ChartFingerprint))
+		{
+			return false;
+		}
+
+		ChartFingerprint rOther = (ChartFingerprint) rObject;
+
+		return rOther.nHigh == nHigh && rOther.nLow == nLow;
+	}
+
+	/***************************************
+	 * Returns the fingerprint value.
+	 *
+	 * @return The fingerprint value
+	 */
+	public final long getValue()
+	{
+		return ((long) nHigh << 32) | (nLow & 0xffffffffL);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return nHigh ^ nLow;
+	}
+
+	/***************************************
+	 * Returns a new data fingerprint that extends this fingerprint with the
+	 * removal of rows from the start of the data.
+	 *
+	 * @param  nCount The number of removed rows
+	 *
+	 * @return The updated fingerprint or this instance if the count is zero
+	 */
+	public ChartFingerprint removeRows(int nCount)
+	{
+		if (nCount <= 0)
+		{
+			return this;
+		}
+
+		Hash aHash = new Hash(nHigh, nLow);
+
+		aHash.mix(REMOVE_ROWS);
+		aHash.mix(nCount);
+
+		return aHash.finish();
+	}
+
+	/***************************************
+	 * Returns the fingerprint value as a hexadecimal string that can be used
+	 * as a file name or an HTTP entity tag.
+	 *
+	 * @return The hexadecimal fingerprint
+	 */
+	@Override
+	public String toString()
+	{
+		return toHex(nHigh) + toHex(nLow);
+	}
+
+	/***************************************
+	 * Converts an integer into a hexadecimal string of 8 digits.
+	 *
+	 * @param  nValue The value to convert
+	 *
+	 * @return The hexadecimal string
+	 */
+	private String toHex(int nValue)
+	{
+		String sHex = Integer.toHexString(nValue);
+
+		return "00000000".substring(sHex.length()) + sHex;
+	}
+
+	//~ Inner Classes ----------------------------------------------------------
+
+	/********************************************************************
+	 * The mutable state of a fingerprint computation. The upper lane is
+	 * mixed like the 32 bit FNV-1a hash, with the multiplication replaced by
+	 * shifts, and the lower lane like the body of the 32 bit MurmurHash3.
+	 *
+	 * @author eso
+	 */
+	private static class Hash
+	{
+		//~ Instance fields ----------------------------------------------------
+
+		private int nHigh;
+		private int nLow;
+
+		private final int[] aBits = new int[2];
+
+		//~ Constructors -------------------------------------------------------
+
+		/***************************************
+		 * Creates a new instance.
+		 *
+		 * @param nHigh The initial value of the upper lane
+		 * @param nLow  The initial value of the lower lane
+		 */
+		Hash(int nHigh, int nLow)
+		{
+			this.nHigh = nHigh;
+			this.nLow  = nLow;
+		}
+
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Applies a final avalanche step so that similar inputs result in
+		 * very different fingerprints and returns the resulting fingerprint.
+		 *
+		 * @return The new fingerprint
+		 */
+		ChartFingerprint finish()
+		{
+			for (int i = 0; i < 2; i++)
+			{
+				mix(nLow >>> 15);
+				nHigh ^= nHigh >>> 13;
+				nLow  ^= nLow >>> 16;
+			}
+
+			return new ChartFingerprint(nHigh, nLow);
+		}
+
+		/***************************************
+		 * Mixes an integer value into both lanes.
+		 *
+		 * @param nValue The value to mix in
+		 */
+		void mix(int nValue)
+		{
+			int nMixed = nLow ^ nValue;
+
+			nHigh ^= nValue;
+			nHigh +=
+				(nHigh << 1) + (nHigh << 4) + (nHigh << 7) + (nHigh << 8) +
+				(nHigh << 24);
+
+			nLow = ((nMixed << 13) | (nMixed >>> 19)) * 5 + 0xe6546b64;
+		}
+
+		/***************************************
+		 * Mixes a string into both lanes. NULL strings are distinguished
+		 * from empty strings.
+		 *
+		 * @param sString The string to mix in or NULL
+		 */
+		void mix(String sString)
+		{
+			if (sString == null)
+			{
+				mix(NULL_HIGH);
+				mix(NULL_LOW);
+			}
+			else
+			{
+				int nLength = sString.length();
+
+				for (int i = 0; i < nLength; i++)
+				{
+					mix(sString.charAt(i));
+				}
+
+				mix(nLength);
+			}
+		}
+
+		/***************************************
+		 * Mixes the labels and values of chart data into both lanes.
+		 *
+		 * @param rData The chart data
+		 */
+		void mixData(ChartData rData)
+		{
+			int nRows = rData.getRowCount();
+			int nCols = rData.getColumnCount();
+
+			mix(nRows);
+			mix(nCols);
+			mix(rData.getRowAxisLabel());
+
+			for (int nCol = 0; nCol < nCols; nCol++)
+			{
+				mix(rData.getColumnLabel(nCol));
+			}
+
+			for (int nRow = 0; nRow < nRows; nRow++)
+			{
+				mix(rData.getRowLabel(nRow));
+
+				for (int nCol = 0; nCol < nCols; nCol++)
+				{
+					mixValue(rData.isNull(nRow, nCol)
+							 ? Double.NaN : rData.getValue(nRow, nCol));
+				}
+			}
+		}
+
+		/***************************************
+		 * Mixes the bits of a data value into both lanes. All NaN values
+		 * are mixed in as the same undefined value.
+		 *
+		 * @param fValue The value to mix in
+		 */
+		void mixValue(double fValue)
+		{
+			if (Double.isNaN(fValue))
+			{
+				mix(NULL_HIGH);
+				mix(NULL_LOW);
+			}
+			else
+			{
+				getBits(fValue, aBits);
+				mix(aBits[0]);
+				mix(aBits[1]);
+			}
+		}
+	}
+}
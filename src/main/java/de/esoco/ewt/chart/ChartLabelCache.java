@@ -0,0 +1,324 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.ewt.UserInterfaceContext;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+
+/********************************************************************
+ * A cache for the resource expansion of chart labels. Chart data typically
+ * contains the same row and column labels (like months, regions, or metric
+ * names) on each redraw and across the charts of a page. This cache memoizes
+ * the result of {@link UserInterfaceContext#expandResource(String)} so that
+ * repeated conversions of such data don't need to perform resource lookups.
+ * Only labels that contain a resource reference (i.e. a '$' character) are
+ * expanded and cached. All other labels, like the timestamps of large time
+ * series, are returned unchanged so that they don't displace the resources
+ * from the cache.
+ *
+ * <p>There is one cache per user interface context which can be queried with
+ * {@link #get(UserInterfaceContext)}. The size of each cache is bounded and
+ * the least recently used labels will be evicted if the maximum size is
+ * exceeded. A cache will be cleared automatically if the locale that is set
+ * through {@link #setLocale(String)} changes. Applications that change their
+ * resources in some other way can invoke {@link
+ * #invalidate(UserInterfaceContext)} or {@link #invalidateAll()}.</p>
+ *
+ * <p>Components that use a cache while they are displayed should register
+ * with {@link #acquire(UserInterfaceContext)} and {@link
+ * #release(UserInterfaceContext)}. The cache of a context will then be
+ * removed when its last user has been released, e.g. because the user
+ * interface of the context has been disposed.</p>
+ *
+ * @author eso
+ */
+public class ChartLabelCache implements Function<String, String>
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The default maximum number of labels in a cache. */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	private static Map<UserInterfaceContext, ChartLabelCache> aContextCaches =
+		new HashMap<>();
+
+	private static int nDefaultMaxSize = DEFAULT_MAX_SIZE;
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final UserInterfaceContext rContext;
+
+	private final Map<String, String> aLabels;
+
+	private int    nMaxSize;
+	private String sLocale = null;
+	private int    nHits   = 0;
+	private int    nMisses = 0;
+	private int    nUsers  = 0;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rContext The user interface context to expand resources with
+	 * @param nMaxSize The maximum number of cached labels
+	 */
+	@SuppressWarnings("serial")
+	ChartLabelCache(UserInterfaceContext rContext, int nMaxSize)
+	{
+		this.rContext = rContext;
+		this.nMaxSize = nMaxSize;
+
+		aLabels =
+			new LinkedHashMap<String, String>(64, 0.75f, true)
+			{
+				@Override
+				protected boolean removeEldestEntry(
+					Entry<String, String> rEldest)
+				{
+					return size() > ChartLabelCache.this.nMaxSize;
+				}
+			};
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Registers a user of the label cache of a certain user interface context.
+	 * Each invocation must be followed by an invocation of {@link
+	 * #release(UserInterfaceContext)} when the cache is no longer used.
+	 *
+	 * @param  rContext The user interface context
+	 *
+	 * @return The label cache of the context
+	 */
+	public static ChartLabelCache acquire(UserInterfaceContext rContext)
+	{
+		ChartLabelCache rCache = get(rContext);
+
+		rCache.nUsers++;
+
+		return rCache;
+	}
+
+	/***************************************
+	 * Returns the label cache for a certain user interface context. The cache
+	 * will be created on the first access.
+	 *
+	 * @param  rContext The user interface context
+	 *
+	 * @return The label cache of the context
+	 */
+	public static ChartLabelCache get(UserInterfaceContext rContext)
+	{
+		ChartLabelCache rCache = aContextCaches.get(rContext);
+
+		if (rCache == null)
+		{
+			rCache = new ChartLabelCache(rContext, nDefaultMaxSize);
+			aContextCaches.put(rContext, rCache);
+		}
+
+		return rCache;
+	}
+
+	/***************************************
+	 * Invalidates the label cache of a certain user interface context.
+	 *
+	 * @param rContext The user interface context
+	 */
+	public static void invalidate(UserInterfaceContext rContext)
+	{
+		ChartLabelCache rCache = aContextCaches.get(rContext);
+
+		if (rCache != null)
+		{
+			rCache.clear();
+		}
+	}
+
+	/***************************************
+	 * Invalidates the label caches of all user interface contexts.
+	 */
+	public static void invalidateAll()
+	{
+		for (ChartLabelCache rCache : aContextCaches.values())
+		{
+			rCache.clear();
+		}
+	}
+
+	/***************************************
+	 * Releases a user of the label cache of a certain user interface context
+	 * that has been registered with {@link #acquire(UserInterfaceContext)}.
+	 * If no users remain the cache will be removed.
+	 *
+	 * @param rContext The user interface context
+	 */
+	public static void release(UserInterfaceContext rContext)
+	{
+		ChartLabelCache rCache = aContextCaches.get(rContext);
+
+		if (rCache != null && --rCache.nUsers <= 0)
+		{
+			remove(rContext);
+		}
+	}
+
+	/***************************************
+	 * Removes the label cache of a user interface context that is no longer
+	 * used.
+	 *
+	 * @param rContext The user interface context
+	 */
+	public static void remove(UserInterfaceContext rContext)
+	{
+		aContextCaches.remove(rContext);
+	}
+
+	/***************************************
+	 * Sets the maximum size of label caches that are created after this call.
+	 * The default value is {@link #DEFAULT_MAX_SIZE}.
+	 *
+	 * @param nMaxSize The default maximum cache size
+	 */
+	public static void setDefaultMaxSize(int nMaxSize)
+	{
+		nDefaultMaxSize = nMaxSize;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns the expanded label for a resource, either from the cache or by
+	 * expanding it through the user interface context. Labels without a
+	 * resource reference are returned unchanged.
+	 *
+	 * @param  sResource The resource to expand (may be NULL)
+	 *
+	 * @return The expanded label or NULL if the resource is NULL
+	 */
+	@Override
+	public String apply(String sResource)
+	{
+		if (sResource == null || sResource.indexOf('$') < 0)
+		{
+			return sResource;
+		}
+
+		String sLabel = aLabels.get(sResource);
+
+		if (sLabel == null)
+		{
+			sLabel = rContext.expandResource(sResource);
+			aLabels.put(sResource, sLabel);
+			nMisses++;
+		}
+		else
+		{
+			nHits++;
+		}
+
+		return sLabel;
+	}
+
+	/***************************************
+	 * Removes all labels from this cache.
+	 */
+	public void clear()
+	{
+		aLabels.clear();
+	}
+
+	/***************************************
+	 * Returns the number of lookups that have been served from the cache.
+	 *
+	 * @return The hit count
+	 */
+	public int getHitCount()
+	{
+		return nHits;
+	}
+
+	/***************************************
+	 * Returns the maximum number of labels in this cache.
+	 *
+	 * @return The maximum size
+	 */
+	public int getMaxSize()
+	{
+		return nMaxSize;
+	}
+
+	/***************************************
+	 * Returns the number of lookups that required a resource expansion.
+	 *
+	 * @return The miss count
+	 */
+	public int getMissCount()
+	{
+		return nMisses;
+	}
+
+	/***************************************
+	 * Sets the locale the cached labels are expanded for. If it differs from
+	 * the previous locale the cache will be cleared.
+	 *
+	 * @param sNewLocale The name of the current locale
+	 */
+	public void setLocale(String sNewLocale)
+	{
+		if (sLocale == null ? sNewLocale != null : !sLocale.equals(sNewLocale))
+		{
+			clear();
+			sLocale = sNewLocale;
+		}
+	}
+
+	/***************************************
+	 * Sets the maximum number of labels in this cache. If the current size
+	 * exceeds the new maximum the cache will be cleared.
+	 *
+	 * @param nNewMaxSize The new maximum size
+	 */
+	public void setMaxSize(int nNewMaxSize)
+	{
+		nMaxSize = nNewMaxSize;
+
+		if (aLabels.size() > nMaxSize)
+		{
+			clear();
+		}
+	}
+
+	/***************************************
+	 * Returns the current number of labels in this cache.
+	 *
+	 * @return The cache size
+	 */
+	public int size()
+	{
+		return aLabels.size();
+	}
+}
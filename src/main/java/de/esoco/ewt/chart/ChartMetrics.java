@@ -0,0 +1,415 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/********************************************************************
+ * Collects rendering metrics of charts. Charts record the duration of each
+ * rendering phase together with the number of rows and cells that have been
+ * processed if a metrics instance has been set on them. The measurements are
+ * aggregated per chart type and phase into statistics that provide the
+ * median, the 95th percentile, and the maximum. The percentiles are
+ * calculated from the most recent samples (see {@link #DEFAULT_SAMPLE_SIZE})
+ * while the counts, totals, and the maximum cover all measurements since the
+ * last {@link #reset()}.
+ *
+ * <p>Applications can forward each measurement to their own telemetry by
+ * registering a {@link MetricsListener}. Typically a single instance is
+ * shared by all charts of an application.</p>
+ *
+ * @author eso
+ */
+public class ChartMetrics
+{
+	//~ Enums ------------------------------------------------------------------
+
+	/********************************************************************
+	 * Enumeration of the measured rendering phases.
+	 *
+	 * <ul>
+	 *   <li>{@link #API_LOAD}: loading the chart API package for a chart
+	 *     (only measured for charts that had to wait for the API).</li>
+	 *   <li>{@link #TABLE_BUILD}: building the data table from the chart
+	 *     data (including downsampling).</li>
+	 *   <li>{@link #WIDGET_INIT}: creating or reusing the chart widget and
+	 *     adding it to the chart component.</li>
+	 *   <li>{@link #DRAW}: drawing the chart widget or the canvas. The
+	 *     measurement count of this phase is the number of redraws.</li>
+	 * </ul>
+	 */
+	public enum Phase { API_LOAD, TABLE_BUILD, WIDGET_INIT, DRAW }
+
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The default number of recent samples to calculate percentiles from. */
+	public static final int DEFAULT_SAMPLE_SIZE = 200;
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final int nSampleSize;
+
+	private Map<String, PhaseStatistics[]> aStatistics =
+		new LinkedHashMap<>();
+	private List<MetricsListener>		   aListeners  = new ArrayList<>();
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance with the default sample size.
+	 */
+	public ChartMetrics()
+	{
+		this(DEFAULT_SAMPLE_SIZE);
+	}
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param nSampleSize The number of recent samples to calculate the
+	 *                    percentiles from
+	 */
+	public ChartMetrics(int nSampleSize)
+	{
+		if (nSampleSize <= 0)
+		{
+			throw new IllegalArgumentException("Sample size must be > 0");
+		}
+
+		this.nSampleSize = nSampleSize;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Adds a listener that will be notified of each measurement.
+	 *
+	 * @param rListener The listener to add
+	 */
+	public void addListener(MetricsListener rListener)
+	{
+		aListeners.add(rListener);
+	}
+
+	/***************************************
+	 * Returns the names of the chart types for which measurements have been
+	 * recorded.
+	 *
+	 * @return The chart type names in the order of their first measurement
+	 */
+	public Collection<String> getChartTypes()
+	{
+		return Collections.unmodifiableCollection(aStatistics.keySet());
+	}
+
+	/***************************************
+	 * Returns the statistics of a certain phase of a chart type.
+	 *
+	 * @param  sChartType The name of the chart type
+	 * @param  ePhase     The rendering phase
+	 *
+	 * @return The statistics or NULL if no measurements have been recorded
+	 */
+	public PhaseStatistics getStatistics(String sChartType, Phase ePhase)
+	{
+		PhaseStatistics[] rPhases = aStatistics.get(sChartType);
+
+		return rPhases != null ? rPhases[ePhase.ordinal()] : null;
+	}
+
+	/***************************************
+	 * Records the measurement of a rendering phase and notifies all
+	 * listeners.
+	 *
+	 * @param sChartType The name of the chart type
+	 * @param ePhase     The rendering phase
+	 * @param fMillis    The duration of the phase in milliseconds
+	 * @param nRows      The number of processed data rows
+	 * @param nCells     The number of processed data cells
+	 */
+	public void record(String sChartType,
+					   Phase  ePhase,
+					   double fMillis,
+					   int    nRows,
+					   int    nCells)
+	{
+		PhaseStatistics[] rPhases = aStatistics.get(sChartType);
+
+		if (rPhases == null)
+		{
+			rPhases = new PhaseStatistics[Phase.values().length];
+			aStatistics.put(sChartType, rPhases);
+		}
+
+		PhaseStatistics rStatistics = rPhases[ePhase.ordinal()];
+
+		if (rStatistics == null)
+		{
+			rStatistics = new PhaseStatistics(nSampleSize);
+			rPhases[ePhase.ordinal()] = rStatistics;
+		}
+
+		rStatistics.add(fMillis, nRows, nCells);
+
+		for (MetricsListener rListener : aListeners)
+		{
+			rListener.phaseMeasured(sChartType, ePhase, fMillis, nRows, nCells);
+		}
+	}
+
+	/***************************************
+	 * Removes a listener.
+	 *
+	 * @param rListener The listener to remove
+	 */
+	public void removeListener(MetricsListener rListener)
+	{
+		aListeners.remove(rListener);
+	}
+
+	/***************************************
+	 * Removes all recorded measurements.
+	 */
+	public void reset()
+	{
+		aStatistics.clear();
+	}
+
+	/***************************************
+	 * Returns a summary of all statistics with one line per chart type and
+	 * phase.
+	 *
+	 * @return The statistics summary
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder aResult = new StringBuilder();
+
+		for (Map.Entry<String, PhaseStatistics[]> rEntry :
+			 aStatistics.entrySet())
+		{
+			for (Phase ePhase : Phase.values())
+			{
+				PhaseStatistics rStatistics =
+					rEntry.getValue()[ePhase.ordinal()];
+
+				if (rStatistics != null)
+				{
+					aResult.append(rEntry.getKey()).append(' ');
+					aResult.append(ePhase).append(": ");
+					aResult.append(rStatistics).append('\n');
+				}
+			}
+		}
+
+		return aResult.toString();
+	}
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The interface for listeners that receive the chart measurements, e.g.
+	 * to forward them to a telemetry service.
+	 *
+	 * @author eso
+	 */
+	public static interface MetricsListener
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Will be invoked after a rendering phase has been measured.
+		 *
+		 * @param sChartType The name of the chart type
+		 * @param ePhase     The rendering phase
+		 * @param fMillis    The duration of the phase in milliseconds
+		 * @param nRows      The number of processed data rows
+		 * @param nCells     The number of processed data cells
+		 */
+		public void phaseMeasured(String sChartType,
+								  Phase  ePhase,
+								  double fMillis,
+								  int    nRows,
+								  int    nCells);
+	}
+
+	//~ Inner Classes ----------------------------------------------------------
+
+	/********************************************************************
+	 * Contains the aggregated measurements of a rendering phase.
+	 *
+	 * @author eso
+	 */
+	public static class PhaseStatistics
+	{
+		//~ Instance fields ----------------------------------------------------
+
+		private final double[] aSamples;
+
+		private int    nCount	   = 0;
+		private double fMax		   = 0;
+		private double fTotalTime  = 0;
+		private long   nTotalRows  = 0;
+		private long   nTotalCells = 0;
+
+		//~ Constructors -------------------------------------------------------
+
+		/***************************************
+		 * Creates a new instance.
+		 *
+		 * @param nSampleSize The number of recent samples to keep
+		 */
+		PhaseStatistics(int nSampleSize)
+		{
+			aSamples = new double[nSampleSize];
+		}
+
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Returns the number of measurements.
+		 *
+		 * @return The measurement count
+		 */
+		public final int getCount()
+		{
+			return nCount;
+		}
+
+		/***************************************
+		 * Returns the maximum duration of all measurements.
+		 *
+		 * @return The maximum duration in milliseconds
+		 */
+		public final double getMax()
+		{
+			return fMax;
+		}
+
+		/***************************************
+		 * Returns the average duration of all measurements.
+		 *
+		 * @return The average duration in milliseconds
+		 */
+		public double getMean()
+		{
+			return nCount > 0 ? fTotalTime / nCount : 0;
+		}
+
+		/***************************************
+		 * Returns the median duration of the recent samples.
+		 *
+		 * @return The median duration in milliseconds
+		 */
+		public double getP50()
+		{
+			return getPercentile(50);
+		}
+
+		/***************************************
+		 * Returns the 95th percentile duration of the recent samples.
+		 *
+		 * @return The 95th percentile duration in milliseconds
+		 */
+		public double getP95()
+		{
+			return getPercentile(95);
+		}
+
+		/***************************************
+		 * Returns a percentile of the durations of the recent samples with
+		 * the nearest-rank method.
+		 *
+		 * @param  fPercentile The percentile (0 - 100)
+		 *
+		 * @return The percentile duration in milliseconds
+		 */
+		public double getPercentile(double fPercentile)
+		{
+			int nSamples = Math.min(nCount, aSamples.length);
+
+			if (nSamples == 0)
+			{
+				return 0;
+			}
+
+			double[] aSorted = Arrays.copyOf(aSamples, nSamples);
+			int		 nRank   = (int) Math.ceil(fPercentile / 100 * nSamples);
+
+			Arrays.sort(aSorted);
+
+			return aSorted[Math.max(0, Math.min(nRank - 1, nSamples - 1))];
+		}
+
+		/***************************************
+		 * Returns the total number of cells of all measurements.
+		 *
+		 * @return The total cell count
+		 */
+		public final long getTotalCells()
+		{
+			return nTotalCells;
+		}
+
+		/***************************************
+		 * Returns the total number of rows of all measurements.
+		 *
+		 * @return The total row count
+		 */
+		public final long getTotalRows()
+		{
+			return nTotalRows;
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString()
+		{
+			return "n=" + nCount + ", p50=" + getP50() + ", p95=" + getP95() +
+				   ", max=" + fMax + ", rows=" + nTotalRows + ", cells=" +
+				   nTotalCells;
+		}
+
+		/***************************************
+		 * Adds a measurement.
+		 *
+		 * @param fMillis The duration in milliseconds
+		 * @param nRows   The number of processed rows
+		 * @param nCells  The number of processed cells
+		 */
+		void add(double fMillis, int nRows, int nCells)
+		{
+			aSamples[nCount % aSamples.length] = fMillis;
+
+			nCount++;
+			fTotalTime  += fMillis;
+			nTotalRows  += nRows;
+			nTotalCells += nCells;
+			fMax = Math.max(fMax, fMillis);
+		}
+	}
+}
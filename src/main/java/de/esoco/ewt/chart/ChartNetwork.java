@@ -0,0 +1,603 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/********************************************************************
+ * A mutable model of the hierarchical nodes of a network chart. Nodes and the
+ * child lists of parent IDs are indexed in hash maps so that lookups don't
+ * require scanning the node list, even for networks with many thousand nodes.
+ * Nodes can be added and removed incrementally. Appending nodes below
+ * existing parents only increments the {@link #getModificationCount()
+ * modification count} so that a chart can add the new nodes to an existing
+ * data table. All other changes also increment the {@link #getLayoutCount()
+ * layout count} which requires a rebuild of the table.
+ *
+ * <p>To keep large networks readable and fast to render the displayed level
+ * of detail can be limited. Single subtrees can be collapsed explicitly with
+ * {@link #setCollapsed(String, boolean)}. With {@link
+ * #setMaxVisibleNodes(int)} complete levels of the hierarchy will be
+ * collapsed automatically so that the number of visible nodes stays below the
+ * given limit. The visible nodes are returned by {@link #getVisibleNodes()}
+ * and {@link #getHiddenNodeCount(int)} returns the size of the collapsed
+ * subtree below a visible node.</p>
+ *
+ * <p>Nodes are removed by moving the last node into the place of the removed
+ * node. Therefore node indices are only stable as long as no nodes are
+ * removed.</p>
+ *
+ * @author eso
+ */
+public class ChartNetwork implements ChartNodeData
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The style of nodes without a specific style. */
+	public static final String DEFAULT_STYLE = "default";
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final List<String> aIds		  = new ArrayList<>();
+	private final List<String> aParentIds = new ArrayList<>();
+	private final List<String> aTexts     = new ArrayList<>();
+	private final List<String> aStyles    = new ArrayList<>();
+
+	private final Map<String, Integer>		 aNodeIndexes = new HashMap<>();
+	private final Map<String, List<Integer>> aChildren    = new HashMap<>();
+	private final Set<String>				 aCollapsed   = new HashSet<>();
+
+	private int nMaxVisibleNodes = 0;
+	private int nModCount		 = 0;
+	private int nLayoutCount     = 0;
+
+	private int[] aVisibleNodes = null;
+	private int[] aHiddenCounts = null;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new empty instance.
+	 */
+	public ChartNetwork()
+	{
+	}
+
+	/***************************************
+	 * Creates a new instance that contains the nodes of other node data.
+	 *
+	 * @param rNodes The node data to copy
+	 */
+	public ChartNetwork(ChartNodeData rNodes)
+	{
+		int nCount = rNodes.getNodeCount();
+
+		for (int i = 0; i < nCount; i++)
+		{
+			addNode(rNodes.getNodeId(i),
+					rNodes.getParentId(i),
+					rNodes.getNodeText(i),
+					rNodes.getNodeStyle(i));
+		}
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Adds a new node to the end of this network. The parent node doesn't
+	 * need to exist yet. Until it is added the node will be displayed as a
+	 * root node. If a node with the given ID already exists the call will be
+	 * ignored because networks are typically built from application data
+	 * that is rendered on repaint, where an exception cannot be handled.
+	 *
+	 * @param  sId       The unique node ID
+	 * @param  sParentId The ID of the parent node or NULL for a root node
+	 * @param  sText     The node text or NULL to display the ID
+	 * @param  sStyle    The node style or NULL for the default style
+	 *
+	 * @return TRUE if the node has been added, FALSE if the ID is a duplicate
+	 */
+	public boolean addNode(String sId,
+						   String sParentId,
+						   String sText,
+						   String sStyle)
+	{
+		if (aNodeIndexes.containsKey(sId))
+		{
+			return false;
+		}
+
+		int nIndex = aIds.size();
+
+		aNodeIndexes.put(sId, Integer.valueOf(nIndex));
+		aIds.add(sId);
+		aParentIds.add(sParentId);
+		aTexts.add(sText != null ? sText : sId);
+		aStyles.add(sStyle != null ? sStyle : DEFAULT_STYLE);
+
+		if (sParentId != null)
+		{
+			getChildList(sParentId, true).add(Integer.valueOf(nIndex));
+		}
+
+		if (aChildren.containsKey(sId))
+		{
+			// previous root nodes become children of the new node
+			nLayoutCount++;
+		}
+
+		nModCount++;
+		aVisibleNodes = null;
+
+		return true;
+	}
+
+	/***************************************
+	 * Checks whether this network contains a node with a certain ID.
+	 *
+	 * @param  sId The node ID
+	 *
+	 * @return TRUE if the node exists
+	 */
+	public boolean contains(String sId)
+	{
+		return aNodeIndexes.containsKey(sId);
+	}
+
+	/***************************************
+	 * Returns the number of nodes in the collapsed subtree below a visible
+	 * node.
+	 *
+	 * @param  nNode The node index
+	 *
+	 * @return The number of hidden nodes (zero if the node is not collapsed)
+	 */
+	public int getHiddenNodeCount(int nNode)
+	{
+		updateVisibleNodes();
+
+		return aHiddenCounts[nNode];
+	}
+
+	/***************************************
+	 * Returns the layout count of this network. It is incremented on all
+	 * modifications that require a rebuild of the displayed nodes.
+	 *
+	 * @return The layout count
+	 */
+	public int getLayoutCount()
+	{
+		return nLayoutCount;
+	}
+
+	/***************************************
+	 * Returns the maximum number of visible nodes.
+	 *
+	 * @return The maximum visible node count (zero for no limit)
+	 */
+	public int getMaxVisibleNodes()
+	{
+		return nMaxVisibleNodes;
+	}
+
+	/***************************************
+	 * Returns the modification count of this network. It is incremented on
+	 * each modification.
+	 *
+	 * @return The modification count
+	 */
+	public int getModificationCount()
+	{
+		return nModCount;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNodeCount()
+	{
+		return aIds.size();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getNodeId(int nNode)
+	{
+		return aIds.get(nNode);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getNodeStyle(int nNode)
+	{
+		return aStyles.get(nNode);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getNodeText(int nNode)
+	{
+		return aTexts.get(nNode);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getParentId(int nNode)
+	{
+		return aParentIds.get(nNode);
+	}
+
+	/***************************************
+	 * Returns the indices of the nodes that are visible with the current
+	 * level of detail in ascending order. A node is visible if none of its
+	 * ancestors is collapsed. Nodes that are part of a parent cycle are never
+	 * visible.
+	 *
+	 * @return The visible node indices (must not be modified)
+	 */
+	public int[] getVisibleNodes()
+	{
+		updateVisibleNodes();
+
+		return aVisibleNodes;
+	}
+
+	/***************************************
+	 * Returns the index of the node with a certain ID.
+	 *
+	 * @param  sId The node ID
+	 *
+	 * @return The node index or -1 if no such node exists
+	 */
+	public int indexOf(String sId)
+	{
+		Integer rIndex = aNodeIndexes.get(sId);
+
+		return rIndex != null ? rIndex.intValue() : -1;
+	}
+
+	/***************************************
+	 * Checks whether a node has been collapsed explicitly.
+	 *
+	 * @param  sId The node ID
+	 *
+	 * @return TRUE if the node is collapsed
+	 */
+	public boolean isCollapsed(String sId)
+	{
+		return aCollapsed.contains(sId);
+	}
+
+	/***************************************
+	 * Removes a node and the subtree below it from this network.
+	 *
+	 * @param  sId The ID of the node to remove
+	 *
+	 * @return TRUE if the node existed
+	 */
+	public boolean removeNode(String sId)
+	{
+		Integer rIndex = aNodeIndexes.get(sId);
+
+		if (rIndex == null)
+		{
+			return false;
+		}
+
+		List<String> aSubtree = new ArrayList<>();
+		Set<String>  aVisited = new HashSet<>();
+
+		aSubtree.add(sId);
+		aVisited.add(sId);
+
+		for (int i = 0; i < aSubtree.size(); i++)
+		{
+			List<Integer> rChildren = aChildren.get(aSubtree.get(i));
+
+			if (rChildren != null)
+			{
+				for (Integer rChild : rChildren)
+				{
+					String sChildId = aIds.get(rChild.intValue());
+
+					// parent cycles are possible because nodes can be added
+					// before their parents
+					if (aVisited.add(sChildId))
+					{
+						aSubtree.add(sChildId);
+					}
+				}
+			}
+		}
+
+		for (String sNodeId : aSubtree)
+		{
+			removeSingleNode(sNodeId);
+		}
+
+		nModCount++;
+		nLayoutCount++;
+		aVisibleNodes = null;
+
+		return true;
+	}
+
+	/***************************************
+	 * Sets the collapsed state of a node. The subtree below a collapsed node
+	 * will not be displayed.
+	 *
+	 * @param sId        The node ID
+	 * @param bCollapsed The collapsed state
+	 */
+	public void setCollapsed(String sId, boolean bCollapsed)
+	{
+		boolean bChanged =
+			bCollapsed ? aCollapsed.add(sId) : aCollapsed.remove(sId);
+
+		if (bChanged)
+		{
+			nModCount++;
+			nLayoutCount++;
+			aVisibleNodes = null;
+		}
+	}
+
+	/***************************************
+	 * Sets the maximum number of visible nodes. If the network contains more
+	 * nodes only the upper levels of the hierarchy that fit into the limit
+	 * will be displayed and the nodes on the lowest displayed level will be
+	 * collapsed.
+	 *
+	 * @param nMaxNodes The maximum number of visible nodes or zero for no
+	 *                  limit
+	 */
+	public void setMaxVisibleNodes(int nMaxNodes)
+	{
+		if (nMaxNodes != nMaxVisibleNodes)
+		{
+			nMaxVisibleNodes = nMaxNodes;
+			nModCount++;
+			nLayoutCount++;
+			aVisibleNodes = null;
+		}
+	}
+
+	/***************************************
+	 * Sets the text of a node.
+	 *
+	 * @param sId   The node ID
+	 * @param sText The new node text
+	 */
+	public void setNodeText(String sId, String sText)
+	{
+		int nIndex = indexOf(sId);
+
+		if (nIndex >= 0)
+		{
+			aTexts.set(nIndex, sText != null ? sText : sId);
+			nModCount++;
+			nLayoutCount++;
+		}
+	}
+
+	/***************************************
+	 * Returns the list of child indices of a parent ID.
+	 *
+	 * @param  sParentId The parent ID
+	 * @param  bCreate   TRUE to create the list if it doesn't exist
+	 *
+	 * @return The child list or NULL if it doesn't exist and shall not be
+	 *         created
+	 */
+	private List<Integer> getChildList(String sParentId, boolean bCreate)
+	{
+		List<Integer> rChildren = aChildren.get(sParentId);
+
+		if (rChildren == null && bCreate)
+		{
+			rChildren = new ArrayList<>();
+			aChildren.put(sParentId, rChildren);
+		}
+
+		return rChildren;
+	}
+
+	/***************************************
+	 * Removes a single node by moving the last node into its place.
+	 *
+	 * @param sId The ID of the node to remove
+	 */
+	private void removeSingleNode(String sId)
+	{
+		int    nIndex    = aNodeIndexes.remove(sId).intValue();
+		int    nLast     = aIds.size() - 1;
+		String sParentId = aParentIds.get(nIndex);
+
+		if (sParentId != null)
+		{
+			List<Integer> rSiblings = getChildList(sParentId, false);
+
+			rSiblings.remove(Integer.valueOf(nIndex));
+
+			if (rSiblings.isEmpty())
+			{
+				aChildren.remove(sParentId);
+			}
+		}
+
+		if (nIndex < nLast)
+		{
+			String sLastId     = aIds.get(nLast);
+			String sLastParent = aParentIds.get(nLast);
+
+			aIds.set(nIndex, sLastId);
+			aParentIds.set(nIndex, sLastParent);
+			aTexts.set(nIndex, aTexts.get(nLast));
+			aStyles.set(nIndex, aStyles.get(nLast));
+			aNodeIndexes.put(sLastId, Integer.valueOf(nIndex));
+
+			if (sLastParent != null)
+			{
+				List<Integer> rSiblings = getChildList(sLastParent, false);
+
+				rSiblings.set(rSiblings.indexOf(Integer.valueOf(nLast)),
+							  Integer.valueOf(nIndex));
+			}
+		}
+
+		aIds.remove(nLast);
+		aParentIds.remove(nLast);
+		aTexts.remove(nLast);
+		aStyles.remove(nLast);
+		aCollapsed.remove(sId);
+	}
+
+	/***************************************
+	 * Determines the visible nodes and the hidden subtree sizes if necessary.
+	 * The hierarchy is traversed breadth-first from the root nodes so that
+	 * the automatic collapsing can stop at the last level that fits into the
+	 * maximum number of visible nodes.
+	 */
+	private void updateVisibleNodes()
+	{
+		if (aVisibleNodes != null)
+		{
+			return;
+		}
+
+		int		  nCount   = aIds.size();
+		int[]     aOrder   = new int[nCount];
+		int[]     aSizes   = new int[nCount];
+		boolean[] aVisible = new boolean[nCount];
+		int		  nOrdered = 0;
+
+		for (int i = 0; i < nCount; i++)
+		{
+			String sParentId = aParentIds.get(i);
+
+			if (sParentId == null || !aNodeIndexes.containsKey(sParentId))
+			{
+				aOrder[nOrdered++] = i;
+			}
+		}
+
+		int nRoots = nOrdered;
+
+		// breadth-first order of all nodes reachable from the roots
+		for (int i = 0; i < nOrdered; i++)
+		{
+			List<Integer> rChildren = aChildren.get(aIds.get(aOrder[i]));
+
+			if (rChildren != null)
+			{
+				for (Integer rChild : rChildren)
+				{
+					aOrder[nOrdered++] = rChild.intValue();
+				}
+			}
+		}
+
+		// subtree sizes accumulated in reverse order (children first)
+		for (int i = nOrdered - 1; i >= nRoots; i--)
+		{
+			int nNode = aOrder[i];
+
+			aSizes[nNode] += 1;
+			aSizes[indexOf(aParentIds.get(nNode))] += aSizes[nNode];
+		}
+
+		for (int i = 0; i < nRoots; i++)
+		{
+			aSizes[aOrder[i]] += 1;
+		}
+
+		List<Integer> aLevel   = new ArrayList<>();
+		int			  nVisible = 0;
+
+		for (int i = 0; i < nRoots; i++)
+		{
+			aLevel.add(Integer.valueOf(aOrder[i]));
+		}
+
+		aHiddenCounts = new int[nCount];
+
+		// add complete levels while they fit into the maximum node count
+		while (!aLevel.isEmpty())
+		{
+			List<Integer> aNextLevel = new ArrayList<>();
+
+			nVisible += aLevel.size();
+
+			for (Integer rNode : aLevel)
+			{
+				int			  nNode     = rNode.intValue();
+				String		  sId	    = aIds.get(nNode);
+				List<Integer> rChildren = aChildren.get(sId);
+
+				aVisible[nNode]	     = true;
+				aHiddenCounts[nNode] = aSizes[nNode] - 1;
+
+				if (rChildren != null && !aCollapsed.contains(sId))
+				{
+					aNextLevel.addAll(rChildren);
+				}
+			}
+
+			if (nMaxVisibleNodes > 0 &&
+				nVisible + aNextLevel.size() > nMaxVisibleNodes)
+			{
+				aNextLevel.clear();
+			}
+
+			for (Integer rNode : aNextLevel)
+			{
+				String sParentId = aParentIds.get(rNode.intValue());
+
+				aHiddenCounts[indexOf(sParentId)] = 0;
+			}
+
+			aLevel = aNextLevel;
+		}
+
+		aVisibleNodes = new int[nVisible];
+
+		int nNext = 0;
+
+		for (int i = 0; i < nCount; i++)
+		{
+			if (aVisible[i])
+			{
+				aVisibleNodes[nNext++] = i;
+			}
+		}
+	}
+}
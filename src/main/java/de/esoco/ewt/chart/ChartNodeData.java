@@ -0,0 +1,72 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * Interface for hierarchical chart data that consists of nodes with optional
+ * parent nodes, like the data of network or organization charts.
+ *
+ * @author eso
+ */
+public interface ChartNodeData
+{
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns the number of nodes.
+	 *
+	 * @return The node count
+	 */
+	public int getNodeCount();
+
+	/***************************************
+	 * Returns the unique ID of a node.
+	 *
+	 * @param  nNode The node index
+	 *
+	 * @return The node ID
+	 */
+	public String getNodeId(int nNode);
+
+	/***************************************
+	 * Returns the style of a node. A style that starts with 'image:' refers to
+	 * an image that is displayed for the node.
+	 *
+	 * @param  nNode The node index
+	 *
+	 * @return The node style
+	 */
+	public String getNodeStyle(int nNode);
+
+	/***************************************
+	 * Returns the display text of a node.
+	 *
+	 * @param  nNode The node index
+	 *
+	 * @return The node text
+	 */
+	public String getNodeText(int nNode);
+
+	/***************************************
+	 * Returns the ID of the parent of a node.
+	 *
+	 * @param  nNode The node index
+	 *
+	 * @return The parent node ID or NULL for a root node
+	 */
+	public String getParentId(int nNode);
+}
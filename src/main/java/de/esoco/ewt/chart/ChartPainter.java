@@ -0,0 +1,873 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.ewt.chart.ChartSurface.TextAlign;
+import de.esoco.ewt.chart.ChartSurface.TextBaseline;
+
+import com.googlecode.gwt.charts.client.options.LegendPosition;
+
+
+/********************************************************************
+ * Paints numeric chart data onto a {@link ChartSurface}. This contains the
+ * chart layout that is shared by the canvas rendering in the browser (see
+ * {@link CanvasChartRenderer}) and the headless rendering on the server so
+ * that both create the same charts. All elements of a series are drawn as a
+ * single path with one stroke or fill operation so that even very dense data
+ * is painted quickly.
+ *
+ * <p>The painter draws a value axis with grid lines, a selection of row
+ * labels on the category axis, and the legend at the configured position.
+ * Undefined values interrupt lines and are omitted from columns and bars.
+ * Pies are drawn from the values in the first data column with a slice for
+ * each row.</p>
+ *
+ * @author eso
+ */
+public class ChartPainter
+{
+	//~ Enums ------------------------------------------------------------------
+
+	/********************************************************************
+	 * Enumeration of the shapes that can be painted.
+	 */
+	public enum Shape { LINE, AREA, COLUMN, BAR, PIE }
+
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The default colors of the data series. */
+	public static final String[] DEFAULT_COLORS =
+		new String[]
+		{
+			"#3366cc", "#dc3912", "#ff9900", "#109618", "#990099", "#0099c6",
+			"#dd4477", "#66aa00", "#b82e2e", "#316395"
+		};
+
+	private static final String AXIS_COLOR  = "#333333";
+	private static final String GRID_COLOR  = "#e0e0e0";
+	private static final String TEXT_COLOR  = "#222222";
+	private static final String SLICE_COLOR = "#ffffff";
+	private static final int    GRID_LINES  = 5;
+	private static final int    MARGIN	    = 10;
+	private static final int    AXIS_SIZE   = 50;
+	private static final int    LABEL_SIZE  = 20;
+	private static final int    LEGEND_SIZE = 120;
+
+	//~ Instance fields --------------------------------------------------------
+
+	private Shape		   eShape		    = Shape.LINE;
+	private LegendPosition eLegendPosition  = LegendPosition.RIGHT;
+	private String		   sBackgroundColor = null;
+	private boolean		   bStacked		    = false;
+	private String[]	   rColors		    = DEFAULT_COLORS;
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Formats a value for the display on the value axis.
+	 *
+	 * @param  fValue The value
+	 *
+	 * @return The formatted value
+	 */
+	static String formatValue(double fValue)
+	{
+		double fRounded =
+			Math.abs(fValue) >= 100 ? Math.round(fValue)
+									: Math.round(fValue * 100) / 100.0;
+
+		String sValue = String.valueOf(fRounded);
+
+		return sValue.endsWith(".0")
+			   ? sValue.substring(0, sValue.length() - 2) : sValue;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns the background color.
+	 *
+	 * @return The HTML background color or NULL for transparent
+	 */
+	public final String getBackgroundColor()
+	{
+		return sBackgroundColor;
+	}
+
+	/***************************************
+	 * Returns the colors of the data series.
+	 *
+	 * @return The HTML series colors
+	 */
+	public final String[] getColors()
+	{
+		return rColors.clone();
+	}
+
+	/***************************************
+	 * Returns the legend position.
+	 *
+	 * @return The legend position
+	 */
+	public final LegendPosition getLegendPosition()
+	{
+		return eLegendPosition;
+	}
+
+	/***************************************
+	 * Returns the painted shape.
+	 *
+	 * @return The shape
+	 */
+	public final Shape getShape()
+	{
+		return eShape;
+	}
+
+	/***************************************
+	 * Checks whether the series are painted stacked.
+	 *
+	 * @return The stacked flag
+	 */
+	public final boolean isStacked()
+	{
+		return bStacked;
+	}
+
+	/***************************************
+	 * Paints chart data onto a surface.
+	 *
+	 * @param rSurface The surface to paint on
+	 * @param rData    The data to paint
+	 * @param nWidth   The width of the surface in pixels
+	 * @param nHeight  The height of the surface in pixels
+	 */
+	public void paint(ChartSurface rSurface,
+					  ChartData    rData,
+					  int		   nWidth,
+					  int		   nHeight)
+	{
+		if (sBackgroundColor != null)
+		{
+			rSurface.fillRect(0, 0, nWidth, nHeight, sBackgroundColor);
+		}
+
+		int nLeft   = eShape == Shape.PIE ? MARGIN : AXIS_SIZE;
+		int nTop    = MARGIN;
+		int nRight  = nWidth - MARGIN;
+		int nBottom = eShape == Shape.PIE ? nHeight - MARGIN
+										  : nHeight - LABEL_SIZE;
+
+		if (eLegendPosition == LegendPosition.RIGHT)
+		{
+			nRight -= LEGEND_SIZE;
+		}
+		else if (eLegendPosition == LegendPosition.TOP)
+		{
+			nTop += LABEL_SIZE;
+		}
+		else if (eLegendPosition == LegendPosition.BOTTOM)
+		{
+			nBottom -= LABEL_SIZE;
+		}
+
+		if (nRight > nLeft && nBottom > nTop && rData.getRowCount() > 0)
+		{
+			if (eShape == Shape.PIE)
+			{
+				drawPie(rSurface, rData, nLeft, nTop, nRight, nBottom);
+			}
+			else
+			{
+				double[] aRange = getValueRange(rData);
+
+				drawGrid(rSurface, aRange, nLeft, nTop, nRight, nBottom);
+				drawSeries(rSurface,
+						   rData,
+						   aRange,
+						   nLeft,
+						   nTop,
+						   nRight,
+						   nBottom);
+				drawRowLabels(rSurface, rData, nLeft, nTop, nRight, nBottom);
+			}
+
+			drawLegend(rSurface, rData, nLeft, nTop, nRight, nBottom);
+		}
+	}
+
+	/***************************************
+	 * Sets the background color.
+	 *
+	 * @param sColor The HTML background color or NULL for transparent
+	 */
+	public void setBackgroundColor(String sColor)
+	{
+		sBackgroundColor = sColor;
+	}
+
+	/***************************************
+	 * Sets the colors of the data series. If there are more series than
+	 * colors the colors will be repeated.
+	 *
+	 * @param rColors The HTML series colors or NULL for the default colors
+	 */
+	public void setColors(String... rColors)
+	{
+		this.rColors =
+			rColors != null && rColors.length > 0 ? rColors.clone()
+												  : DEFAULT_COLORS;
+	}
+
+	/***************************************
+	 * Sets the legend position. {@link LegendPosition#IN} draws the legend
+	 * inside the top left corner of the plot area.
+	 *
+	 * @param ePosition The legend position or NULL for the default position
+	 *                  on the right side
+	 */
+	public void setLegendPosition(LegendPosition ePosition)
+	{
+		eLegendPosition = ePosition != null ? ePosition : LegendPosition.RIGHT;
+	}
+
+	/***************************************
+	 * Sets the shape to paint.
+	 *
+	 * @param eShape The shape
+	 */
+	public void setShape(Shape eShape)
+	{
+		this.eShape = eShape;
+	}
+
+	/***************************************
+	 * Sets whether the series are drawn stacked. This has no effect on
+	 * lines and pies.
+	 *
+	 * @param bStacked The stacked flag
+	 */
+	public void setStacked(boolean bStacked)
+	{
+		this.bStacked = bStacked;
+	}
+
+	/***************************************
+	 * Draws the columns of all series, either as vertical columns or as
+	 * horizontal bars.
+	 *
+	 * @param rSurface The surface to draw on
+	 * @param rData    The chart data
+	 * @param aRange   The value range
+	 * @param nLeft    The left edge of the plot area
+	 * @param nTop     The top edge of the plot area
+	 * @param nRight   The right edge of the plot area
+	 * @param nBottom  The bottom edge of the plot area
+	 */
+	private void drawColumns(ChartSurface rSurface,
+							 ChartData    rData,
+							 double[]	  aRange,
+							 int		  nLeft,
+							 int		  nTop,
+							 int		  nRight,
+							 int		  nBottom)
+	{
+		boolean  bBars   = (eShape == Shape.BAR);
+		int		 nRows   = rData.getRowCount();
+		int		 nCols   = rData.getColumnCount();
+		double   fLength = bBars ? nBottom - nTop : nRight - nLeft;
+		double   fBand   = fLength / nRows;
+		double   fWidth  = bStacked ? fBand * 0.8 : fBand * 0.8 / nCols;
+		double[] aBase   = bStacked ? new double[nRows] : null;
+
+		for (int nCol = 0; nCol < nCols; nCol++)
+		{
+			rSurface.beginPath();
+
+			for (int nRow = 0; nRow < nRows; nRow++)
+			{
+				if (!rData.isNull(nRow, nCol))
+				{
+					double fValue = rData.getValue(nRow, nCol);
+					double fBase  = 0;
+					double fPos   = fBand * (nRow + 0.1);
+
+					if (bStacked)
+					{
+						fBase = aBase[nRow];
+						aBase[nRow] += fValue;
+						fValue = aBase[nRow];
+					}
+					else
+					{
+						fPos += fWidth * nCol;
+					}
+
+					if (bBars)
+					{
+						double fX1 =
+							scale(fBase, aRange, nLeft, nRight, false);
+						double fX2 =
+							scale(fValue, aRange, nLeft, nRight, false);
+
+						rSurface.rect(Math.min(fX1, fX2),
+									  nTop + fPos,
+									  Math.abs(fX2 - fX1),
+									  fWidth);
+					}
+					else
+					{
+						double fY1 =
+							scale(fBase, aRange, nTop, nBottom, true);
+						double fY2 =
+							scale(fValue, aRange, nTop, nBottom, true);
+
+						rSurface.rect(nLeft + fPos,
+									  Math.min(fY1, fY2),
+									  fWidth,
+									  Math.abs(fY2 - fY1));
+					}
+				}
+			}
+
+			rSurface.fill(getSeriesColor(nCol), 1);
+		}
+	}
+
+	/***************************************
+	 * Draws the value grid and the value axis labels.
+	 *
+	 * @param rSurface The surface to draw on
+	 * @param aRange   The value range
+	 * @param nLeft    The left edge of the plot area
+	 * @param nTop     The top edge of the plot area
+	 * @param nRight   The right edge of the plot area
+	 * @param nBottom  The bottom edge of the plot area
+	 */
+	private void drawGrid(ChartSurface rSurface,
+						  double[]	   aRange,
+						  int		   nLeft,
+						  int		   nTop,
+						  int		   nRight,
+						  int		   nBottom)
+	{
+		boolean bBars = (eShape == Shape.BAR);
+		double  fStep = (aRange[1] - aRange[0]) / GRID_LINES;
+
+		rSurface.beginPath();
+
+		for (int i = 0; i <= GRID_LINES; i++)
+		{
+			double fValue = aRange[0] + i * fStep;
+
+			if (bBars)
+			{
+				double fX = scale(fValue, aRange, nLeft, nRight, false);
+
+				rSurface.moveTo(fX, nTop);
+				rSurface.lineTo(fX, nBottom);
+			}
+			else
+			{
+				double fY = scale(fValue, aRange, nTop, nBottom, true);
+
+				rSurface.moveTo(nLeft, fY);
+				rSurface.lineTo(nRight, fY);
+			}
+		}
+
+		rSurface.stroke(GRID_COLOR, 1);
+
+		rSurface.beginPath();
+		rSurface.moveTo(nLeft, nTop);
+		rSurface.lineTo(nLeft, nBottom);
+		rSurface.lineTo(nRight, nBottom);
+		rSurface.stroke(AXIS_COLOR, 1);
+
+		for (int i = 0; i <= GRID_LINES; i++)
+		{
+			double fValue = aRange[0] + i * fStep;
+			String sValue = formatValue(fValue);
+
+			if (bBars)
+			{
+				rSurface.fillText(sValue,
+								  scale(fValue, aRange, nLeft, nRight, false),
+								  nBottom + 4,
+								  TextAlign.CENTER,
+								  TextBaseline.TOP,
+								  TEXT_COLOR);
+			}
+			else
+			{
+				rSurface.fillText(sValue,
+								  nLeft - 4,
+								  scale(fValue, aRange, nTop, nBottom, true),
+								  TextAlign.RIGHT,
+								  TextBaseline.MIDDLE,
+								  TEXT_COLOR);
+			}
+		}
+	}
+
+	/***************************************
+	 * Draws the legend. For pies the legend contains the row labels,
+	 * otherwise the column labels.
+	 *
+	 * @param rSurface The surface to draw on
+	 * @param rData    The chart data
+	 * @param nLeft    The left edge of the plot area
+	 * @param nTop     The top edge of the plot area
+	 * @param nRight   The right edge of the plot area
+	 * @param nBottom  The bottom edge of the plot area
+	 */
+	private void drawLegend(ChartSurface rSurface,
+							ChartData    rData,
+							int			 nLeft,
+							int			 nTop,
+							int			 nRight,
+							int			 nBottom)
+	{
+		if (eLegendPosition == LegendPosition.NONE)
+		{
+			return;
+		}
+
+		boolean bPie = (eShape == Shape.PIE);
+		boolean bVertical =
+			eLegendPosition == LegendPosition.RIGHT ||
+			eLegendPosition == LegendPosition.IN;
+
+		int    nCount = bPie ? rData.getRowCount() : rData.getColumnCount();
+		double fX     = nLeft + 4;
+		double fY     = nTop + 4;
+
+		if (eLegendPosition == LegendPosition.RIGHT)
+		{
+			fX = nRight + MARGIN;
+		}
+		else if (eLegendPosition == LegendPosition.TOP)
+		{
+			fY = nTop - LABEL_SIZE;
+		}
+		else if (eLegendPosition == LegendPosition.BOTTOM)
+		{
+			fY = nBottom + (bPie ? 4 : LABEL_SIZE + 4);
+		}
+
+		for (int i = 0; i < nCount; i++)
+		{
+			String sLabel =
+				bPie ? rData.getRowLabel(i) : rData.getColumnLabel(i);
+
+			if (sLabel == null)
+			{
+				sLabel = "";
+			}
+
+			rSurface.fillRect(fX, fY + 1, 10, 10, getSeriesColor(i));
+			rSurface.fillText(sLabel,
+							  fX + 14,
+							  fY,
+							  TextAlign.LEFT,
+							  TextBaseline.TOP,
+							  TEXT_COLOR);
+
+			if (bVertical)
+			{
+				fY += 16;
+			}
+			else
+			{
+				fX += 24 + rSurface.measureText(sLabel);
+			}
+		}
+	}
+
+	/***************************************
+	 * Draws the lines or areas of all series.
+	 *
+	 * @param rSurface The surface to draw on
+	 * @param rData    The chart data
+	 * @param aRange   The value range
+	 * @param nLeft    The left edge of the plot area
+	 * @param nTop     The top edge of the plot area
+	 * @param nRight   The right edge of the plot area
+	 * @param nBottom  The bottom edge of the plot area
+	 */
+	private void drawLines(ChartSurface rSurface,
+						   ChartData    rData,
+						   double[]	    aRange,
+						   int		    nLeft,
+						   int		    nTop,
+						   int		    nRight,
+						   int		    nBottom)
+	{
+		boolean  bArea  = (eShape == Shape.AREA);
+		int		 nRows  = rData.getRowCount();
+		int		 nCols  = rData.getColumnCount();
+		double[] aBase  = new double[nRows];
+		double[] aX     = new double[nRows];
+		double   fWidth = nRight - nLeft;
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			aX[nRow] =
+				nRows > 1 ? nLeft + fWidth * nRow / (nRows - 1)
+						  : nLeft + fWidth / 2;
+		}
+
+		for (int nCol = 0; nCol < nCols; nCol++)
+		{
+			String  sColor = getSeriesColor(nCol);
+			boolean bMove  = true;
+
+			rSurface.beginPath();
+
+			if (bArea)
+			{
+				double[] aTop = new double[nRows];
+
+				for (int nRow = 0; nRow < nRows; nRow++)
+				{
+					double fValue =
+						rData.isNull(nRow, nCol) ? 0
+												 : rData.getValue(nRow, nCol);
+
+					aTop[nRow] = bStacked ? aBase[nRow] + fValue : fValue;
+
+					double fY =
+						scale(aTop[nRow], aRange, nTop, nBottom, true);
+
+					if (nRow == 0)
+					{
+						rSurface.moveTo(aX[nRow], fY);
+					}
+					else
+					{
+						rSurface.lineTo(aX[nRow], fY);
+					}
+				}
+
+				for (int nRow = nRows - 1; nRow >= 0; nRow--)
+				{
+					double fBase = bStacked ? aBase[nRow] : 0;
+
+					rSurface.lineTo(aX[nRow],
+									scale(fBase, aRange, nTop, nBottom, true));
+				}
+
+				rSurface.closePath();
+				rSurface.fill(sColor, 0.3);
+
+				if (bStacked)
+				{
+					aBase = aTop;
+				}
+			}
+			else
+			{
+				for (int nRow = 0; nRow < nRows; nRow++)
+				{
+					if (rData.isNull(nRow, nCol))
+					{
+						bMove = true;
+					}
+					else
+					{
+						double fY =
+							scale(rData.getValue(nRow, nCol),
+								  aRange,
+								  nTop,
+								  nBottom,
+								  true);
+
+						if (bMove)
+						{
+							rSurface.moveTo(aX[nRow], fY);
+							bMove = false;
+						}
+						else
+						{
+							rSurface.lineTo(aX[nRow], fY);
+						}
+					}
+				}
+			}
+
+			rSurface.stroke(sColor, bArea ? 1 : 2);
+		}
+	}
+
+	/***************************************
+	 * Draws a pie with a slice for each row from the values in the first
+	 * data column. Undefined and negative values are omitted.
+	 *
+	 * @param rSurface The surface to draw on
+	 * @param rData    The chart data
+	 * @param nLeft    The left edge of the plot area
+	 * @param nTop     The top edge of the plot area
+	 * @param nRight   The right edge of the plot area
+	 * @param nBottom  The bottom edge of the plot area
+	 */
+	private void drawPie(ChartSurface rSurface,
+						 ChartData    rData,
+						 int		  nLeft,
+						 int		  nTop,
+						 int		  nRight,
+						 int		  nBottom)
+	{
+		int    nRows = rData.getRowCount();
+		double fSum  = 0;
+
+		if (rData.getColumnCount() == 0)
+		{
+			return;
+		}
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			fSum += getSliceValue(rData, nRow);
+		}
+
+		if (fSum > 0)
+		{
+			double fX     = (nLeft + nRight) / 2.0;
+			double fY     = (nTop + nBottom) / 2.0;
+			double fR     = Math.min(nRight - nLeft, nBottom - nTop) / 2.0;
+			double fAngle = -Math.PI / 2;
+
+			for (int nRow = 0; nRow < nRows; nRow++)
+			{
+				double fValue = getSliceValue(rData, nRow);
+
+				if (fValue > 0)
+				{
+					double fEnd = fAngle + 2 * Math.PI * fValue / fSum;
+
+					rSurface.beginPath();
+					rSurface.moveTo(fX, fY);
+					rSurface.arc(fX, fY, fR, fAngle, fEnd);
+					rSurface.closePath();
+					rSurface.fill(getSeriesColor(nRow), 1);
+					rSurface.stroke(SLICE_COLOR, 1);
+
+					fAngle = fEnd;
+				}
+			}
+		}
+	}
+
+	/***************************************
+	 * Draws a selection of the row labels along the category axis so that
+	 * the labels don't overlap.
+	 *
+	 * @param rSurface The surface to draw on
+	 * @param rData    The chart data
+	 * @param nLeft    The left edge of the plot area
+	 * @param nTop     The top edge of the plot area
+	 * @param nRight   The right edge of the plot area
+	 * @param nBottom  The bottom edge of the plot area
+	 */
+	private void drawRowLabels(ChartSurface rSurface,
+							   ChartData    rData,
+							   int			nLeft,
+							   int			nTop,
+							   int			nRight,
+							   int			nBottom)
+	{
+		boolean bBars   = (eShape == Shape.BAR);
+		boolean bPoints = (eShape == Shape.LINE || eShape == Shape.AREA);
+		int     nRows   = rData.getRowCount();
+		double  fLength = bBars ? nBottom - nTop : nRight - nLeft;
+		int     nSpace  = bBars ? LABEL_SIZE : 80;
+		int     nStep   = (int) Math.ceil(nRows * nSpace / fLength);
+
+		for (int nRow = 0; nRow < nRows; nRow += Math.max(nStep, 1))
+		{
+			String sLabel = rData.getRowLabel(nRow);
+			double fPos;
+
+			if (bPoints)
+			{
+				fPos = nRows > 1 ? fLength * nRow / (nRows - 1) : fLength / 2;
+			}
+			else
+			{
+				fPos = fLength * (nRow + 0.5) / nRows;
+			}
+
+			if (sLabel != null)
+			{
+				if (bBars)
+				{
+					rSurface.fillText(sLabel,
+									  nLeft - 4,
+									  nTop + fPos,
+									  TextAlign.RIGHT,
+									  TextBaseline.MIDDLE,
+									  TEXT_COLOR);
+				}
+				else
+				{
+					rSurface.fillText(sLabel,
+									  nLeft + fPos,
+									  nBottom + 4,
+									  TextAlign.CENTER,
+									  TextBaseline.TOP,
+									  TEXT_COLOR);
+				}
+			}
+		}
+	}
+
+	/***************************************
+	 * Draws all data series according to the current shape.
+	 *
+	 * @param rSurface The surface to draw on
+	 * @param rData    The chart data
+	 * @param aRange   The value range
+	 * @param nLeft    The left edge of the plot area
+	 * @param nTop     The top edge of the plot area
+	 * @param nRight   The right edge of the plot area
+	 * @param nBottom  The bottom edge of the plot area
+	 */
+	private void drawSeries(ChartSurface rSurface,
+							ChartData    rData,
+							double[]	 aRange,
+							int			 nLeft,
+							int			 nTop,
+							int			 nRight,
+							int			 nBottom)
+	{
+		if (eShape == Shape.COLUMN || eShape == Shape.BAR)
+		{
+			drawColumns(rSurface, rData, aRange, nLeft, nTop, nRight, nBottom);
+		}
+		else
+		{
+			drawLines(rSurface, rData, aRange, nLeft, nTop, nRight, nBottom);
+		}
+	}
+
+	/***************************************
+	 * Returns the color of a certain series.
+	 *
+	 * @param  nSeries The series index
+	 *
+	 * @return The HTML color
+	 */
+	private String getSeriesColor(int nSeries)
+	{
+		return rColors[nSeries % rColors.length];
+	}
+
+	/***************************************
+	 * Returns the value of a pie slice.
+	 *
+	 * @param  rData The chart data
+	 * @param  nRow  The row of the slice
+	 *
+	 * @return The slice value or zero if undefined or negative
+	 */
+	private double getSliceValue(ChartData rData, int nRow)
+	{
+		return rData.isNull(nRow, 0) ? 0
+									 : Math.max(rData.getValue(nRow, 0), 0);
+	}
+
+	/***************************************
+	 * Determines the range of the displayed values. For stacked shapes this
+	 * is the range of the row sums. The range of all shapes except lines
+	 * always includes zero.
+	 *
+	 * @param  rData The chart data
+	 *
+	 * @return A two-element array containing the minimum and maximum value
+	 */
+	private double[] getValueRange(ChartData rData)
+	{
+		boolean bSum  = bStacked && eShape != Shape.LINE;
+		int     nRows = rData.getRowCount();
+		int     nCols = rData.getColumnCount();
+		double  fMin  = eShape == Shape.LINE ? Double.MAX_VALUE : 0;
+		double  fMax  = eShape == Shape.LINE ? -Double.MAX_VALUE : 0;
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			double fSum = 0;
+
+			for (int nCol = 0; nCol < nCols; nCol++)
+			{
+				if (!rData.isNull(nRow, nCol))
+				{
+					double fValue = rData.getValue(nRow, nCol);
+
+					if (bSum)
+					{
+						fSum  += fValue;
+						fValue = fSum;
+					}
+
+					fMin = Math.min(fMin, fValue);
+					fMax = Math.max(fMax, fValue);
+				}
+			}
+		}
+
+		if (fMin > fMax)
+		{
+			fMin = 0;
+			fMax = 1;
+		}
+		else if (fMin == fMax)
+		{
+			fMin -= 1;
+			fMax += 1;
+		}
+
+		return new double[] { fMin, fMax };
+	}
+
+	/***************************************
+	 * Scales a value into a pixel coordinate.
+	 *
+	 * @param  fValue   The value
+	 * @param  aRange   The value range
+	 * @param  nStart   The start coordinate
+	 * @param  nEnd     The end coordinate
+	 * @param  bInverse TRUE if the coordinates increase with decreasing values
+	 *                  (as for vertical axes)
+	 *
+	 * @return The pixel coordinate
+	 */
+	private double scale(double   fValue,
+						 double[] aRange,
+						 int	  nStart,
+						 int	  nEnd,
+						 boolean  bInverse)
+	{
+		double fRelative = (fValue - aRange[0]) / (aRange[1] - aRange[0]);
+
+		if (bInverse)
+		{
+			fRelative = 1 - fRelative;
+		}
+
+		return nStart + fRelative * (nEnd - nStart);
+	}
+}
@@ -0,0 +1,310 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.ewt.event.EventType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.gwt.user.client.Timer;
+
+
+/********************************************************************
+ * Controls the dispatching of the pointer events of a chart. Charts emit an
+ * event each time the pointer enters or leaves a data element which can
+ * produce large numbers of events, e.g. when moving the mouse over a chart
+ * with many columns. This class reduces these events in several ways:
+ *
+ * <ul>
+ *   <li>Repeated events for the same element are ignored, including leaving
+ *     and re-entering an element before the events have been dispatched.</li>
+ *   <li>With a delay the events are collected and only dispatched when the
+ *     delay has elapsed, either after the first event ({@link
+ *     Mode#THROTTLE}) or after the last event ({@link Mode#DEBOUNCE}). Only
+ *     the change between the previously dispatched and the current element
+ *     will then be dispatched.</li>
+ *   <li>If batching is enabled all elements that have been entered during a
+ *     delay are dispatched together as a list in a single event.</li>
+ * </ul>
+ *
+ * <p>Without batching a {@link EventType#POINTER_EXITED} event will be
+ * dispatched for the previously entered element (if any) followed by a
+ * {@link EventType#POINTER_ENTERED} event for the currently entered element
+ * (if any). The event element is a {@link ChartElement}. With batching a
+ * single event is dispatched with the element being a list of the chart
+ * elements that have been entered in the order of their occurrence. The event
+ * type is {@link EventType#POINTER_ENTERED} if the pointer is over an element
+ * (which will be the last in the list) and {@link EventType#POINTER_EXITED}
+ * otherwise.</p>
+ *
+ * @author eso
+ */
+public class ChartPointerEvents
+{
+	//~ Enums ------------------------------------------------------------------
+
+	/********************************************************************
+	 * Enumeration of the modes for delaying events.
+	 */
+	public enum Mode { THROTTLE, DEBOUNCE }
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final PointerEventListener rListener;
+
+	private Mode    eMode     = Mode.THROTTLE;
+	private int     nDelay    = 0;
+	private boolean bBatching = false;
+
+	private ChartElement	   rDispatched = null;
+	private ChartElement	   rCurrent    = null;
+	private List<ChartElement> aEntered    = new ArrayList<>();
+	private Timer			   aTimer	   = null;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rListener The listener to dispatch the events to
+	 */
+	public ChartPointerEvents(PointerEventListener rListener)
+	{
+		this.rListener = rListener;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Discards all events that have not been dispatched yet and resets the
+	 * dispatched state, e.g. after the chart has been redrawn.
+	 */
+	public void cancel()
+	{
+		if (aTimer != null)
+		{
+			aTimer.cancel();
+		}
+
+		aEntered.clear();
+		rDispatched = null;
+		rCurrent    = null;
+	}
+
+	/***************************************
+	 * Processes the event of the pointer entering a chart element.
+	 *
+	 * @param rElement The chart element
+	 */
+	public void elementEntered(ChartElement rElement)
+	{
+		int nLast = aEntered.size() - 1;
+
+		rCurrent = rElement;
+
+		if (nLast < 0 || !aEntered.get(nLast).equals(rElement))
+		{
+			aEntered.add(rElement);
+		}
+
+		eventAdded();
+	}
+
+	/***************************************
+	 * Processes the event of the pointer leaving a chart element.
+	 *
+	 * @param rElement The chart element
+	 */
+	public void elementExited(ChartElement rElement)
+	{
+		if (rElement.equals(rCurrent))
+		{
+			rCurrent = null;
+		}
+
+		eventAdded();
+	}
+
+	/***************************************
+	 * Dispatches the collected events immediately.
+	 */
+	public void flush()
+	{
+		if (aTimer != null)
+		{
+			aTimer.cancel();
+		}
+
+		boolean bUnchanged =
+			rCurrent != null ? rCurrent.equals(rDispatched)
+							 : rDispatched == null;
+
+		if (bUnchanged &&
+			(aEntered.isEmpty() ||
+			 (aEntered.size() == 1 && aEntered.get(0).equals(rDispatched))))
+		{
+			aEntered.clear();
+
+			return;
+		}
+
+		if (bBatching)
+		{
+			List<ChartElement> rElements = new ArrayList<>(aEntered);
+
+			if (rElements.isEmpty())
+			{
+				rElements.add(rDispatched);
+			}
+
+			rListener.pointerEvent(rCurrent != null
+								   ? EventType.POINTER_ENTERED
+								   : EventType.POINTER_EXITED,
+								   Collections.unmodifiableList(rElements));
+		}
+		else if (!bUnchanged)
+		{
+			if (rDispatched != null)
+			{
+				rListener.pointerEvent(EventType.POINTER_EXITED, rDispatched);
+			}
+
+			if (rCurrent != null)
+			{
+				rListener.pointerEvent(EventType.POINTER_ENTERED, rCurrent);
+			}
+		}
+
+		aEntered.clear();
+		rDispatched = rCurrent;
+	}
+
+	/***************************************
+	 * Returns the dispatch delay.
+	 *
+	 * @return The delay in milliseconds
+	 */
+	public final int getDelay()
+	{
+		return nDelay;
+	}
+
+	/***************************************
+	 * Returns the delay mode.
+	 *
+	 * @return The delay mode
+	 */
+	public final Mode getMode()
+	{
+		return eMode;
+	}
+
+	/***************************************
+	 * Returns TRUE if events are dispatched in batches.
+	 *
+	 * @return The batching flag
+	 */
+	public final boolean isBatching()
+	{
+		return bBatching;
+	}
+
+	/***************************************
+	 * Enables or disables the dispatching of events in batches. This only
+	 * has an effect if a delay is set.
+	 *
+	 * @param bBatching TRUE to enable batching
+	 */
+	public void setBatching(boolean bBatching)
+	{
+		this.bBatching = bBatching;
+	}
+
+	/***************************************
+	 * Sets the delay for the dispatching of events.
+	 *
+	 * @param eMode  The delay mode
+	 * @param nDelay The delay in milliseconds or zero to dispatch events
+	 *               immediately
+	 */
+	public void setDelay(Mode eMode, int nDelay)
+	{
+		this.eMode  = eMode;
+		this.nDelay = nDelay;
+
+		if (nDelay <= 0)
+		{
+			flush();
+		}
+	}
+
+	/***************************************
+	 * Dispatches an added event immediately or schedules the dispatching
+	 * according to the delay mode.
+	 */
+	private void eventAdded()
+	{
+		if (nDelay <= 0)
+		{
+			flush();
+		}
+		else
+		{
+			if (aTimer == null)
+			{
+				aTimer =
+					new Timer()
+					{
+						@Override
+						public void run()
+						{
+							flush();
+						}
+					};
+			}
+
+			if (eMode == Mode.DEBOUNCE || !aTimer.isRunning())
+			{
+				aTimer.schedule(nDelay);
+			}
+		}
+	}
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The interface for the receivers of dispatched pointer events.
+	 *
+	 * @author eso
+	 */
+	public static interface PointerEventListener
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Will be invoked to dispatch a pointer event.
+		 *
+		 * @param eEventType The event type
+		 * @param rElement   The event element, either a {@link ChartElement}
+		 *                   or a list of chart elements if batching is
+		 *                   enabled
+		 */
+		public void pointerEvent(EventType eEventType, Object rElement);
+	}
+}
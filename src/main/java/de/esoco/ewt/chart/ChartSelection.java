@@ -0,0 +1,229 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+
+import com.googlecode.gwt.charts.client.Selection;
+
+
+/********************************************************************
+ * The payload of chart selection events. A selection consists of one or more
+ * selected chart elements (for charts that support multi-selection) which
+ * can be selected rows, columns, or cells. Each element has a row key that
+ * identifies the corresponding row of the original chart data (the row label
+ * of a data set or the ID of a network node) so that event handlers can
+ * process the selection without querying the chart or the data source.
+ *
+ * @author eso
+ */
+public class ChartSelection
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final List<ChartElement> rElements;
+	private final String[]			 rRowKeys;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rElements The selected elements
+	 * @param rRowKeys  The row keys of the selected elements (NULL for
+	 *                  elements without a row)
+	 */
+	public ChartSelection(List<ChartElement> rElements, String[] rRowKeys)
+	{
+		if (rElements.size() != rRowKeys.length)
+		{
+			throw new IllegalArgumentException("Row key count mismatch");
+		}
+
+		this.rElements = Collections.unmodifiableList(rElements);
+		this.rRowKeys  = rRowKeys;
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Converts the selection of a chart widget into a list of chart elements.
+	 * Undefined rows and columns will be set to -1.
+	 *
+	 * @param  rSelection The selection of the chart widget
+	 *
+	 * @return The list of selected chart elements
+	 */
+	public static List<ChartElement> readElements(
+		JsArray<Selection> rSelection)
+	{
+		int				   nCount    =
+			rSelection != null ? rSelection.length() : 0;
+		List<ChartElement> aElements = new ArrayList<>(nCount);
+
+		for (int i = 0; i < nCount; i++)
+		{
+			Selection rSelected = rSelection.get(i);
+
+			aElements.add(new ChartElement(getIndex(rSelected, "row"),
+										   getIndex(rSelected, "column")));
+		}
+
+		return aElements;
+	}
+
+	/***************************************
+	 * Returns an index property of a selection object.
+	 *
+	 * @param  rSelection The selection object
+	 * @param  sProperty  The property name
+	 *
+	 * @return The index or -1 if the property is undefined or NULL
+	 */
+	private static native int getIndex(JavaScriptObject rSelection,
+									   String			sProperty) /*-{
+		var nIndex = rSelection[sProperty];
+
+		return nIndex == null ? -1 : nIndex;
+	}-*/;
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns the distinct columns of the selected elements.
+	 *
+	 * @return The selected columns in the order of selection
+	 */
+	public int[] getColumns()
+	{
+		return distinctIndices(false);
+	}
+
+	/***************************************
+	 * Returns the selected elements.
+	 *
+	 * @return An immutable list of the selected elements
+	 */
+	public final List<ChartElement> getElements()
+	{
+		return rElements;
+	}
+
+	/***************************************
+	 * Returns the row key of a certain selected element.
+	 *
+	 * @param  nElement The index of the element in the list returned by
+	 *                  {@link #getElements()}
+	 *
+	 * @return The row key or NULL if the element has no row
+	 */
+	public String getRowKey(int nElement)
+	{
+		return rRowKeys[nElement];
+	}
+
+	/***************************************
+	 * Returns the distinct row keys of the selected elements.
+	 *
+	 * @return The row keys in the order of selection
+	 */
+	public List<String> getRowKeys()
+	{
+		Set<String> aKeys = new LinkedHashSet<>();
+
+		for (String sKey : rRowKeys)
+		{
+			if (sKey != null)
+			{
+				aKeys.add(sKey);
+			}
+		}
+
+		return new ArrayList<>(aKeys);
+	}
+
+	/***************************************
+	 * Returns the distinct rows of the selected elements.
+	 *
+	 * @return The selected rows in the order of selection
+	 */
+	public int[] getRows()
+	{
+		return distinctIndices(true);
+	}
+
+	/***************************************
+	 * Returns TRUE if nothing is selected.
+	 *
+	 * @return TRUE for an empty selection
+	 */
+	public boolean isEmpty()
+	{
+		return rElements.isEmpty();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return "ChartSelection" + rElements;
+	}
+
+	/***************************************
+	 * Collects the distinct row or column indices of the selected elements.
+	 *
+	 * @param  bRows TRUE for rows, FALSE for columns
+	 *
+	 * @return The distinct indices
+	 */
+	private int[] distinctIndices(boolean bRows)
+	{
+		int[] aIndices = new int[rElements.size()];
+		int   nCount   = 0;
+
+		for (ChartElement rElement : rElements)
+		{
+			int     nIndex = bRows ? rElement.getRow() : rElement.getColumn();
+			boolean bFound = (nIndex < 0);
+
+			for (int i = 0; i < nCount && !bFound; i++)
+			{
+				bFound = (aIndices[i] == nIndex);
+			}
+
+			if (!bFound)
+			{
+				aIndices[nCount++] = nIndex;
+			}
+		}
+
+		int[] aResult = new int[nCount];
+
+		System.arraycopy(aIndices, 0, aResult, 0, nCount);
+
+		return aResult;
+	}
+}
@@ -0,0 +1,164 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * The interface of drawing surfaces that charts can be painted onto by a
+ * {@link ChartPainter}. It contains the subset of the HTML5 canvas drawing
+ * operations that is needed to paint charts so that it can be implemented on
+ * top of a browser canvas as well as on the server, e.g. to create SVG or
+ * bitmap images. Coordinates are in pixels with the origin in the top left
+ * corner and angles are in radians, increasing in clockwise direction. Text
+ * is always drawn with the font size {@link #FONT_SIZE} in a sans-serif font.
+ *
+ * <p>Paths are built by invoking {@link #beginPath()} followed by path
+ * operations and will be drawn by the next invocation of {@link
+ * #fill(String, double)} or {@link #stroke(String, double)}.</p>
+ *
+ * @author eso
+ */
+public interface ChartSurface
+{
+	//~ Enums ------------------------------------------------------------------
+
+	/********************************************************************
+	 * The horizontal alignment of text relative to the drawing position.
+	 */
+	public enum TextAlign { LEFT, CENTER, RIGHT }
+
+	/********************************************************************
+	 * The vertical alignment of text relative to the drawing position.
+	 */
+	public enum TextBaseline { TOP, MIDDLE }
+
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The font size of chart text in pixels. */
+	public static final int FONT_SIZE = 12;
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Adds a circular arc to the current path. If the path is not empty a
+	 * straight line will be added from the current point to the start of the
+	 * arc.
+	 *
+	 * @param fX     The X coordinate of the center
+	 * @param fY     The Y coordinate of the center
+	 * @param fR     The radius
+	 * @param fStart The start angle
+	 * @param fEnd   The end angle
+	 */
+	public void arc(double fX,
+					double fY,
+					double fR,
+					double fStart,
+					double fEnd);
+
+	/***************************************
+	 * Starts a new path.
+	 */
+	public void beginPath();
+
+	/***************************************
+	 * Closes the current sub-path with a straight line to its start.
+	 */
+	public void closePath();
+
+	/***************************************
+	 * Fills the current path.
+	 *
+	 * @param sColor The HTML fill color
+	 * @param fAlpha The opacity from 0 (transparent) to 1 (opaque)
+	 */
+	public void fill(String sColor, double fAlpha);
+
+	/***************************************
+	 * Fills a rectangle independent from the current path.
+	 *
+	 * @param fX      The left edge
+	 * @param fY      The top edge
+	 * @param fWidth  The width
+	 * @param fHeight The height
+	 * @param sColor  The HTML fill color
+	 */
+	public void fillRect(double fX,
+						 double fY,
+						 double fWidth,
+						 double fHeight,
+						 String sColor);
+
+	/***************************************
+	 * Draws a text.
+	 *
+	 * @param sText     The text
+	 * @param fX        The X coordinate
+	 * @param fY        The Y coordinate
+	 * @param eAlign    The horizontal alignment relative to the X coordinate
+	 * @param eBaseline The vertical alignment relative to the Y coordinate
+	 * @param sColor    The HTML text color
+	 */
+	public void fillText(String		  sText,
+						 double		  fX,
+						 double		  fY,
+						 TextAlign    eAlign,
+						 TextBaseline eBaseline,
+						 String		  sColor);
+
+	/***************************************
+	 * Adds a straight line from the current point to the current path.
+	 *
+	 * @param fX The X coordinate of the end point
+	 * @param fY The Y coordinate of the end point
+	 */
+	public void lineTo(double fX, double fY);
+
+	/***************************************
+	 * Returns the width of a text if it is drawn onto this surface.
+	 *
+	 * @param  sText The text
+	 *
+	 * @return The text width in pixels
+	 */
+	public double measureText(String sText);
+
+	/***************************************
+	 * Starts a new sub-path at a certain point.
+	 *
+	 * @param fX The X coordinate
+	 * @param fY The Y coordinate
+	 */
+	public void moveTo(double fX, double fY);
+
+	/***************************************
+	 * Adds a closed rectangle to the current path.
+	 *
+	 * @param fX      The left edge
+	 * @param fY      The top edge
+	 * @param fWidth  The width
+	 * @param fHeight The height
+	 */
+	public void rect(double fX, double fY, double fWidth, double fHeight);
+
+	/***************************************
+	 * Strokes the current path.
+	 *
+	 * @param sColor     The HTML line color
+	 * @param fLineWidth The line width in pixels
+	 */
+	public void stroke(String sColor, double fLineWidth);
+}
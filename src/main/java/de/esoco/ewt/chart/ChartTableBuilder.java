@@ -0,0 +1,85 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import com.googlecode.gwt.charts.client.ColumnType;
+
+
+/********************************************************************
+ * Interface for the target of a chart data conversion. This decouples the
+ * conversion of chart data in {@link ChartTableConverter} from the actual
+ * table implementation so that the conversion can be performed on different
+ * targets (e.g. directly on a chart API data table, on a native array that is
+ * converted in a single step, or on a plain Java table for benchmarking).
+ *
+ * @author eso
+ */
+public interface ChartTableBuilder
+{
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Adds a column to the table.
+	 *
+	 * @param eType  The column datatype
+	 * @param sLabel The column label or NULL for none
+	 */
+	public void addColumn(ColumnType eType, String sLabel);
+
+	/***************************************
+	 * Adds a number of empty rows to the end of the table.
+	 *
+	 * @param nCount The number of rows to add
+	 */
+	public void addRows(int nCount);
+
+	/***************************************
+	 * Sets the formatted (displayed) value of a cell.
+	 *
+	 * @param nRow       The row index
+	 * @param nCol       The column index
+	 * @param sFormatted The formatted value
+	 */
+	public void setFormattedValue(int nRow, int nCol, String sFormatted);
+
+	/***************************************
+	 * Sets a property of a table row.
+	 *
+	 * @param nRow   The row index
+	 * @param sName  The property name
+	 * @param sValue The property value
+	 */
+	public void setRowProperty(int nRow, String sName, String sValue);
+
+	/***************************************
+	 * Sets a numeric cell value.
+	 *
+	 * @param nRow   The row index
+	 * @param nCol   The column index
+	 * @param fValue The value
+	 */
+	public void setValue(int nRow, int nCol, double fValue);
+
+	/***************************************
+	 * Sets a string cell value.
+	 *
+	 * @param nRow   The row index
+	 * @param nCol   The column index
+	 * @param sValue The value
+	 */
+	public void setValue(int nRow, int nCol, String sValue);
+}
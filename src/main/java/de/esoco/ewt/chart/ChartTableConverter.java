@@ -0,0 +1,255 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.function.Function;
+
+import com.googlecode.gwt.charts.client.ColumnType;
+
+
+/********************************************************************
+ * Contains the algorithms that convert chart data into the tabular format of
+ * the chart API. The conversion is performed on an instance of {@link
+ * ChartTableBuilder} and does not depend on browser-specific classes so that
+ * it can also be executed and measured on a JVM.
+ *
+ * @author eso
+ */
+public class ChartTableConverter
+{
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Private, only static use.
+	 */
+	private ChartTableConverter()
+	{
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Converts numeric chart data into a table with a string column containing
+	 * the row labels followed by a number column for each data column. The
+	 * values are converted column by column. Undefined values will be left
+	 * empty.
+	 *
+	 * @param rData           The chart data to convert
+	 * @param fExpandResource A function that expands resources in labels
+	 * @param rTable          The table to fill
+	 */
+	public static void convertData(ChartData				rData,
+								   Function<String, String> fExpandResource,
+								   ChartTableBuilder	    rTable)
+	{
+		int nRows = rData.getRowCount();
+		int nCols = rData.getColumnCount();
+
+		rTable.addColumn(ColumnType.STRING,
+						 fExpandResource.apply(rData.getRowAxisLabel()));
+
+		for (int nCol = 0; nCol < nCols; nCol++)
+		{
+			String sLabel = rData.getColumnLabel(nCol);
+
+			if (sLabel != null)
+			{
+				sLabel = fExpandResource.apply(sLabel);
+			}
+
+			rTable.addColumn(ColumnType.NUMBER, sLabel);
+		}
+
+		rTable.addRows(nRows);
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			String sLabel = rData.getRowLabel(nRow);
+
+			rTable.setValue(nRow, 0, fExpandResource.apply(sLabel));
+		}
+
+		// column-major to iterate columnar data in storage order
+		for (int nCol = 0; nCol < nCols; nCol++)
+		{
+			for (int nRow = 0; nRow < nRows; nRow++)
+			{
+				if (!rData.isNull(nRow, nCol))
+				{
+					rTable.setValue(nRow, nCol + 1, rData.getValue(nRow, nCol));
+				}
+			}
+		}
+	}
+
+	/***************************************
+	 * Adds rows for network nodes to a table that has been created by {@link
+	 * #convertNetworkTree(ChartNetwork, ChartTableBuilder)}. Each node is
+	 * displayed with its text, an image for nodes with the style
+	 * 'image:&lt;url&gt;', and the number of hidden nodes if it is collapsed.
+	 * Other styles than the default style are set as the CSS style property of
+	 * the node row.
+	 *
+	 * @param rNetwork  The network
+	 * @param rNodes    The indices of the nodes to add
+	 * @param nFirst    The position of the first node to add in the indices
+	 * @param rTable    The table to add the rows to
+	 * @param nFirstRow The index of the first new table row
+	 */
+	public static void addNetworkRows(ChartNetwork		rNetwork,
+									  int[]				rNodes,
+									  int				nFirst,
+									  ChartTableBuilder rTable,
+									  int				nFirstRow)
+	{
+		int nRow = nFirstRow;
+
+		rTable.addRows(rNodes.length - nFirst);
+
+		for (int i = nFirst; i < rNodes.length; i++)
+		{
+			int			  nNode   = rNodes[i];
+			String		  sParent = rNetwork.getParentId(nNode);
+			String		  sText   = rNetwork.getNodeText(nNode);
+			String		  sStyle  = rNetwork.getNodeStyle(nNode);
+			int			  nHidden = rNetwork.getHiddenNodeCount(nNode);
+			StringBuilder aHtml   = new StringBuilder();
+
+			if (sStyle.startsWith("image"))
+			{
+				String sImage = sStyle.substring(sStyle.indexOf(':') + 1);
+
+				aHtml.append("<img src=\"").append(escapeHtml(sImage));
+				aHtml.append("\"/><br/>");
+			}
+			else if (!ChartNetwork.DEFAULT_STYLE.equals(sStyle))
+			{
+				rTable.setRowProperty(nRow, "style", sStyle);
+			}
+
+			aHtml.append(escapeHtml(sText));
+
+			if (nHidden > 0)
+			{
+				aHtml.append(" (+").append(nHidden).append(')');
+			}
+
+			rTable.setValue(nRow, 0, rNetwork.getNodeId(nNode));
+			rTable.setFormattedValue(nRow, 0, aHtml.toString());
+			rTable.setValue(nRow, 2, sText);
+
+			if (rNetwork.contains(sParent))
+			{
+				rTable.setValue(nRow, 1, sParent);
+			}
+
+			nRow++;
+		}
+	}
+
+	/***************************************
+	 * Converts hierarchical node data into a node table and a relation table
+	 * as needed by network charts. The node table contains the columns 'id',
+	 * 'text', 'style', and 'image', the relation table the columns 'from' and
+	 * 'to' for each node that has a parent.
+	 *
+	 * @param rNodes         The node data
+	 * @param rNodeTable     The table to fill with the nodes
+	 * @param rRelationTable The table to fill with the relations
+	 */
+	public static void convertNetwork(ChartNodeData	    rNodes,
+									  ChartTableBuilder rNodeTable,
+									  ChartTableBuilder rRelationTable)
+	{
+		int nRows		 = rNodes.getNodeCount();
+		int nRelationRow = 0;
+
+		rNodeTable.addColumn(ColumnType.STRING, "id");
+		rNodeTable.addColumn(ColumnType.STRING, "text");
+		rNodeTable.addColumn(ColumnType.STRING, "style");
+		rNodeTable.addColumn(ColumnType.STRING, "image");
+
+		rNodeTable.addRows(nRows);
+
+		rRelationTable.addColumn(ColumnType.STRING, "from");
+		rRelationTable.addColumn(ColumnType.STRING, "to");
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			String sNodeId   = rNodes.getNodeId(nRow);
+			String sParentId = rNodes.getParentId(nRow);
+			String sStyle    = rNodes.getNodeStyle(nRow);
+
+			rNodeTable.setValue(nRow, 0, sNodeId);
+			rNodeTable.setValue(nRow, 1, rNodes.getNodeText(nRow));
+
+			if (sStyle.startsWith("image"))
+			{
+				String sImage = sStyle.substring(sStyle.indexOf(':') + 1);
+
+				rNodeTable.setValue(nRow, 2, "image");
+				rNodeTable.setValue(nRow, 3, sImage);
+			}
+			else
+			{
+				rNodeTable.setValue(nRow, 2, sStyle);
+			}
+
+			if (sParentId != null)
+			{
+				rRelationTable.addRows(1);
+				rRelationTable.setValue(nRelationRow, 0, sParentId);
+				rRelationTable.setValue(nRelationRow, 1, sNodeId);
+				nRelationRow++;
+			}
+		}
+	}
+
+	/***************************************
+	 * Converts the visible nodes of a network into a tree table with the
+	 * columns 'id', 'parent', and 'tooltip' as needed by the organization
+	 * chart of the chart API.
+	 *
+	 * @param rNetwork The network
+	 * @param rTable   The table to fill
+	 */
+	public static void convertNetworkTree(
+		ChartNetwork	  rNetwork,
+		ChartTableBuilder rTable)
+	{
+		rTable.addColumn(ColumnType.STRING, "id");
+		rTable.addColumn(ColumnType.STRING, "parent");
+		rTable.addColumn(ColumnType.STRING, "tooltip");
+
+		addNetworkRows(rNetwork, rNetwork.getVisibleNodes(), 0, rTable, 0);
+	}
+
+	/***************************************
+	 * Escapes the HTML special characters in a text.
+	 *
+	 * @param  sText The text to escape
+	 *
+	 * @return The escaped text
+	 */
+	private static String escapeHtml(String sText)
+	{
+		return sText.replace("&", "&amp;")
+					.replace("<", "&lt;")
+					.replace(">", "&gt;")
+					.replace("\"", "&quot;");
+	}
+}
@@ -0,0 +1,615 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.ewt.chart.ChartDataProvider.DataCallback;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+
+/********************************************************************
+ * A cache for chart data that is loaded in tiles from a {@link
+ * ChartDataProvider}. The full range of the row axis is divided into tiles on
+ * binary zoom levels where level {@code n} consists of {@code 2^n} tiles of
+ * equal size. A query for a visible range will use the level with the
+ * smallest tiles that are at least as large as the range so that each query
+ * touches at most three tiles. The tiles are requested with a row count that
+ * is derived from the pixel width of the chart (rounded up to the next power
+ * of two) so that each visible pixel is covered by at least one data row.
+ *
+ * <p>Tiles are cached by level, position, and resolution and the least
+ * recently used tiles will be evicted if the maximum number of tiles is
+ * exceeded. Tiles that are not available yet are requested from the provider
+ * and temporarily substituted by the corresponding part of a cached tile from
+ * a coarser level (if available) so that zooming and panning continue to
+ * display data while loading.</p>
+ *
+ * @author eso
+ */
+public class ChartTileCache
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The default maximum number of cached tiles. */
+	public static final int DEFAULT_MAX_TILES = 64;
+
+	/**
+	 * The deepest zoom level. The smallest tiles therefore have a size of
+	 * {@code 2^-MAX_LEVEL} of the full range.
+	 */
+	public static final int MAX_LEVEL = 40;
+
+	private static final int MIN_RESOLUTION = 16;
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final ChartDataProvider rProvider;
+	private final double		    fRangeStart;
+	private final double		    fRangeEnd;
+
+	private final Map<String, ChartData> aTiles;
+	private final Set<String>		     aPendingTiles = new HashSet<>();
+
+	private int     nMaxTiles   = DEFAULT_MAX_TILES;
+	private int     nGeneration = 0;
+	private int     nHits	    = 0;
+	private int     nMisses     = 0;
+	private boolean bRequesting = false;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rProvider   The provider to request the tile data from
+	 * @param fRangeStart The start of the full row axis range
+	 * @param fRangeEnd   The end of the full row axis range
+	 */
+	@SuppressWarnings("serial")
+	public ChartTileCache(ChartDataProvider rProvider,
+						  double			fRangeStart,
+						  double			fRangeEnd)
+	{
+		if (!(fRangeEnd > fRangeStart))
+		{
+			throw new IllegalArgumentException("Invalid range: " +
+											   fRangeStart + " - " +
+											   fRangeEnd);
+		}
+
+		this.rProvider   = rProvider;
+		this.fRangeStart = fRangeStart;
+		this.fRangeEnd   = fRangeEnd;
+
+		aTiles =
+			new LinkedHashMap<String, ChartData>(64, 0.75f, true)
+			{
+				@Override
+				protected boolean removeEldestEntry(
+					Entry<String, ChartData> rEldest)
+				{
+					return size() > nMaxTiles;
+				}
+			};
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Removes all tiles from this cache. Tiles that are still being loaded
+	 * will be discarded when they arrive. This must be invoked if the data of
+	 * the provider has changed.
+	 */
+	public void clear()
+	{
+		aTiles.clear();
+		aPendingTiles.clear();
+		nGeneration++;
+	}
+
+	/***************************************
+	 * Returns the data for a certain range of the row axis. The result will
+	 * contain the rows of all cached tiles that intersect with the range.
+	 * Missing tiles will be requested from the provider and the listener
+	 * will be notified when a tile has been loaded so that the data can be
+	 * queried again. If the provider returns the data synchronously it will
+	 * be contained in the result without notifying the listener.
+	 *
+	 * @param  fStart    The start of the range
+	 * @param  fEnd      The end of the range
+	 * @param  nWidth    The pixel width at which the range is displayed
+	 * @param  rListener The listener to be notified of loaded tiles
+	 *
+	 * @return The available chart data for the range or NULL if no data is
+	 *         available yet
+	 */
+	public ChartData getData(double		  fStart,
+							 double		  fEnd,
+							 int		  nWidth,
+							 TileListener rListener)
+	{
+		fStart = Math.max(fStart, fRangeStart);
+		fEnd   = Math.min(fEnd, fRangeEnd);
+
+		if (!(fEnd > fStart))
+		{
+			return null;
+		}
+
+		int    nLevel	   = getLevel(fEnd - fStart);
+		int    nResolution = MIN_RESOLUTION;
+		double fTileSize   = (fRangeEnd - fRangeStart) / (1L << nLevel);
+		long   nLastTile   = (1L << nLevel) - 1;
+		long   nFirst	   = (long) ((fStart - fRangeStart) / fTileSize);
+		long   nLast	   =
+			(long) Math.ceil((fEnd - fRangeStart) / fTileSize) - 1;
+
+		while (nResolution < nWidth)
+		{
+			nResolution *= 2;
+		}
+
+		nLast = Math.min(nLast, nLastTile);
+
+		TiledChartData aData =
+			new TiledChartData((int) (nLast - nFirst + 1));
+
+		for (long nTile = nFirst; nTile <= nLast; nTile++)
+		{
+			double fTileStart = fRangeStart + nTile * fTileSize;
+			double fTileEnd   = fTileStart + fTileSize;
+			double fFrom	  = Math.max(fStart, fTileStart);
+			double fTo		  = Math.min(fEnd, fTileEnd);
+
+			ChartData rTile =
+				getTile(nLevel,
+						nTile,
+						nResolution,
+						fTileStart,
+						fTileEnd,
+						rListener);
+
+			if (rTile != null)
+			{
+				aData.addRows(rTile, fTileStart, fTileEnd, fFrom, fTo);
+			}
+			else
+			{
+				addCoarserRows(aData,
+							   nLevel,
+							   nTile,
+							   nResolution,
+							   fFrom,
+							   fTo);
+			}
+		}
+
+		return aData.getRowCount() > 0 ? aData : null;
+	}
+
+	/***************************************
+	 * Returns the number of tile queries that have been served from this
+	 * cache.
+	 *
+	 * @return The hit count
+	 */
+	public final int getHitCount()
+	{
+		return nHits;
+	}
+
+	/***************************************
+	 * Returns the maximum number of cached tiles.
+	 *
+	 * @return The maximum tile count
+	 */
+	public final int getMaxTiles()
+	{
+		return nMaxTiles;
+	}
+
+	/***************************************
+	 * Returns the number of tiles that have been requested from the data
+	 * provider.
+	 *
+	 * @return The miss count
+	 */
+	public final int getMissCount()
+	{
+		return nMisses;
+	}
+
+	/***************************************
+	 * Returns the end of the full row axis range.
+	 *
+	 * @return The range end
+	 */
+	public final double getRangeEnd()
+	{
+		return fRangeEnd;
+	}
+
+	/***************************************
+	 * Returns the start of the full row axis range.
+	 *
+	 * @return The range start
+	 */
+	public final double getRangeStart()
+	{
+		return fRangeStart;
+	}
+
+	/***************************************
+	 * Returns the number of currently cached tiles.
+	 *
+	 * @return The tile count
+	 */
+	public int getTileCount()
+	{
+		return aTiles.size();
+	}
+
+	/***************************************
+	 * Sets the maximum number of cached tiles. If the cache contains more
+	 * tiles the least recently used tiles will be evicted on the next insert.
+	 *
+	 * @param nMaxTiles The maximum tile count
+	 */
+	public void setMaxTiles(int nMaxTiles)
+	{
+		this.nMaxTiles = nMaxTiles;
+	}
+
+	/***************************************
+	 * Adds the rows of the largest cached tile on a coarser level that covers
+	 * a certain range to the given tiled data.
+	 *
+	 * @param rData       The tiled data to add the rows to
+	 * @param nLevel      The level of the missing tile
+	 * @param nTile       The index of the missing tile
+	 * @param nResolution The resolution of the missing tile
+	 * @param fFrom       The start of the range to add
+	 * @param fTo         The end of the range to add
+	 */
+	private void addCoarserRows(TiledChartData rData,
+								int			   nLevel,
+								long		   nTile,
+								int			   nResolution,
+								double		   fFrom,
+								double		   fTo)
+	{
+		for (int nParentLevel = nLevel - 1; nParentLevel >= 0; nParentLevel--)
+		{
+			long	  nParent = nTile >> (nLevel - nParentLevel);
+			ChartData rTile   =
+				aTiles.get(getKey(nParentLevel, nParent, nResolution));
+
+			if (rTile != null)
+			{
+				double fSize  =
+					(fRangeEnd - fRangeStart) / (1L << nParentLevel);
+				double fStart = fRangeStart + nParent * fSize;
+
+				rData.addRows(rTile, fStart, fStart + fSize, fFrom, fTo);
+
+				break;
+			}
+		}
+	}
+
+	/***************************************
+	 * Returns the cache key of a tile.
+	 *
+	 * @param  nLevel      The tile level
+	 * @param  nTile       The tile index
+	 * @param  nResolution The tile resolution
+	 *
+	 * @return The tile key
+	 */
+	private String getKey(int nLevel, long nTile, int nResolution)
+	{
+		return nLevel + ":" + nTile + ":" + nResolution;
+	}
+
+	/***************************************
+	 * Returns the level with the smallest tiles that are at least as large as
+	 * a certain range size.
+	 *
+	 * @param  fSize The range size
+	 *
+	 * @return The tile level
+	 */
+	private int getLevel(double fSize)
+	{
+		double fRatio = (fRangeEnd - fRangeStart) / fSize;
+		int    nLevel = (int) Math.floor(Math.log(fRatio) / Math.log(2));
+
+		return Math.max(0, Math.min(nLevel, MAX_LEVEL));
+	}
+
+	/***************************************
+	 * Returns a cached tile or requests it from the provider if it is not
+	 * available.
+	 *
+	 * @param  nLevel       The tile level
+	 * @param  nTile        The tile index
+	 * @param  nResolution  The tile resolution
+	 * @param  fTileStart   The start of the tile range
+	 * @param  fTileEnd     The end of the tile range
+	 * @param  rListener    The listener to be notified when the tile has been
+	 *                      loaded
+	 *
+	 * @return The tile data or NULL if the tile is not available yet
+	 */
+	private ChartData getTile(int				 nLevel,
+							  long				 nTile,
+							  int				 nResolution,
+							  double			 fTileStart,
+							  double			 fTileEnd,
+							  final TileListener rListener)
+	{
+		final String sKey  = getKey(nLevel, nTile, nResolution);
+		ChartData    rTile = aTiles.get(sKey);
+
+		if (rTile != null)
+		{
+			nHits++;
+		}
+		else if (aPendingTiles.add(sKey))
+		{
+			final int nRequestGeneration = nGeneration;
+
+			DataCallback aCallback =
+				new DataCallback()
+				{
+					@Override
+					public void dataAvailable(ChartData rData)
+					{
+						if (nRequestGeneration == nGeneration)
+						{
+							aPendingTiles.remove(sKey);
+
+							if (rData != null)
+							{
+								aTiles.put(sKey, rData);
+
+								if (!bRequesting)
+								{
+									rListener.tileLoaded();
+								}
+							}
+						}
+					}
+				};
+
+			nMisses++;
+			bRequesting = true;
+
+			try
+			{
+				// request twice the resolution because the visible range
+				// can be as small as half a tile
+				rProvider.requestData(fTileStart,
+									  fTileEnd,
+									  nResolution * 2,
+									  aCallback);
+			}
+			finally
+			{
+				bRequesting = false;
+			}
+
+			rTile = aTiles.get(sKey);
+		}
+
+		return rTile;
+	}
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The interface for listeners that are notified of asynchronously loaded
+	 * tiles.
+	 *
+	 * @author eso
+	 */
+	public static interface TileListener
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Will be invoked when a tile has been loaded.
+		 */
+		public void tileLoaded();
+	}
+
+	//~ Inner Classes ----------------------------------------------------------
+
+	/********************************************************************
+	 * A chart data implementation that concatenates row ranges of several
+	 * tiles.
+	 *
+	 * @author eso
+	 */
+	static class TiledChartData implements ChartData
+	{
+		//~ Instance fields ----------------------------------------------------
+
+		private final ChartData[] aTiles;
+		private final int[]		  aTileRows;
+		private final int[]		  aStartRows;
+
+		private int nTileCount = 0;
+		private int nRowCount  = 0;
+
+		//~ Constructors -------------------------------------------------------
+
+		/***************************************
+		 * Creates a new instance.
+		 *
+		 * @param nMaxTiles The maximum number of tiles to concatenate
+		 */
+		TiledChartData(int nMaxTiles)
+		{
+			aTiles     = new ChartData[nMaxTiles];
+			aTileRows  = new int[nMaxTiles];
+			aStartRows = new int[nMaxTiles];
+		}
+
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getColumnCount()
+		{
+			return aTiles[0].getColumnCount();
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String getColumnLabel(int nColumn)
+		{
+			return aTiles[0].getColumnLabel(nColumn);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String getRowAxisLabel()
+		{
+			return aTiles[0].getRowAxisLabel();
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getRowCount()
+		{
+			return nRowCount;
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String getRowLabel(int nRow)
+		{
+			int nTile = getTileIndex(nRow);
+
+			return aTiles[nTile].getRowLabel(getTileRow(nTile, nRow));
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public double getValue(int nRow, int nColumn)
+		{
+			int nTile = getTileIndex(nRow);
+
+			return aTiles[nTile].getValue(getTileRow(nTile, nRow), nColumn);
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean isNull(int nRow, int nColumn)
+		{
+			int nTile = getTileIndex(nRow);
+
+			return aTiles[nTile].isNull(getTileRow(nTile, nRow), nColumn);
+		}
+
+		/***************************************
+		 * Adds the rows of a tile that are inside of a certain range. The rows
+		 * are assumed to be evenly distributed over the tile range.
+		 *
+		 * @param rTile      The tile data
+		 * @param fTileStart The start of the tile range
+		 * @param fTileEnd   The end of the tile range
+		 * @param fFrom      The start of the range to add
+		 * @param fTo        The end of the range to add
+		 */
+		void addRows(ChartData rTile,
+					 double    fTileStart,
+					 double    fTileEnd,
+					 double    fFrom,
+					 double    fTo)
+		{
+			int    nRows  = rTile.getRowCount();
+			double fScale = nRows / (fTileEnd - fTileStart);
+
+			int nFirst =
+				Math.max(0, (int) Math.floor((fFrom - fTileStart) * fScale));
+			int nEnd   =
+				Math.min(nRows, (int) Math.ceil((fTo - fTileStart) * fScale));
+
+			if (nEnd > nFirst)
+			{
+				aTiles[nTileCount]     = rTile;
+				aTileRows[nTileCount]  = nFirst;
+				aStartRows[nTileCount] = nRowCount;
+
+				nTileCount++;
+				nRowCount += nEnd - nFirst;
+			}
+		}
+
+		/***************************************
+		 * Returns the index of the tile that contains a certain row.
+		 *
+		 * @param  nRow The row index
+		 *
+		 * @return The tile index
+		 */
+		private int getTileIndex(int nRow)
+		{
+			int nTile = nTileCount - 1;
+
+			while (nTile > 0 && aStartRows[nTile] > nRow)
+			{
+				nTile--;
+			}
+
+			return nTile;
+		}
+
+		/***************************************
+		 * Maps a row of this data to the corresponding row of a tile.
+		 *
+		 * @param  nTile The tile index
+		 * @param  nRow  The row index in this data
+		 *
+		 * @return The row index in the tile
+		 */
+		private int getTileRow(int nTile, int nRow)
+		{
+			return aTileRows[nTile] + nRow - aStartRows[nTile];
+		}
+	}
+}
@@ -0,0 +1,335 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+
+
+/********************************************************************
+ * Tracks the position of an element relative to the browser viewport to
+ * support the lazy rendering of charts. The tracker distinguishes between an
+ * element that is visible (i.e. inside the viewport or within a preload
+ * distance from it), hidden (outside the preload distance) and far away
+ * (outside of a release distance). If supported by the browser an
+ * IntersectionObserver is used for the tracking. Otherwise the tracker falls
+ * back to checking the element position on scroll and resize events, which
+ * are captured for the whole document so that scrolling of nested panels is
+ * also detected.
+ *
+ * @author eso
+ */
+public class ChartVisibilityTracker
+{
+	//~ Enums ------------------------------------------------------------------
+
+	/********************************************************************
+	 * Enumeration of the visibility states of a tracked element.
+	 */
+	public enum Visibility { VISIBLE, HIDDEN, FAR_AWAY }
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final Element			 rElement;
+	private final int				 nPreloadDistance;
+	private final int				 nReleaseDistance;
+	private final VisibilityListener rListener;
+
+	private Visibility eVisibility = null;
+	private boolean    bNear	   = false;
+	private boolean    bInRange    = false;
+
+	private JavaScriptObject aNearObserver  = null;
+	private JavaScriptObject aRangeObserver = null;
+	private JavaScriptObject aScrollHandler = null;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rElement         The element to track
+	 * @param nPreloadDistance The distance from the viewport in pixels at
+	 *                         which the element is considered as visible
+	 * @param nReleaseDistance The distance from the viewport in pixels from
+	 *                         which on the element is considered as far away
+	 *                         or zero to never report this state
+	 * @param rListener        The listener to notify of visibility changes
+	 */
+	public ChartVisibilityTracker(Element			 rElement,
+								  int				 nPreloadDistance,
+								  int				 nReleaseDistance,
+								  VisibilityListener rListener)
+	{
+		this.rElement		  = rElement;
+		this.nPreloadDistance = nPreloadDistance;
+		this.nReleaseDistance = nReleaseDistance;
+		this.rListener		  = rListener;
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Checks whether the browser supports the IntersectionObserver API.
+	 *
+	 * @return TRUE if intersection observers are supported
+	 */
+	private static native boolean isIntersectionObserverSupported()
+	/*-{
+		return typeof $wnd.IntersectionObserver === 'function';
+	}-*/;
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns the current visibility of the tracked element.
+	 *
+	 * @return The visibility or NULL if not yet known
+	 */
+	public final Visibility getVisibility()
+	{
+		return eVisibility;
+	}
+
+	/***************************************
+	 * Checks whether this tracker is active.
+	 *
+	 * @return TRUE if the tracker is active
+	 */
+	public final boolean isActive()
+	{
+		return aNearObserver != null || aScrollHandler != null;
+	}
+
+	/***************************************
+	 * Starts the tracking of the element. Has no effect if the tracker is
+	 * already active.
+	 */
+	public void start()
+	{
+		if (!isActive())
+		{
+			if (isIntersectionObserverSupported())
+			{
+				aNearObserver  = observe(rElement, nPreloadDistance, true);
+				aRangeObserver =
+					nReleaseDistance > 0
+					? observe(rElement, nReleaseDistance, false) : null;
+			}
+			else
+			{
+				aScrollHandler = addScrollHandler();
+				checkPosition();
+			}
+		}
+	}
+
+	/***************************************
+	 * Stops the tracking of the element.
+	 */
+	public void stop()
+	{
+		if (aNearObserver != null)
+		{
+			disconnect(aNearObserver);
+			aNearObserver = null;
+		}
+
+		if (aRangeObserver != null)
+		{
+			disconnect(aRangeObserver);
+			aRangeObserver = null;
+		}
+
+		if (aScrollHandler != null)
+		{
+			removeScrollHandler(aScrollHandler);
+			aScrollHandler = null;
+		}
+
+		eVisibility = null;
+	}
+
+	/***************************************
+	 * Checks the position of the element and notifies the listener if the
+	 * visibility has changed. Invoked by the fallback scroll handler.
+	 */
+	void checkPosition()
+	{
+		double fDistance = getViewportDistance(rElement);
+
+		bNear    = fDistance <= nPreloadDistance;
+		bInRange = nReleaseDistance <= 0 || fDistance <= nReleaseDistance;
+
+		updateVisibility();
+	}
+
+	/***************************************
+	 * Invoked by an intersection observer if the intersection state of the
+	 * element has changed.
+	 *
+	 * @param bNearObserver TRUE for the observer of the preload distance,
+	 *                      FALSE for the release distance
+	 * @param bIntersecting The new intersection state
+	 */
+	void intersectionChanged(boolean bNearObserver, boolean bIntersecting)
+	{
+		if (bNearObserver)
+		{
+			bNear = bIntersecting;
+
+			if (aRangeObserver == null || bIntersecting)
+			{
+				bInRange = true;
+			}
+		}
+		else
+		{
+			bInRange = bIntersecting;
+		}
+
+		updateVisibility();
+	}
+
+	/***************************************
+	 * Registers a capturing document listener for scroll events and a window
+	 * resize listener that check the element position at most once per
+	 * animation frame.
+	 *
+	 * @return The handler function
+	 */
+	private native JavaScriptObject addScrollHandler()
+	/*-{
+		var self = this;
+		var pending = false;
+		var handler = function() {
+			if (!pending) {
+				pending = true;
+				$wnd.requestAnimationFrame($entry(function() {
+					pending = false;
+					self.@de.esoco.ewt.chart.ChartVisibilityTracker::checkPosition()();
+				}));
+			}
+		};
+
+		$doc.addEventListener('scroll', handler, true);
+		$wnd.addEventListener('resize', handler);
+
+		return handler;
+	}-*/;
+
+	/***************************************
+	 * Disconnects an intersection observer.
+	 *
+	 * @param rObserver The observer
+	 */
+	private native void disconnect(JavaScriptObject rObserver)
+	/*-{
+		rObserver.disconnect();
+	}-*/;
+
+	/***************************************
+	 * Returns the distance of an element from the viewport.
+	 *
+	 * @param  rElement The element
+	 *
+	 * @return The distance in pixels or zero if the element intersects the
+	 *         viewport
+	 */
+	private native double getViewportDistance(Element rElement)
+	/*-{
+		var r = rElement.getBoundingClientRect();
+		var w = $wnd.innerWidth || $doc.documentElement.clientWidth;
+		var h = $wnd.innerHeight || $doc.documentElement.clientHeight;
+		var dx = Math.max(0, r.left - w, -r.right);
+		var dy = Math.max(0, r.top - h, -r.bottom);
+
+		return Math.max(dx, dy);
+	}-*/;
+
+	/***************************************
+	 * Creates an intersection observer for an element.
+	 *
+	 * @param  rElement      The element to observe
+	 * @param  nMargin       The margin around the viewport in pixels
+	 * @param  bNearObserver TRUE for the preload observer
+	 *
+	 * @return The new observer
+	 */
+	private native JavaScriptObject observe(Element rElement,
+											int		nMargin,
+											boolean bNearObserver)
+	/*-{
+		var self = this;
+		var observer = new $wnd.IntersectionObserver($entry(function(entries) {
+			var visible = entries[entries.length - 1].isIntersecting;
+
+			self.@de.esoco.ewt.chart.ChartVisibilityTracker::intersectionChanged(ZZ)(bNearObserver, visible);
+		}), { rootMargin: nMargin + 'px' });
+
+		observer.observe(rElement);
+
+		return observer;
+	}-*/;
+
+	/***************************************
+	 * Removes the listeners of the scroll fallback.
+	 *
+	 * @param rHandler The handler function
+	 */
+	private native void removeScrollHandler(JavaScriptObject rHandler)
+	/*-{
+		$doc.removeEventListener('scroll', rHandler, true);
+		$wnd.removeEventListener('resize', rHandler);
+	}-*/;
+
+	/***************************************
+	 * Determines the current visibility and notifies the listener if it has
+	 * changed.
+	 */
+	private void updateVisibility()
+	{
+		Visibility eNewVisibility =
+			bNear ? Visibility.VISIBLE
+				  : bInRange ? Visibility.HIDDEN : Visibility.FAR_AWAY;
+
+		if (eNewVisibility != eVisibility)
+		{
+			eVisibility = eNewVisibility;
+			rListener.visibilityChanged(eNewVisibility);
+		}
+	}
+
+	//~ Inner Interfaces -------------------------------------------------------
+
+	/********************************************************************
+	 * The listener interface for visibility changes.
+	 *
+	 * @author eso
+	 */
+	public interface VisibilityListener
+	{
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * Will be invoked if the visibility of the tracked element changes.
+		 *
+		 * @param eVisibility The new visibility
+		 */
+		public void visibilityChanged(Visibility eVisibility);
+	}
+}
@@ -0,0 +1,267 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/********************************************************************
+ * A {@link ChartData} implementation that stores the values of each column in
+ * a primitive array. Columns can either contain double or integer values.
+ * Undefined values are recorded in a bitmap per column that is only allocated
+ * if a column actually contains undefined values. The data is organized
+ * column by column so that it can be iterated column-major without boxing the
+ * values into objects.
+ *
+ * @author eso
+ */
+public class ColumnarChartData implements ChartData
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final String   sRowAxisLabel;
+	private final String[] rRowLabels;
+
+	private final List<String>   aColumnLabels = new ArrayList<>();
+	private final List<double[]> aDoubleColumns = new ArrayList<>();
+	private final List<int[]>    aIntColumns    = new ArrayList<>();
+	private final List<int[]>    aNullBitmaps   = new ArrayList<>();
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance without columns. Columns must be added by
+	 * invoking one of the addColumn() methods.
+	 *
+	 * @param sRowAxisLabel The label of the row axis
+	 * @param rRowLabels    The row labels which also define the row count
+	 */
+	public ColumnarChartData(String sRowAxisLabel, String... rRowLabels)
+	{
+		this.sRowAxisLabel = sRowAxisLabel;
+		this.rRowLabels    = rRowLabels;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Adds a column with double values. The array will not be copied.
+	 *
+	 * @param  sLabel  The column label
+	 * @param  rValues The column values (NaN for undefined values)
+	 *
+	 * @return The index of the new column
+	 */
+	public int addColumn(String sLabel, double[] rValues)
+	{
+		return addColumn(sLabel, rValues, null);
+	}
+
+	/***************************************
+	 * Adds a column with integer values. The array will not be copied.
+	 * Undefined values can be marked with {@link #setNull(int, int)}.
+	 *
+	 * @param  sLabel  The column label
+	 * @param  rValues The column values
+	 *
+	 * @return The index of the new column
+	 */
+	public int addColumn(String sLabel, int[] rValues)
+	{
+		return addColumn(sLabel, null, rValues);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getColumnCount()
+	{
+		return aColumnLabels.size();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getColumnLabel(int nColumn)
+	{
+		return aColumnLabels.get(nColumn);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowAxisLabel()
+	{
+		return sRowAxisLabel;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRowCount()
+	{
+		return rRowLabels.length;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowLabel(int nRow)
+	{
+		return rRowLabels[nRow];
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getValue(int nRow, int nColumn)
+	{
+		if (isNull(nRow, nColumn))
+		{
+			return Double.NaN;
+		}
+
+		double[] rDoubles = aDoubleColumns.get(nColumn);
+
+		return rDoubles != null ? rDoubles[nRow]
+								: aIntColumns.get(nColumn)[nRow];
+	}
+
+	/***************************************
+	 * Checks whether a column contains integer values.
+	 *
+	 * @param  nColumn The column index
+	 *
+	 * @return TRUE for an integer column, FALSE for a double column
+	 */
+	public boolean isIntegerColumn(int nColumn)
+	{
+		return aIntColumns.get(nColumn) != null;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isNull(int nRow, int nColumn)
+	{
+		int[]    rBitmap  = aNullBitmaps.get(nColumn);
+		double[] rDoubles = aDoubleColumns.get(nColumn);
+
+		// NaN values of double columns are always undefined
+		return (rBitmap != null &&
+				(rBitmap[nRow >> 5] & (1 << (nRow & 31))) != 0) ||
+			   (rDoubles != null && Double.isNaN(rDoubles[nRow]));
+	}
+
+	/***************************************
+	 * Marks a certain value as undefined.
+	 *
+	 * @param nRow    The row index
+	 * @param nColumn The column index
+	 */
+	public void setNull(int nRow, int nColumn)
+	{
+		if (nRow < 0 || nRow >= rRowLabels.length)
+		{
+			throw new IndexOutOfBoundsException("Invalid row: " + nRow);
+		}
+
+		int[] rBitmap = aNullBitmaps.get(nColumn);
+
+		if (rBitmap == null)
+		{
+			rBitmap = new int[(rRowLabels.length + 31) >> 5];
+			aNullBitmaps.set(nColumn, rBitmap);
+		}
+
+		rBitmap[nRow >> 5] |= 1 << (nRow & 31);
+	}
+
+	/***************************************
+	 * Returns the value array of a double column for direct access.
+	 *
+	 * @param  nColumn The column index
+	 *
+	 * @return The column values or NULL for an integer column
+	 */
+	double[] getDoubleColumn(int nColumn)
+	{
+		return aDoubleColumns.get(nColumn);
+	}
+
+	/***************************************
+	 * Returns the value array of an integer column for direct access.
+	 *
+	 * @param  nColumn The column index
+	 *
+	 * @return The column values or NULL for a double column
+	 */
+	int[] getIntegerColumn(int nColumn)
+	{
+		return aIntColumns.get(nColumn);
+	}
+
+	/***************************************
+	 * Returns the bitmap of the undefined values of a column for direct
+	 * access. Each bit of the bitmap corresponds to the row with the same
+	 * index.
+	 *
+	 * @param  nColumn The column index
+	 *
+	 * @return The null bitmap or NULL if the column contains no undefined
+	 *         values
+	 */
+	int[] getNullBitmap(int nColumn)
+	{
+		return aNullBitmaps.get(nColumn);
+	}
+
+	/***************************************
+	 * Internal method to add a new column.
+	 *
+	 * @param  sLabel   The column label
+	 * @param  rDoubles The double values or NULL for an integer column
+	 * @param  rInts    The integer values or NULL for a double column
+	 *
+	 * @return The index of the new column
+	 */
+	private int addColumn(String sLabel, double[] rDoubles, int[] rInts)
+	{
+		int nLength = rDoubles != null ? rDoubles.length : rInts.length;
+
+		if (nLength != rRowLabels.length)
+		{
+			throw new IllegalArgumentException("Column size must be " +
+											   rRowLabels.length);
+		}
+
+		aColumnLabels.add(sLabel);
+		aDoubleColumns.add(rDoubles);
+		aIntColumns.add(rInts);
+		aNullBitmaps.add(null);
+
+		return aColumnLabels.size() - 1;
+	}
+}
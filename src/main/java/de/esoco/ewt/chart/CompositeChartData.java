@@ -0,0 +1,292 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/********************************************************************
+ * A {@link ChartData} implementation that combines the columns of multiple
+ * related series into a single data instance so that they can be converted in
+ * one pass and displayed by a single chart widget. The rows of the series are
+ * matched by their row labels. The result contains the union of all row
+ * labels in the order of their first occurrence. Values of series that don't
+ * contain a certain row label are undefined (NULL) in that row.
+ *
+ * <p>If all series have the same row labels (which is the common case for
+ * related series) the rows are mapped directly without any lookups.</p>
+ *
+ * @author eso
+ */
+public class CompositeChartData implements ChartData
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final ChartData[] aSeries;
+	private final int[]		  aColumnOffsets;
+	private final int[][]     aRowMappings;
+	private final String[]    aRowLabels;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rSeries The series to combine (must not be empty)
+	 */
+	public CompositeChartData(List<? extends ChartData> rSeries)
+	{
+		int nSeries = rSeries.size();
+
+		if (nSeries == 0)
+		{
+			throw new IllegalArgumentException("No series");
+		}
+
+		aSeries		   = rSeries.toArray(new ChartData[nSeries]);
+		aColumnOffsets = new int[nSeries + 1];
+		aRowMappings   = new int[nSeries][];
+
+		for (int i = 0; i < nSeries; i++)
+		{
+			aColumnOffsets[i + 1] =
+				aColumnOffsets[i] + aSeries[i].getColumnCount();
+		}
+
+		aRowLabels = hasSameRows() ? null : mapRows();
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getColumnCount()
+	{
+		return aColumnOffsets[aSeries.length];
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getColumnLabel(int nColumn)
+	{
+		int nSeries = getSeriesIndex(nColumn);
+
+		return aSeries[nSeries].getColumnLabel(nColumn -
+											   aColumnOffsets[nSeries]);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowAxisLabel()
+	{
+		return aSeries[0].getRowAxisLabel();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRowCount()
+	{
+		return aRowLabels != null ? aRowLabels.length
+								  : aSeries[0].getRowCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowLabel(int nRow)
+	{
+		return aRowLabels != null ? aRowLabels[nRow]
+								  : aSeries[0].getRowLabel(nRow);
+	}
+
+	/***************************************
+	 * Returns the number of combined series.
+	 *
+	 * @return The series count
+	 */
+	public int getSeriesCount()
+	{
+		return aSeries.length;
+	}
+
+	/***************************************
+	 * Returns the index of the series that contains a certain column of this
+	 * instance.
+	 *
+	 * @param  nColumn The column index
+	 *
+	 * @return The series index
+	 */
+	public int getSeriesIndex(int nColumn)
+	{
+		int nSeries = 0;
+
+		while (nColumn >= aColumnOffsets[nSeries + 1])
+		{
+			nSeries++;
+		}
+
+		return nSeries;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getValue(int nRow, int nColumn)
+	{
+		int nSeries    = getSeriesIndex(nColumn);
+		int nSeriesRow = getSeriesRow(nSeries, nRow);
+
+		return nSeriesRow >= 0
+			   ? aSeries[nSeries].getValue(nSeriesRow,
+										   nColumn - aColumnOffsets[nSeries])
+			   : Double.NaN;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isNull(int nRow, int nColumn)
+	{
+		int nSeries    = getSeriesIndex(nColumn);
+		int nSeriesRow = getSeriesRow(nSeries, nRow);
+
+		return nSeriesRow < 0 ||
+			   aSeries[nSeries].isNull(nSeriesRow,
+									   nColumn - aColumnOffsets[nSeries]);
+	}
+
+	/***************************************
+	 * Returns the index of a row in a certain series.
+	 *
+	 * @param  nSeries The series index
+	 * @param  nRow    The row index in this instance
+	 *
+	 * @return The series row index or -1 if the series doesn't contain the row
+	 */
+	private int getSeriesRow(int nSeries, int nRow)
+	{
+		int[] rMapping = aRowMappings[nSeries];
+
+		return rMapping != null ? rMapping[nRow] : nRow;
+	}
+
+	/***************************************
+	 * Checks whether all series have the same row labels in the same order.
+	 *
+	 * @return TRUE if all rows are the same
+	 */
+	private boolean hasSameRows()
+	{
+		ChartData rFirst = aSeries[0];
+		int		  nRows  = rFirst.getRowCount();
+
+		for (int i = 1; i < aSeries.length; i++)
+		{
+			ChartData rSeries = aSeries[i];
+
+			if (rSeries.getRowCount() != nRows)
+			{
+				return false;
+			}
+
+			for (int nRow = 0; nRow < nRows; nRow++)
+			{
+				String sLabel = rFirst.getRowLabel(nRow);
+
+				if (sLabel == null ? rSeries.getRowLabel(nRow) != null
+								   : !sLabel.equals(rSeries.getRowLabel(nRow)))
+				{
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/***************************************
+	 * Creates the mappings from the combined rows to the rows of each series
+	 * and returns the combined row labels.
+	 *
+	 * @return The combined row labels
+	 */
+	private String[] mapRows()
+	{
+		Map<String, Integer> aRowIndexes = new HashMap<>();
+		List<String>		 aLabels     = new ArrayList<>();
+		List<int[]>			 aSeriesRows = new ArrayList<>();
+
+		for (int i = 0; i < aSeries.length; i++)
+		{
+			ChartData rSeries = aSeries[i];
+			int		  nRows   = rSeries.getRowCount();
+			int[]     aRows   = new int[nRows];
+
+			for (int nRow = 0; nRow < nRows; nRow++)
+			{
+				String  sLabel = rSeries.getRowLabel(nRow);
+				Integer rIndex = aRowIndexes.get(sLabel);
+
+				if (rIndex == null)
+				{
+					rIndex = Integer.valueOf(aLabels.size());
+					aRowIndexes.put(sLabel, rIndex);
+					aLabels.add(sLabel);
+				}
+
+				aRows[nRow] = rIndex.intValue();
+			}
+
+			aSeriesRows.add(aRows);
+		}
+
+		int nTotalRows = aLabels.size();
+
+		for (int i = 0; i < aSeries.length; i++)
+		{
+			int[] rRows    = aSeriesRows.get(i);
+			int[] aMapping = new int[nTotalRows];
+
+			Arrays.fill(aMapping, -1);
+
+			for (int nRow = 0; nRow < rRows.length; nRow++)
+			{
+				aMapping[rRows[nRow]] = nRow;
+			}
+
+			aRowMappings[i] = aMapping;
+		}
+
+		return aLabels.toArray(new String[nTotalRows]);
+	}
+}
@@ -0,0 +1,150 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.lib.model.DataSet;
+
+
+/********************************************************************
+ * An adapter that provides the numeric values of a {@link DataSet} through the
+ * {@link ChartData} interface. The data set values must either be NULL or
+ * instances of {@link Number}.
+ *
+ * @author eso
+ */
+public class DataSetChartData implements ChartData
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final DataSet<?> rDataSet;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rDataSet The data set to wrap
+	 */
+	public DataSetChartData(DataSet<?> rDataSet)
+	{
+		this.rDataSet = rDataSet;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getColumnCount()
+	{
+		return rDataSet.getColumnCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getColumnLabel(int nColumn)
+	{
+		return rDataSet.getColumnLabel(nColumn);
+	}
+
+	/***************************************
+	 * Returns the wrapped data set.
+	 *
+	 * @return The data set
+	 */
+	public final DataSet<?> getDataSet()
+	{
+		return rDataSet;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowAxisLabel()
+	{
+		return rDataSet.getRowAxisLabel();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRowCount()
+	{
+		return rDataSet.getRowCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowLabel(int nRow)
+	{
+		return rDataSet.getRowLabel(nRow);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getValue(int nRow, int nColumn)
+	{
+		Object rValue = rDataSet.getValue(nRow, nColumn);
+
+		return rValue != null ? ((Number) rValue).doubleValue() : Double.NaN;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isNull(int nRow, int nColumn)
+	{
+		return rDataSet.getValue(nRow, nColumn) == null;
+	}
+
+	/***************************************
+	 * Checks whether all values of the data set are numeric or NULL so that
+	 * they can be accessed through this instance.
+	 *
+	 * @return TRUE if all values are numeric
+	 */
+	public boolean isNumeric()
+	{
+		int nRows = rDataSet.getRowCount();
+		int nCols = rDataSet.getColumnCount();
+
+		for (int nRow = 0; nRow < nRows; nRow++)
+		{
+			for (int nCol = 0; nCol < nCols; nCol++)
+			{
+				Object rValue = rDataSet.getValue(nRow, nCol);
+
+				if (rValue != null && !(rValue instanceof Number))
+				{
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,111 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.lib.model.DataSet;
+
+import java.util.Date;
+
+
+/********************************************************************
+ * An adapter that provides the rows of a {@link DataSet} as raw facts through
+ * the {@link ChartFacts} interface. Numeric values are read from {@link
+ * Number} values and timestamps from {@link Date} values. String values are
+ * created by invoking {@link Object#toString()}.
+ *
+ * @author eso
+ */
+public class DataSetFacts implements ChartFacts
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final DataSet<?> rDataSet;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rDataSet The data set to wrap
+	 */
+	public DataSetFacts(DataSet<?> rDataSet)
+	{
+		this.rDataSet = rDataSet;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getColumnCount()
+	{
+		return rDataSet.getColumnCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getColumnName(int nColumn)
+	{
+		return rDataSet.getColumnLabel(nColumn);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getFactCount()
+	{
+		return rDataSet.getRowCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getNumber(int nFact, int nColumn)
+	{
+		Object rValue = rDataSet.getValue(nFact, nColumn);
+
+		if (rValue instanceof Number)
+		{
+			return ((Number) rValue).doubleValue();
+		}
+		else if (rValue instanceof Date)
+		{
+			return ((Date) rValue).getTime();
+		}
+		else
+		{
+			return Double.NaN;
+		}
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getString(int nFact, int nColumn)
+	{
+		Object rValue = rDataSet.getValue(nFact, nColumn);
+
+		return rValue != null ? rValue.toString() : null;
+	}
+}
@@ -0,0 +1,93 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import de.esoco.lib.model.DataSet;
+
+
+/********************************************************************
+ * An adapter that provides the nodes in a string {@link DataSet} through the
+ * {@link ChartNodeData} interface. Each row of the data set contains a node
+ * with the columns node ID, parent ID, text, and style.
+ *
+ * @author eso
+ */
+public class DataSetNodeData implements ChartNodeData
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final DataSet<String> rDataSet;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rDataSet The data set to wrap
+	 */
+	public DataSetNodeData(DataSet<String> rDataSet)
+	{
+		this.rDataSet = rDataSet;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNodeCount()
+	{
+		return rDataSet.getRowCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getNodeId(int nNode)
+	{
+		return rDataSet.getValue(nNode, 0);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getNodeStyle(int nNode)
+	{
+		return rDataSet.getValue(nNode, 3);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getNodeText(int nNode)
+	{
+		return rDataSet.getValue(nNode, 2);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getParentId(int nNode)
+	{
+		return rDataSet.getValue(nNode, 1);
+	}
+}
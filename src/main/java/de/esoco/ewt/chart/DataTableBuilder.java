@@ -0,0 +1,127 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import com.googlecode.gwt.charts.client.ColumnType;
+import com.googlecode.gwt.charts.client.DataTable;
+
+
+/********************************************************************
+ * A {@link ChartTableBuilder} implementation that writes directly into a
+ * {@link DataTable} of the chart API.
+ *
+ * @author eso
+ */
+public class DataTableBuilder implements ChartTableBuilder
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final DataTable rDataTable;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance for a new data table.
+	 */
+	public DataTableBuilder()
+	{
+		this(DataTable.create());
+	}
+
+	/***************************************
+	 * Creates a new instance for an existing data table.
+	 *
+	 * @param rDataTable The data table to write to
+	 */
+	public DataTableBuilder(DataTable rDataTable)
+	{
+		this.rDataTable = rDataTable;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addColumn(ColumnType eType, String sLabel)
+	{
+		if (sLabel != null)
+		{
+			rDataTable.addColumn(eType, sLabel);
+		}
+		else
+		{
+			rDataTable.addColumn(eType);
+		}
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addRows(int nCount)
+	{
+		rDataTable.addRows(nCount);
+	}
+
+	/***************************************
+	 * Returns the data table of this builder.
+	 *
+	 * @return The data table
+	 */
+	public final DataTable getDataTable()
+	{
+		return rDataTable;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setFormattedValue(int nRow, int nCol, String sFormatted)
+	{
+		rDataTable.setFormattedValue(nRow, nCol, sFormatted);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setRowProperty(int nRow, String sName, String sValue)
+	{
+		rDataTable.setRowProperty(nRow, sName, sValue);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(int nRow, int nCol, double fValue)
+	{
+		rDataTable.setValue(nRow, nCol, fValue);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(int nRow, int nCol, String sValue)
+	{
+		rDataTable.setValue(nRow, nCol, sValue);
+	}
+}
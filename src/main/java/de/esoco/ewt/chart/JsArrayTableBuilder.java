@@ -0,0 +1,251 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import com.googlecode.gwt.charts.client.ColumnType;
+import com.googlecode.gwt.charts.client.DataTable;
+
+
+/********************************************************************
+ * A {@link ChartTableBuilder} implementation that assembles the table in the
+ * literal format of the chart API in native JavaScript arrays and creates
+ * the data table from it in a single call to the constructor of the chart
+ * API. This avoids the overhead of invoking the chart API for each cell
+ * which is significant for large tables. The data table is created on the
+ * first invocation of {@link #getDataTable()} after which the builder must
+ * not be modified anymore. All columns must be added before the first rows.
+ *
+ * @author eso
+ */
+public class JsArrayTableBuilder implements ChartTableBuilder
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final JavaScriptObject aTable = createTable();
+
+	private int		  nColumns   = 0;
+	private DataTable aDataTable = null;
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Adds a column description to a table literal.
+	 *
+	 * @param rTable The table literal
+	 * @param sType  The column type name
+	 * @param sLabel The column label or NULL for none
+	 */
+	private static native void addColumn(JavaScriptObject rTable,
+										 String			  sType,
+										 String			  sLabel) /*-{
+		rTable.cols.push(sLabel != null ? {type: sType, label: sLabel}
+										: {type: sType});
+	}-*/;
+
+	/***************************************
+	 * Adds empty rows to a table literal.
+	 *
+	 * @param rTable   The table literal
+	 * @param nCount   The number of rows to add
+	 * @param nColumns The number of columns
+	 */
+	private static native void addRows(JavaScriptObject rTable,
+									   int				nCount,
+									   int				nColumns) /*-{
+		var rows = rTable.rows, i, k;
+
+		for (i = 0; i < nCount; i++)
+		{
+			var cells = new Array(nColumns);
+
+			for (k = 0; k < nColumns; k++)
+			{
+				cells[k] = null;
+			}
+
+			rows.push({c: cells});
+		}
+	}-*/;
+
+	/***************************************
+	 * Creates a new data table from a table literal.
+	 *
+	 * @param  rTable The table literal
+	 *
+	 * @return The new data table
+	 */
+	private static native DataTable createDataTable(
+		JavaScriptObject rTable) /*-{
+		return new $wnd.google.visualization.DataTable(rTable);
+	}-*/;
+
+	/***************************************
+	 * Creates an empty table literal.
+	 *
+	 * @return The table literal
+	 */
+	private static native JavaScriptObject createTable() /*-{
+		return {cols: [], rows: []};
+	}-*/;
+
+	/***************************************
+	 * Sets the formatted value of a cell in a table literal.
+	 *
+	 * @param rTable     The table literal
+	 * @param nRow       The row index
+	 * @param nCol       The column index
+	 * @param sFormatted The formatted value
+	 */
+	private static native void setFormattedValue(
+		JavaScriptObject rTable,
+		int				 nRow,
+		int				 nCol,
+		String			 sFormatted) /*-{
+		var cells = rTable.rows[nRow].c;
+
+		if (cells[nCol])
+		{
+			cells[nCol].f = sFormatted;
+		}
+		else
+		{
+			cells[nCol] = {v: null, f: sFormatted};
+		}
+	}-*/;
+
+	/***************************************
+	 * Sets a row property in a table literal.
+	 *
+	 * @param rTable The table literal
+	 * @param nRow   The row index
+	 * @param sName  The property name
+	 * @param sValue The property value
+	 */
+	private static native void setRowProperty(JavaScriptObject rTable,
+											  int			   nRow,
+											  String		   sName,
+											  String		   sValue) /*-{
+		var row = rTable.rows[nRow];
+
+		(row.p || (row.p = {}))[sName] = sValue;
+	}-*/;
+
+	/***************************************
+	 * Sets a numeric cell value in a table literal.
+	 *
+	 * @param rTable The table literal
+	 * @param nRow   The row index
+	 * @param nCol   The column index
+	 * @param fValue The value
+	 */
+	private static native void setValue(JavaScriptObject rTable,
+										int				 nRow,
+										int				 nCol,
+										double			 fValue) /*-{
+		rTable.rows[nRow].c[nCol] = {v: fValue};
+	}-*/;
+
+	/***************************************
+	 * Sets a string cell value in a table literal.
+	 *
+	 * @param rTable The table literal
+	 * @param nRow   The row index
+	 * @param nCol   The column index
+	 * @param sValue The value
+	 */
+	private static native void setValue(JavaScriptObject rTable,
+										int				 nRow,
+										int				 nCol,
+										String			 sValue) /*-{
+		rTable.rows[nRow].c[nCol] = {v: sValue};
+	}-*/;
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addColumn(ColumnType eType, String sLabel)
+	{
+		addColumn(aTable, eType.getName(), sLabel);
+		nColumns++;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addRows(int nCount)
+	{
+		addRows(aTable, nCount, nColumns);
+	}
+
+	/***************************************
+	 * Returns the data table that has been built. The table will be created
+	 * on the first invocation.
+	 *
+	 * @return The data table
+	 */
+	public DataTable getDataTable()
+	{
+		if (aDataTable == null)
+		{
+			aDataTable = createDataTable(aTable);
+		}
+
+		return aDataTable;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setFormattedValue(int nRow, int nCol, String sFormatted)
+	{
+		setFormattedValue(aTable, nRow, nCol, sFormatted);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setRowProperty(int nRow, String sName, String sValue)
+	{
+		setRowProperty(aTable, nRow, sName, sValue);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(int nRow, int nCol, double fValue)
+	{
+		setValue(aTable, nRow, nCol, fValue);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(int nRow, int nCol, String sValue)
+	{
+		setValue(aTable, nRow, nCol, sValue);
+	}
+}
@@ -0,0 +1,129 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.function.Function;
+
+
+/********************************************************************
+ * A {@link ChartData} decorator that expands the resources in the labels of
+ * other chart data with a label function, e.g. an instance of {@link
+ * ChartLabelCache}. This is needed for renderers that draw the labels
+ * directly instead of converting the data into a chart API table.
+ *
+ * @author eso
+ */
+public class LabeledChartData implements ChartData
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final ChartData				   rData;
+	private final Function<String, String> fExpandResource;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param rData           The chart data to expand the labels of
+	 * @param fExpandResource The function that expands resources in labels
+	 */
+	public LabeledChartData(
+		ChartData				 rData,
+		Function<String, String> fExpandResource)
+	{
+		this.rData			 = rData;
+		this.fExpandResource = fExpandResource;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getColumnCount()
+	{
+		return rData.getColumnCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getColumnLabel(int nColumn)
+	{
+		return expand(rData.getColumnLabel(nColumn));
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowAxisLabel()
+	{
+		return expand(rData.getRowAxisLabel());
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRowCount()
+	{
+		return rData.getRowCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowLabel(int nRow)
+	{
+		return expand(rData.getRowLabel(nRow));
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getValue(int nRow, int nColumn)
+	{
+		return rData.getValue(nRow, nColumn);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isNull(int nRow, int nColumn)
+	{
+		return rData.isNull(nRow, nColumn);
+	}
+
+	/***************************************
+	 * Expands the resources in a label.
+	 *
+	 * @param  sLabel The label (may be NULL)
+	 *
+	 * @return The expanded label or NULL if the label is NULL
+	 */
+	private String expand(String sLabel)
+	{
+		return sLabel != null ? fExpandResource.apply(sLabel) : null;
+	}
+}
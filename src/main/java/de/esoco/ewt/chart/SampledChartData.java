@@ -0,0 +1,141 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+/********************************************************************
+ * A {@link ChartData} implementation that contains a subset of the rows of
+ * another chart data instance. The row labels are always taken from the
+ * original data. The values are either also taken from the original rows or,
+ * in the case of aggregated data, from separate value arrays.
+ *
+ * @author eso
+ */
+class SampledChartData implements ChartData
+{
+	//~ Instance fields --------------------------------------------------------
+
+	private final ChartData  rSource;
+	private final int[]		 rRows;
+	private final double[][] rValues;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance that refers to the values of the source data.
+	 *
+	 * @param rSource The source data
+	 * @param rRows   The indices of the source rows in this instance
+	 */
+	SampledChartData(ChartData rSource, int[] rRows)
+	{
+		this(rSource, rRows, null);
+	}
+
+	/***************************************
+	 * Creates a new instance with separate values.
+	 *
+	 * @param rSource The source data
+	 * @param rRows   The indices of the source rows in this instance
+	 * @param rValues The value columns (each with the length of the row array)
+	 *                or NULL to refer to the source values
+	 */
+	SampledChartData(ChartData rSource, int[] rRows, double[][] rValues)
+	{
+		this.rSource = rSource;
+		this.rRows   = rRows;
+		this.rValues = rValues;
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getColumnCount()
+	{
+		return rSource.getColumnCount();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getColumnLabel(int nColumn)
+	{
+		return rSource.getColumnLabel(nColumn);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowAxisLabel()
+	{
+		return rSource.getRowAxisLabel();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRowCount()
+	{
+		return rRows.length;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRowLabel(int nRow)
+	{
+		return rSource.getRowLabel(rRows[nRow]);
+	}
+
+	/***************************************
+	 * Returns the index of a row in the source data.
+	 *
+	 * @param  nRow The row index in this instance
+	 *
+	 * @return The corresponding source row index
+	 */
+	public int getSourceRow(int nRow)
+	{
+		return rRows[nRow];
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getValue(int nRow, int nColumn)
+	{
+		return rValues != null ? rValues[nColumn][nRow]
+							   : rSource.getValue(rRows[nRow], nColumn);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isNull(int nRow, int nColumn)
+	{
+		return rValues != null ? Double.isNaN(rValues[nColumn][nRow])
+							   : rSource.isNull(rRows[nRow], nColumn);
+	}
+}
@@ -18,6 +18,45 @@ package de.esoco.ewt.component;
 
 import de.esoco.ewt.EWT;
 import de.esoco.ewt.UserInterfaceContext;
+import de.esoco.ewt.chart.CanvasChartRenderer;
+import de.esoco.ewt.chart.ChartAggregation;
+import de.esoco.ewt.chart.ChartApiLoader;
+import de.esoco.ewt.chart.ChartApiLoader.ApiClient;
+import de.esoco.ewt.chart.ChartData;
+import de.esoco.ewt.chart.ChartDataCodec;
+import de.esoco.ewt.chart.ChartDataModel;
+import de.esoco.ewt.chart.ChartDataModel.ModelListener;
+import de.esoco.ewt.chart.ChartDataProvider;
+import de.esoco.ewt.chart.ChartDataView;
+import de.esoco.ewt.chart.ChartDataWindow;
+import de.esoco.ewt.chart.ChartDataWorker;
+import de.esoco.ewt.chart.ChartDataWorker.ResultHandler;
+import de.esoco.ewt.chart.ChartDownsampling;
+import de.esoco.ewt.chart.ChartElement;
+import de.esoco.ewt.chart.ChartFacts;
+import de.esoco.ewt.chart.ChartFingerprint;
+import de.esoco.ewt.chart.ChartLabelCache;
+import de.esoco.ewt.chart.ChartMetrics;
+import de.esoco.ewt.chart.ChartMetrics.Phase;
+import de.esoco.ewt.chart.ChartNetwork;
+import de.esoco.ewt.chart.ChartPainter.Shape;
+import de.esoco.ewt.chart.ChartPointerEvents;
+import de.esoco.ewt.chart.ChartPointerEvents.PointerEventListener;
+import de.esoco.ewt.chart.ChartSelection;
+import de.esoco.ewt.chart.ChartTableConverter;
+import de.esoco.ewt.chart.ChartTileCache;
+import de.esoco.ewt.chart.ChartTileCache.TileListener;
+import de.esoco.ewt.chart.ChartVisibilityTracker;
+import de.esoco.ewt.chart.ChartVisibilityTracker.Visibility;
+import de.esoco.ewt.chart.ChartVisibilityTracker.VisibilityListener;
+import de.esoco.ewt.chart.ColumnarChartData;
+import de.esoco.ewt.chart.CompositeChartData;
+import de.esoco.ewt.chart.DataSetChartData;
+import de.esoco.ewt.chart.DataSetFacts;
+import de.esoco.ewt.chart.DataSetNodeData;
+import de.esoco.ewt.chart.DataTableBuilder;
+import de.esoco.ewt.chart.JsArrayTableBuilder;
+import de.esoco.ewt.chart.LabeledChartData;
 import de.esoco.ewt.event.EventType;
 import de.esoco.ewt.impl.gwt.GewtResources;
 import de.esoco.ewt.impl.gwt.WidgetFactory;
@@ -28,19 +67,46 @@ import de.esoco.lib.property.Color;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.event.dom.client.MouseDownEvent;
+import com.google.gwt.event.dom.client.MouseDownHandler;
+import com.google.gwt.event.dom.client.MouseMoveEvent;
+import com.google.gwt.event.dom.client.MouseMoveHandler;
+import com.google.gwt.event.dom.client.MouseUpEvent;
+import com.google.gwt.event.dom.client.MouseUpHandler;
+import com.google.gwt.event.dom.client.MouseWheelEvent;
+import com.google.gwt.event.dom.client.MouseWheelHandler;
+import com.google.gwt.event.logical.shared.AttachEvent;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.i18n.client.LocaleInfo;
+import com.google.gwt.user.client.DOM;
+import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.HTML;
 import com.google.gwt.user.client.ui.HasWidgets;
 import com.google.gwt.user.client.ui.SimplePanel;
 import com.google.gwt.user.client.ui.Widget;
 
-import com.googlecode.gwt.charts.client.ChartLoader;
 import com.googlecode.gwt.charts.client.ChartPackage;
 import com.googlecode.gwt.charts.client.ChartWidget;
-import com.googlecode.gwt.charts.client.ColumnType;
+import com.googlecode.gwt.charts.client.DataSource;
 import com.googlecode.gwt.charts.client.DataTable;
+import com.googlecode.gwt.charts.client.DataView;
 import com.googlecode.gwt.charts.client.Properties;
+import com.googlecode.gwt.charts.client.Selection;
 import com.googlecode.gwt.charts.client.corechart.AreaChart;
 import com.googlecode.gwt.charts.client.corechart.AreaChartOptions;
 import com.googlecode.gwt.charts.client.corechart.BarChart;
@@ -73,6 +139,8 @@ import com.googlecode.gwt.charts.client.options.DisplayMode;
 import com.googlecode.gwt.charts.client.options.Legend;
 import com.googlecode.gwt.charts.client.options.LegendPosition;
 import com.googlecode.gwt.charts.client.options.Options;
+import com.googlecode.gwt.charts.client.orgchart.OrgChart;
+import com.googlecode.gwt.charts.client.orgchart.OrgChartOptions;
 
 
 /********************************************************************
@@ -84,6 +152,17 @@ public class Chart extends Component
 {
 	//~ Enums ------------------------------------------------------------------
 
+	/********************************************************************
+	 * The available rendering backends of a chart. {@link #CHART_API}
+	 * renders all chart types with the (SVG-based) widgets of the chart API.
+	 * {@link #CANVAS} draws the chart types that support it (see {@link
+	 * ChartType#getCanvasShape()}) onto an HTML5 canvas which is much faster
+	 * for very large series but doesn't support interactive features like
+	 * tooltips and selection events. Other chart types and browsers without
+	 * canvas support will still use the chart API.
+	 */
+	public enum ChartBackend { CHART_API, CANVAS }
+
 	/********************************************************************
 	 * The available positions for the chart legend.
 	 */
@@ -123,6 +202,19 @@ public class Chart extends Component
 			{
 				return new AreaChart();
 			}
+
+			@Override
+			public Shape getCanvasShape()
+			{
+				return Shape.AREA;
+			}
+
+			@Override
+			public ChartDownsampling getDefaultDownsampling()
+			{
+				return ChartDownsampling.LTTB;
+			}
+
 			@Override
 			public Options createOptions(boolean b3D)
 			{
@@ -137,6 +229,18 @@ public class Chart extends Component
 				return new BarChart();
 			}
 
+			@Override
+			public Shape getCanvasShape()
+			{
+				return Shape.BAR;
+			}
+
+			@Override
+			public ChartDownsampling getDefaultDownsampling()
+			{
+				return ChartDownsampling.AVERAGE;
+			}
+
 			@Override
 			public Options createOptions(boolean b3D)
 			{
@@ -150,6 +254,19 @@ public class Chart extends Component
 			{
 				return new ColumnChart();
 			}
+
+			@Override
+			public Shape getCanvasShape()
+			{
+				return Shape.COLUMN;
+			}
+
+			@Override
+			public ChartDownsampling getDefaultDownsampling()
+			{
+				return ChartDownsampling.AVERAGE;
+			}
+
 			@Override
 			public Options createOptions(boolean b3D)
 			{
@@ -163,6 +280,13 @@ public class Chart extends Component
 			{
 				return new Gauge();
 			}
+
+			@Override
+			public ChartPackage getChartPackage()
+			{
+				return ChartPackage.GAUGE;
+			}
+
 			@Override
 			public Options createOptions(boolean b3D)
 			{
@@ -177,6 +301,12 @@ public class Chart extends Component
 				return new InternalGeoChart();
 			}
 
+			@Override
+			public ChartPackage getChartPackage()
+			{
+				return ChartPackage.GEOCHART;
+			}
+
 			@Override
 			public GeoChartOptions createOptions(boolean b3D)
 			{
@@ -200,13 +330,71 @@ public class Chart extends Component
 			{
 				return new LineChart();
 			}
+
+			@Override
+			public Shape getCanvasShape()
+			{
+				return Shape.LINE;
+			}
+
+			@Override
+			public ChartDownsampling getDefaultDownsampling()
+			{
+				return ChartDownsampling.LTTB;
+			}
+
 			@Override
 			public Options createOptions(boolean b3D)
 			{
 				return LineChartOptions.create();
 			}
 		},
+		NETWORK()
+		{
+			@Override
+			public ChartWidget<?> createChart()
+			{
+				return new OrgChart();
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public List<DataTable> createChartData(
+				UserInterfaceContext rContext,
+				DataSet<?>			 rData)
+			{
+				DataSet<String> rNodes = (DataSet<String>) rData;
+				ChartNetwork    aNetwork =
+					new ChartNetwork(new DataSetNodeData(rNodes));
+
+				return Arrays.asList(createNetworkTable(aNetwork));
+			}
+
+			@Override
+			public ChartPackage getChartPackage()
+			{
+				return ChartPackage.ORGCHART;
+			}
+
+			@Override
+			public OrgChartOptions createOptions(boolean b3D)
+			{
+				OrgChartOptions aOptions = OrgChartOptions.create();
+
+				aOptions.setAllowHtml(true);
+
+				return aOptions;
+			}
 
+			@Override
+			public boolean updateChartData(UserInterfaceContext rContext,
+										   List<DataTable>		rTables,
+										   DataSet<?>			rPrevData,
+										   DataSet<?>			rNewData)
+			{
+				return false;
+			}
+		},
 		PIE()
 		{
 			@Override
@@ -261,6 +449,71 @@ public class Chart extends Component
 			return Arrays.asList(createDataTable(rContext, rData));
 		}
 
+		/***************************************
+		 * Returns the shape that is drawn for this chart type by the canvas
+		 * backend. The default implementation returns NULL to indicate that
+		 * the chart type can only be rendered by the chart API.
+		 *
+		 * @return The canvas shape or NULL if not supported
+		 */
+		public Shape getCanvasShape()
+		{
+			return null;
+		}
+
+		/***************************************
+		 * Returns the package of the chart API that must be loaded to display
+		 * this chart type. The default implementation returns {@link
+		 * ChartPackage#CORECHART}.
+		 *
+		 * @return The chart package
+		 */
+		public ChartPackage getChartPackage()
+		{
+			return ChartPackage.CORECHART;
+		}
+
+		/***************************************
+		 * Returns the downsampling that is applied to large data of this chart
+		 * type if no explicit downsampling has been set on a chart. The
+		 * default implementation returns {@link ChartDownsampling#NONE}
+		 * because chart types that display categories (like pie charts)
+		 * cannot be sampled.
+		 *
+		 * @return The default downsampling
+		 */
+		public ChartDownsampling getDefaultDownsampling()
+		{
+			return ChartDownsampling.NONE;
+		}
+
+		/***************************************
+		 * Tries to update existing data tables that had been created by {@link
+		 * #createChartData(UserInterfaceContext, DataSet)} in place so that
+		 * they reflect new data. The default implementation patches a single
+		 * data table with {@link Chart#updateDataTable(UserInterfaceContext,
+		 * DataTable, DataSet, DataSet)}.
+		 *
+		 * @param  rContext  The user interface context for resource expansion
+		 * @param  rTables   The data tables to update
+		 * @param  rPrevData The data set the tables had been created from
+		 * @param  rNewData  The new data set
+		 *
+		 * @return TRUE if the tables have been updated, FALSE if they must be
+		 *         re-created because the data layout has changed
+		 */
+		boolean updateChartData(UserInterfaceContext rContext,
+								List<DataTable>		 rTables,
+								DataSet<?>			 rPrevData,
+								DataSet<?>			 rNewData)
+		{
+			return rTables.size() == 1 &&
+				   updateDataTable(rContext,
+								   rTables.get(0),
+								   rPrevData,
+								   rNewData);
+		}
+
 		/***************************************
 		 * Creates a new instance of the options subclass for this chart type.
 		 * The default implementation returns a new instance of {@link Options}
@@ -280,10 +533,23 @@ public class Chart extends Component
 
 	//~ Static fields/initializers ---------------------------------------------
 
-	// static fields for chart API loading
-	private static ChartLoader aChartLoader    = null;
-	private static boolean     bChartApiLoaded = false;
-	private static List<Chart> aDeferredCharts = new ArrayList<>();
+	/**
+	 * The distance in pixels from the viewport at which lazily rendered
+	 * charts will be drawn.
+	 */
+	private static final int LAZY_RENDERING_PRELOAD_DISTANCE = 200;
+
+	/** The factor by which a mouse wheel step zooms out of a chart. */
+	private static final double ZOOM_STEP = 1.25;
+
+	// static pool of chart widgets released by charts
+	private static Map<ChartType, List<ChartEventDispatcher>> aWidgetPool =
+		new EnumMap<>(ChartType.class);
+	private static int nMaxPooledWidgets = 0;
+
+	// static fields for coalescing repaints
+	private static Set<Chart>	   aRepaintCharts = new LinkedHashSet<>();
+	private static AnimationHandle rRepaintFrame  = null;
 
 	static
 	{
@@ -292,7 +558,9 @@ public class Chart extends Component
 
 	//~ Instance fields --------------------------------------------------------
 
-	private ChartWidget<?> aChartWidget;
+	private ChartWidget<?>		aChartWidget;
+	private ChartBackend		eBackend		= ChartBackend.CHART_API;
+	private CanvasChartRenderer aCanvasRenderer = null;
 
 	private ChartType		    eChartType;
 	private ChartLegendPosition eLegendPosition;
@@ -301,315 +569,2019 @@ public class Chart extends Component
 	private boolean bIs3D			 = false;
 	private boolean bIsStacked		 = false;
 
-	private DataSet<?>	    rChartData;
-	private List<DataTable> aDataTables;
-	private Options		    aOptions;
-
-	//~ Static methods ---------------------------------------------------------
-
-	/***************************************
-	 * Creates a single chart data table from a data set.
-	 *
-	 * @param  rContext The user interface context for resource expansion
-	 * @param  rDataSet The data set to create the data table from
-	 *
-	 * @return The new data table instance
-	 */
-	@SuppressWarnings("boxing")
-	static DataTable createDataTable(
-		UserInterfaceContext rContext,
-		DataSet<?>			 rDataSet)
-	{
-		DataTable aDataTable = DataTable.create();
-
-		int nRows = rDataSet.getRowCount();
-		int nCols = rDataSet.getColumnCount();
+	private ChartDownsampling eDownsampling   = null;
+	private int				  nMaxDisplayRows = 0;
+	private int				  nFirstRow		  = 0;
+	private int				  nRowCount		  = -1;
+	private boolean			  bSampled		  = false;
+	private int				  nUnsampledRows  = 0;
 
-		String sRowAxisLabel =
-			rContext.expandResource(rDataSet.getRowAxisLabel());
+	private Map<ChartType, ChartEventDispatcher> aChartWidgets =
+		new EnumMap<>(ChartType.class);
+	private Map<ChartType, Options>				 aChartOptions =
+		new EnumMap<>(ChartType.class);
 
-		aDataTable.addColumn(ColumnType.STRING, sRowAxisLabel);
-
-		aDataTable.addRows(nRows);
-
-		for (int nRow = 0; nRow < nRows; nRow++)
-		{
-			String sLabel = rDataSet.getRowLabel(nRow);
-
-			aDataTable.setValue(nRow, 0, rContext.expandResource(sLabel));
-		}
-
-		for (int nCol = 0; nCol < nCols; nCol++)
+	private ApiClient aApiClient =
+		new ApiClient()
 		{
-			String sLabel =
-				rContext.expandResource(rDataSet.getColumnLabel(nCol));
-
-			if (sLabel != null)
-			{
-				aDataTable.addColumn(ColumnType.NUMBER, sLabel);
-			}
-			else
+			@Override
+			public void chartApiFailed(ChartPackage ePackage)
 			{
-				aDataTable.addColumn(ColumnType.NUMBER);
+				// will be retried on the next repaint
+				GWT.log("Loading chart package failed: " + ePackage);
+
+				aChartWidget = null;
+				setShownFingerprint(null, false);
+				showNoDataLabel();
 			}
 
-			for (int nRow = 0; nRow < nRows; nRow++)
+			@Override
+			public void chartApiLoaded()
 			{
-				Object rValue = rDataSet.getValue(nRow, nCol);
-
-				if (rValue instanceof Double)
-				{
-					aDataTable.setValue(nRow, nCol + 1, (Double) rValue);
-				}
-				else
+				if (fApiRequestTime >= 0)
 				{
-					aDataTable.setValue(nRow, nCol + 1, (Integer) rValue);
+					recordTiming(Phase.API_LOAD, fApiRequestTime, 0, 0);
+					fApiRequestTime = -1;
 				}
-			}
-		}
 
-		return aDataTable;
-	}
-
-	/***************************************
-	 * Creates a network chart data table from a data set.
-	 *
-	 * @param  rDataSet The data set to create the data table from
-	 *
-	 * @return The new data table instance
-	 */
-	static List<DataTable> createNetworkChartTables(DataSet<String> rDataSet)
-	{
-		DataTable aDataTable     = DataTable.create();
-		DataTable aRelationTable = DataTable.create();
+				repaint();
+			}
+		};
 
-		int nRows		 = rDataSet.getRowCount();
-		int nRelationRow = 0;
+	private ChartPointerEvents aPointerEvents =
+		new ChartPointerEvents(new PointerEventListener()
+			{
+				@Override
+				public void pointerEvent(EventType eEventType, Object rElement)
+				{
+					notifyEventHandler(eEventType, rElement, null);
+				}
+			});
 
-		aDataTable.addRows(nRows);
+	private ChartMetrics rMetrics		 = null;
+	private double		 fApiRequestTime = -1;
 
-		aDataTable.addColumn(ColumnType.STRING, "id");
-		aDataTable.addColumn(ColumnType.STRING, "text");
-		aDataTable.addColumn(ColumnType.STRING, "style");
-		aDataTable.addColumn(ColumnType.STRING, "image");
+	private ChartVisibilityTracker aVisibilityTracker = null;
+	private HandlerRegistration    rAttachHandler     = null;
+	private boolean				   bRepaintPending    = false;
 
-		aRelationTable.addColumn(ColumnType.STRING, "from");
-		aRelationTable.addColumn(ColumnType.STRING, "to");
+	private DataSet<?>	    rChartData;
+	private ChartData	    rNumericData;
+	private ChartData	    rTableData;
+	private ChartData	    rEncodedData;
+	private String		    sEncodedData;
+	private List<DataTable> aDataTables;
+	private DataView	    rDrawView;
+	private Options		    aOptions;
 
-		for (int nRow = 0; nRow < nRows; nRow++)
+	private boolean   bAsyncPreparation = false;
+	private boolean   bPreparing	    = false;
+	private int		  nDataRevision     = 0;
+	private int		  nPendingJob	    = -1;
+	private String    sPendingKey	    = null;
+	private String    sPreparedKey	    = null;
+	private ChartData rPreparedData     = null;
+
+	private ChartFacts		 rFactData;
+	private ChartAggregation rAggregation;
+
+	private ChartTileCache rTileCache;
+	private ZoomPanHandler aZoomPanHandler;
+	private double		   fVisibleStart;
+	private double		   fVisibleEnd;
+	private boolean		   bQueryTiles;
+
+	private TileListener aTileListener =
+		new TileListener()
 		{
-			String sNodeId   = rDataSet.getValue(nRow, 0);
-			String sParentId = rDataSet.getValue(nRow, 1);
-			String sText     = rDataSet.getValue(nRow, 2);
-			String sStyle    = rDataSet.getValue(nRow, 3);
-
-			aDataTable.setValue(nRow, 0, sNodeId);
-			aDataTable.setValue(nRow, 1, sText);
-
-			if (sStyle.startsWith("image"))
-			{
-				String sImage = sStyle.substring(sStyle.indexOf(':') + 1);
-
-				aDataTable.setValue(nRow, 2, "image");
-				aDataTable.setValue(nRow, 3, sImage);
-			}
-			else
+			@Override
+			public void tileLoaded()
 			{
-				aDataTable.setValue(nRow, 2, sStyle);
+				bQueryTiles = true;
+				repaint();
 			}
+		};
+
+	private ChartDataModel rDataModel;
+	private ChartDataView  rDataView;
 
-			if (sParentId != null)
+	private boolean						  bSkipUnchanged	   = true;
+	private int							  nMaxCachedCharts     = 0;
+	private Map<ChartFingerprint, String> aRenderCache		   = null;
+	private ChartFingerprint			  rDataFingerprint     = null;
+	private int							  nFingerprintRevision = -1;
+	private ChartFingerprint			  rShownFingerprint    = null;
+	private boolean						  bShownCacheable	   = false;
+
+	private ModelListener aModelListener =
+		new ModelListener()
+		{
+			@Override
+			public void dataModelChanged(ChartDataModel rModel)
 			{
-				aRelationTable.addRow();
-				aRelationTable.setValue(nRelationRow, 0, sParentId);
-				aRelationTable.setValue(nRelationRow, 1, sNodeId);
-				nRelationRow++;
+				aChartWidget = null;
+				repaint();
 			}
-		}
+		};
 
-		return Arrays.asList(aDataTable, aRelationTable);
-	}
+	private ChartNetwork rNetworkData;
+	private int[]		 rDrawnNodes;
+	private int			 nDrawnNodeCount;
+	private int			 nDrawnModCount;
+	private int			 nDrawnLayoutCount;
 
-	//~ Methods ----------------------------------------------------------------
+	//~ Static methods ---------------------------------------------------------
 
 	/***************************************
-	 * Returns the background color.
+	 * Creates a single chart data table from a data set. The data set values
+	 * must be either NULL or instances of {@link Number}.
 	 *
-	 * @return The background color
+	 * @param  rContext The user interface context for resource expansion
+	 * @param  rDataSet The data set to create the data table from
+	 *
+	 * @return The new data table instance
 	 */
-	@Override
-	public final Color getBackgroundColor()
+	static DataTable createDataTable(
+		UserInterfaceContext rContext,
+		DataSet<?>			 rDataSet)
 	{
-		return Color.valueOf(sBackgroundColor);
+		return createDataTable(rContext, new DataSetChartData(rDataSet));
 	}
 
 	/***************************************
-	 * Returns the chart type.
+	 * Creates a single chart data table from numeric chart data.
 	 *
-	 * @return The chart type
+	 * @param  rContext The user interface context for resource expansion
+	 * @param  rData    The chart data to create the data table from
+	 *
+	 * @return The new data table instance
 	 */
-	public final ChartType getChartType()
+	static DataTable createDataTable(
+		UserInterfaceContext rContext,
+		ChartData			 rData)
 	{
-		return eChartType;
+		JsArrayTableBuilder aBuilder = new JsArrayTableBuilder();
+
+		ChartTableConverter.convertData(rData,
+										getLabelCache(rContext),
+										aBuilder);
+
+		return aBuilder.getDataTable();
 	}
 
 	/***************************************
-	 * Returns the legend position.
+	 * Creates a network chart data table from a data set.
 	 *
-	 * @return The legend position
+	 * @param  rDataSet The data set to create the data table from
+	 *
+	 * @return The new data table instance
 	 */
-	public final ChartLegendPosition getLegendPosition()
+	static List<DataTable> createNetworkChartTables(DataSet<String> rDataSet)
 	{
-		return eLegendPosition;
-	}
+		JsArrayTableBuilder aNodeTable     = new JsArrayTableBuilder();
+		JsArrayTableBuilder aRelationTable = new JsArrayTableBuilder();
 
-	/***************************************
-	 * {@inheritDoc}
-	 */
-	@Override
-	public void initWidget(Container rParent, StyleData rStyle)
-	{
-		super.initWidget(rParent, rStyle);
+		ChartTableConverter.convertNetwork(new DataSetNodeData(rDataSet),
+										   aNodeTable,
+										   aRelationTable);
 
-		setDefaultStyleName(GewtResources.INSTANCE.css().ewtChart());
+		return Arrays.asList(aNodeTable.getDataTable(),
+							 aRelationTable.getDataTable());
 	}
 
 	/***************************************
-	 * Returns TRUE if the chart is rendered in 3D.
+	 * Creates a data table for the visible nodes of a network chart.
 	 *
-	 * @return The 3D flag
+	 * @param  rNetwork The network
+	 *
+	 * @return The new data table
 	 */
-	public final boolean is3D()
+	static DataTable createNetworkTable(ChartNetwork rNetwork)
 	{
-		return bIs3D;
+		JsArrayTableBuilder aBuilder = new JsArrayTableBuilder();
+
+		ChartTableConverter.convertNetworkTree(rNetwork, aBuilder);
+
+		return aBuilder.getDataTable();
 	}
 
 	/***************************************
-	 * Returns TRUE if the chart is displayed stacked.
+	 * Returns the label cache of a user interface context for the current
+	 * locale.
 	 *
-	 * @return The stacked flag
+	 * @param  rContext The user interface context
+	 *
+	 * @return The label cache
 	 */
-	public final boolean isStacked()
+	static ChartLabelCache getLabelCache(UserInterfaceContext rContext)
 	{
-		return bIsStacked;
+		ChartLabelCache rCache = ChartLabelCache.get(rContext);
+
+		rCache.setLocale(LocaleInfo.getCurrentLocale().getLocaleName());
+
+		return rCache;
 	}
 
 	/***************************************
-	 * @see de.esoco.ewt.component.Component#repaint()
+	 * Sets the label and the values of a chart data row into a data table
+	 * row. Undefined values will be left empty.
+	 *
+	 * @param rContext   The user interface context for resource expansion
+	 * @param rDataTable The data table
+	 * @param nTableRow  The index of the data table row
+	 * @param rData      The chart data
+	 * @param nDataRow   The index of the chart data row
 	 */
-	@Override
-	@SuppressWarnings("unchecked")
-	public void repaint()
+	static void setDataTableRow(UserInterfaceContext rContext,
+								DataTable			 rDataTable,
+								int					 nTableRow,
+								ChartData			 rData,
+								int					 nDataRow)
 	{
-		if (!bChartApiLoaded)
-		{
-			aDeferredCharts.add(this);
-
-			if (aChartLoader == null)
-			{
-				loadChartApi(ChartPackage.CORECHART, ChartPackage.GEOCHART);
-			}
-		}
-		else
-		{
-			if (aChartWidget == null)
-			{
-				init();
-			}
+		ChartLabelCache rLabels = getLabelCache(rContext);
+		int				nCols   = rData.getColumnCount();
+		String			sLabel  = rData.getRowLabel(nDataRow);
 
-			if (aOptions instanceof GeoChartOptions)
-			{
-				// not working if set before...
-				((GeoChartOptions) aOptions).hideLegend();
-			}
+		rDataTable.setValue(nTableRow, 0, rLabels.apply(sLabel));
 
-			if (aChartWidget != null)
+		for (int nCol = 0; nCol < nCols; nCol++)
+		{
+			if (!rData.isNull(nDataRow, nCol))
 			{
-				((ChartWidget<Options>) aChartWidget).draw(aDataTables.get(0),
-														   aOptions);
+				rDataTable.setValue(nTableRow,
+									nCol + 1,
+									rData.getValue(nDataRow, nCol));
 			}
 		}
 	}
 
 	/***************************************
-	 * Sets the 3D display state of certain charts.
+	 * Sets a data set value into a cell of a data table. The value must either
+	 * be NULL or a {@link Number} of arbitrary type. NULL values will be set
+	 * as undefined table values.
 	 *
-	 * @param b3D The 3D display flag
+	 * @param rDataTable The data table
+	 * @param nRow       The row index
+	 * @param nCol       The column index
+	 * @param rValue     The data set value
 	 */
-	public final void set3D(boolean b3D)
+	static void setDataTableValue(DataTable rDataTable,
+								  int		nRow,
+								  int		nCol,
+								  Object	rValue)
 	{
-		bIs3D = b3D;
+		if (rValue instanceof Integer)
+		{
+			rDataTable.setValue(nRow, nCol, ((Integer) rValue).intValue());
+		}
+		else if (rValue != null)
+		{
+			rDataTable.setValue(nRow,
+								nCol,
+								((Number) rValue).doubleValue());
+		}
+		else
+		{
+			rDataTable.setValueNull(nRow, nCol);
+		}
+	}
+
+	/***************************************
+	 * Updates a data table that has been created by {@link
+	 * #createDataTable(UserInterfaceContext, DataSet)} in place by applying
+	 * only the differences between the previous and the new data set. This is
+	 * only possible if the column layout of both data sets is the same. If the
+	 * new data set has a different row count rows will be added or removed at
+	 * the end of the table.
+	 *
+	 * @param  rContext   The user interface context for resource expansion
+	 * @param  rDataTable The data table to update
+	 * @param  rPrevData  The data set the table has been created from
+	 * @param  rNewData   The new data set
+	 *
+	 * @return TRUE if the table has been updated, FALSE if the column layout
+	 *         has changed and the table must be re-created
+	 */
+	static boolean updateDataTable(UserInterfaceContext rContext,
+								   DataTable			rDataTable,
+								   DataSet<?>			rPrevData,
+								   DataSet<?>			rNewData)
+	{
+		if (rPrevData == null || rNewData == null)
+		{
+			return false;
+		}
+
+		int nCols     = rNewData.getColumnCount();
+		int nPrevRows = rPrevData.getRowCount();
+		int nNewRows  = rNewData.getRowCount();
+
+		if (nPrevRows == 0 || nNewRows == 0 ||
+			nCols != rPrevData.getColumnCount() ||
+			rDataTable.getNumberOfRows() != nPrevRows ||
+			!equal(rNewData.getRowAxisLabel(), rPrevData.getRowAxisLabel()))
+		{
+			return false;
+		}
+
+		for (int nCol = 0; nCol < nCols; nCol++)
+		{
+			if (!equal(rNewData.getColumnLabel(nCol),
+					   rPrevData.getColumnLabel(nCol)))
+			{
+				return false;
+			}
+		}
+
+		ChartLabelCache rLabels = getLabelCache(rContext);
+
+		// a data set that has been modified in place cannot be compared
+		boolean bCompare = (rNewData != rPrevData);
+		int     nCompare = bCompare ? Math.min(nPrevRows, nNewRows) : 0;
+
+		if (nNewRows > nPrevRows)
+		{
+			rDataTable.addRows(nNewRows - nPrevRows);
+		}
+		else if (nNewRows < nPrevRows)
+		{
+			rDataTable.removeRows(nNewRows, nPrevRows - nNewRows);
+		}
+
+		for (int nRow = 0; nRow < nNewRows; nRow++)
+		{
+			boolean bChanged = nRow >= nCompare;
+			String  sLabel   = rNewData.getRowLabel(nRow);
+
+			if (bChanged || !equal(sLabel, rPrevData.getRowLabel(nRow)))
+			{
+				rDataTable.setValue(nRow, 0, rLabels.apply(sLabel));
+			}
+
+			for (int nCol = 0; nCol < nCols; nCol++)
+			{
+				Object rValue = rNewData.getValue(nRow, nCol);
+
+				if (bChanged ||
+					!equal(rValue, rPrevData.getValue(nRow, nCol)))
+				{
+					setDataTableValue(rDataTable, nRow, nCol + 1, rValue);
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/***************************************
+	 * Sets the maximum number of chart widgets per chart type that are kept
+	 * in a global pool after they have been released by a chart (e.g. when a
+	 * lazily rendered chart is scrolled far away). Pooled widgets will be
+	 * reused by other charts of the same type instead of creating new ones.
+	 * The default value of zero disables pooling.
+	 *
+	 * @param nMaxWidgets The maximum number of pooled widgets per chart type
+	 */
+	public static void setWidgetPoolSize(int nMaxWidgets)
+	{
+		nMaxPooledWidgets = nMaxWidgets;
+
+		for (List<ChartEventDispatcher> rPooled : aWidgetPool.values())
+		{
+			while (rPooled.size() > nMaxWidgets)
+			{
+				rPooled.remove(rPooled.size() - 1);
+			}
+		}
+	}
+
+	/***************************************
+	 * Draws all charts for which {@link #repaint()} has been invoked since the
+	 * last animation frame.
+	 */
+	private static void drawRepaintedCharts()
+	{
+		List<Chart> aCharts = new ArrayList<>(aRepaintCharts);
+
+		aRepaintCharts.clear();
+		rRepaintFrame = null;
+
+		for (Chart rChart : aCharts)
+		{
+			rChart.draw();
+		}
+	}
+
+	/***************************************
+	 * Null-safe comparison of two objects.
+	 *
+	 * @param  rFirst  The first object
+	 * @param  rSecond The second object
+	 *
+	 * @return TRUE if both objects are NULL or equal
+	 */
+	private static boolean equal(Object rFirst, Object rSecond)
+	{
+		return rFirst == null ? rSecond == null : rFirst.equals(rSecond);
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Appends a row to the sliding data window of this chart. The chart must
+	 * have been set to streaming mode with {@link
+	 * #setDataWindow(ChartDataWindow)} before. If the window is full the
+	 * oldest row will be removed. If the chart is already displayed only the
+	 * new row will be added to the existing data table so that the cost of an
+	 * update is independent of the window size. If the window is displayed
+	 * downsampled it will only be re-sampled after enough rows have been
+	 * appended to fill a sampling bucket because the sampled chart cannot
+	 * show changes at a finer resolution. Like the other data modifying
+	 * methods this will only be displayed after the next {@link #repaint()}.
+	 *
+	 * @param sRowLabel The label of the new row
+	 * @param rValues   The row values (NaN for undefined values)
+	 */
+	public void appendData(String sRowLabel, double... rValues)
+	{
+		if (!(rNumericData instanceof ChartDataWindow))
+		{
+			throw new IllegalStateException("No data window set");
+		}
+
+		ChartDataWindow rDataWindow = (ChartDataWindow) rNumericData;
+		int			    nRemoved    = rDataWindow.append(sRowLabel, rValues);
+
+		if (rDataFingerprint != null && nFingerprintRevision == nDataRevision)
+		{
+			// update incrementally to keep appending independent of the size
+			rDataFingerprint =
+				rDataFingerprint.appendRow(sRowLabel, rValues)
+								.removeRows(nRemoved);
+			nFingerprintRevision++;
+		}
+
+		nDataRevision++;
+
+		if (bSampled)
+		{
+			int nSampled = aDataTables.get(0).getNumberOfRows();
+			int nBucket  =
+				nSampled > 0 ? Math.max(rDataWindow.getRowCount() / nSampled, 1)
+							 : 1;
+
+			// sampled tables must be re-sampled from the full window
+			if (++nUnsampledRows >= nBucket)
+			{
+				aChartWidget = null;
+			}
+		}
+		else if (aChartWidget != null &&
+				 isSamplingRequired(rDataWindow.getRowCount()))
+		{
+			// the window has outgrown the chart and must be sampled now
+			aChartWidget = null;
+		}
+		else if (aChartWidget != null)
+		{
+			DataTable rDataTable = aDataTables.get(0);
+
+			if (nRemoved > 0)
+			{
+				rDataTable.removeRows(0, nRemoved);
+			}
+
+			int nNewRow = rDataTable.addRow();
+
+			setDataTableRow(getContext(),
+							rDataTable,
+							nNewRow,
+							rDataWindow,
+							rDataWindow.getRowCount() - 1);
+		}
+	}
+
+	/***************************************
+	 * Returns the background color.
+	 *
+	 * @return The background color
+	 */
+	@Override
+	public final Color getBackgroundColor()
+	{
+		return Color.valueOf(sBackgroundColor);
+	}
+
+	/***************************************
+	 * Returns the aggregation of the fact data.
+	 *
+	 * @return The aggregation or NULL if no fact data has been set
+	 */
+	public final ChartAggregation getAggregation()
+	{
+		return rFactData != null ? rAggregation : null;
+	}
+
+	/***************************************
+	 * Returns the rendering backend.
+	 *
+	 * @return The rendering backend
+	 */
+	public final ChartBackend getBackend()
+	{
+		return eBackend;
+	}
+
+	/***************************************
+	 * Returns the chart type.
+	 *
+	 * @return The chart type
+	 */
+	public final ChartType getChartType()
+	{
+		return eChartType;
+	}
+
+	/***************************************
+	 * Returns the legend position.
+	 *
+	 * @return The legend position
+	 */
+	public final ChartLegendPosition getLegendPosition()
+	{
+		return eLegendPosition;
+	}
+
+	/***************************************
+	 * Returns the metrics that rendering measurements are recorded in.
+	 *
+	 * @return The chart metrics or NULL if instrumentation is disabled
+	 */
+	public final ChartMetrics getMetrics()
+	{
+		return rMetrics;
+	}
+
+	/***************************************
+	 * Returns the object that controls the dispatching of the pointer events
+	 * of this chart. It can be used to throttle, debounce, or batch the
+	 * {@link EventType#POINTER_ENTERED} and {@link EventType#POINTER_EXITED}
+	 * events which carry the hovered {@link ChartElement}.
+	 *
+	 * @return The pointer event controller
+	 */
+	public final ChartPointerEvents getPointerEvents()
+	{
+		return aPointerEvents;
+	}
+
+	/***************************************
+	 * Returns the fingerprint of the current data and of all settings that
+	 * affect the rendering of this chart. The fingerprint of the data is only
+	 * computed once after each data change and updated incrementally for rows
+	 * that are appended to or trimmed from a data window. The fingerprint is
+	 * only available for charts with numeric data that has been set with
+	 * {@link #setData(DataSet)} or {@link #setData(ChartData)} (including
+	 * streaming and fact data) but not for networks, data models, or data
+	 * providers.
+	 *
+	 * @return The render fingerprint or NULL if not available
+	 */
+	public ChartFingerprint getRenderFingerprint()
+	{
+		if (rTileCache != null || eChartType == ChartType.NETWORK ||
+			(rNumericData == null && rChartData == null))
+		{
+			return null;
+		}
+
+		if (nFingerprintRevision != nDataRevision)
+		{
+			if (rNumericData != null)
+			{
+				rDataFingerprint = ChartFingerprint.of(rNumericData);
+			}
+			else
+			{
+				DataSetChartData aData = new DataSetChartData(rChartData);
+
+				rDataFingerprint =
+					aData.isNumeric() ? ChartFingerprint.of(aData) : null;
+			}
+
+			nFingerprintRevision = nDataRevision;
+		}
+
+		if (rDataFingerprint == null)
+		{
+			return null;
+		}
+
+		Widget rWidget = getWidget();
+
+		return ChartFingerprint.of(null,
+								   rDataFingerprint,
+								   eChartType,
+								   eBackend,
+								   eLegendPosition,
+								   sBackgroundColor,
+								   bIs3D,
+								   bIsStacked,
+								   eDownsampling,
+								   nMaxDisplayRows,
+								   nFirstRow,
+								   nRowCount,
+								   rWidget.getOffsetWidth(),
+								   rWidget.getOffsetHeight());
+	}
+
+	/***************************************
+	 * Returns the tile cache of a chart with a data provider.
+	 *
+	 * @return The tile cache or NULL if no data provider has been set
+	 *
+	 * @see    #setDataProvider(ChartDataProvider, double, double)
+	 */
+	public final ChartTileCache getTileCache()
+	{
+		return rTileCache;
+	}
+
+	/***************************************
+	 * Returns the end of the visible row axis range of a chart with a data
+	 * provider.
+	 *
+	 * @return The visible range end
+	 *
+	 * @see    #setDataProvider(ChartDataProvider, double, double)
+	 */
+	public final double getVisibleRangeEnd()
+	{
+		return fVisibleEnd;
+	}
+
+	/***************************************
+	 * Returns the start of the visible row axis range of a chart with a data
+	 * provider.
+	 *
+	 * @return The visible range start
+	 *
+	 * @see    #setDataProvider(ChartDataProvider, double, double)
+	 */
+	public final double getVisibleRangeStart()
+	{
+		return fVisibleStart;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initWidget(Container rParent, StyleData rStyle)
+	{
+		super.initWidget(rParent, rStyle);
+
+		setDefaultStyleName(GewtResources.INSTANCE.css().ewtChart());
+
+		// keep the label cache of the context only while charts are shown
+		getWidget().addAttachHandler(new AttachEvent.Handler()
+			{
+				@Override
+				public void onAttachOrDetach(AttachEvent rEvent)
+				{
+					if (rEvent.isAttached())
+					{
+						ChartLabelCache.acquire(getContext());
+					}
+					else
+					{
+						ChartLabelCache.release(getContext());
+					}
+				}
+			});
+	}
+
+	/***************************************
+	 * Returns TRUE if the chart is rendered in 3D.
+	 *
+	 * @return The 3D flag
+	 */
+	public final boolean is3D()
+	{
+		return bIs3D;
+	}
+
+	/***************************************
+	 * Returns TRUE if the chart is displayed stacked.
+	 *
+	 * @return The stacked flag
+	 */
+	public final boolean isStacked()
+	{
+		return bIsStacked;
+	}
+
+	/***************************************
+	 * Moves the visible range of a chart with a data provider. The range will
+	 * be limited to the full range of the provider. Like the other data
+	 * modifying methods this will only be displayed after the next {@link
+	 * #repaint()}.
+	 *
+	 * @param fFraction The distance to move as a fraction of the visible
+	 *                  range size (negative values move to the start)
+	 */
+	public void pan(double fFraction)
+	{
+		double fSize  = fVisibleEnd - fVisibleStart;
+		double fStart = fVisibleStart + fFraction * fSize;
+
+		setVisibleRange(fStart, fStart + fSize);
+	}
+
+	/***************************************
+	 * Schedules a redraw of this chart. The actual drawing will be performed
+	 * in the next animation frame so that multiple repaint requests for the
+	 * same chart (e.g. after setting data and several chart properties) are
+	 * coalesced into a single draw. All charts that have been repainted before
+	 * the next frame will be drawn together in that frame. If lazy rendering
+	 * is enabled and the chart is outside of the viewport the repaint will be
+	 * deferred until it becomes visible.
+	 *
+	 * @see de.esoco.ewt.component.Component#repaint()
+	 */
+	@Override
+	public void repaint()
+	{
+		if (aVisibilityTracker != null &&
+			aVisibilityTracker.getVisibility() != Visibility.VISIBLE)
+		{
+			bRepaintPending = true;
+		}
+		else if (!isCanvasRendering() &&
+				 !ChartApiLoader.get().isLoaded(eChartType.getChartPackage()))
+		{
+			if (rMetrics != null && fApiRequestTime < 0)
+			{
+				fApiRequestTime = Duration.currentTimeMillis();
+			}
+
+			ChartApiLoader.get().request(eChartType.getChartPackage(),
+										 aApiClient);
+		}
+		else
+		{
+			aRepaintCharts.add(this);
+
+			if (rRepaintFrame == null)
+			{
+				AnimationScheduler rScheduler = AnimationScheduler.get();
+
+				rRepaintFrame =
+					rScheduler.requestAnimationFrame(new AnimationCallback()
+						{
+							@Override
+							public void execute(double fTimestamp)
+							{
+								drawRepaintedCharts();
+							}
+						});
+			}
+		}
+	}
+
+	/***************************************
+	 * Sets the 3D display state of certain charts.
+	 *
+	 * @param b3D The 3D display flag
+	 */
+	public final void set3D(boolean b3D)
+	{
+		bIs3D = b3D;
+	}
+
+	/***************************************
+	 * Sets the background color in the HTML color format.
+	 *
+	 * @param sColor The color definition or NULL for the default
+	 */
+	public final void setBackgroundColor(String sColor)
+	{
+		if (sColor == null && sBackgroundColor != null)
+		{
+			// reused options cannot be reset to the default background
+			aChartOptions.clear();
+		}
+
+		sBackgroundColor = sColor;
+	}
+
+	/***************************************
+	 * Enables or disables the asynchronous preparation of large data. If
+	 * enabled the downsampling of data that needs to be reduced will be
+	 * performed in a Web Worker (see {@link ChartDataWorker}) instead of the
+	 * user interface thread. Until the prepared data is available the chart
+	 * continues to display the previous data. If the browser doesn't support
+	 * workers the data will be prepared synchronously.
+	 *
+	 * @param bAsync TRUE to prepare data asynchronously
+	 */
+	public void setAsyncDataPreparation(boolean bAsync)
+	{
+		bAsyncPreparation = bAsync;
+	}
+
+	/***************************************
+	 * Changes the aggregation of the fact data that has been set with {@link
+	 * #setFactData(ChartFacts, ChartAggregation)}. The chart data will be
+	 * re-computed locally from the facts, e.g. to change the time
+	 * granularity or the grouping of the displayed data.
+	 *
+	 * @param rAggregation The new aggregation
+	 */
+	public void setAggregation(ChartAggregation rAggregation)
+	{
+		if (rFactData == null)
+		{
+			throw new IllegalStateException("No fact data set");
+		}
+
+		setFactData(rFactData, rAggregation);
+	}
+
+	/***************************************
+	 * Sets the rendering backend of this chart. The chart type, legend,
+	 * background, and stacking settings apply to all backends.
+	 *
+	 * @param eBackend The new rendering backend
+	 */
+	public final void setBackend(ChartBackend eBackend)
+	{
+		if (eBackend != this.eBackend)
+		{
+			// force re-initialization with the new backend
+			aChartWidget = null;
+		}
+
+		this.eBackend = eBackend;
+	}
+
+	/***************************************
+	 * Sets the chart type.
+	 *
+	 * @param eChartType The new chart type
+	 */
+	public final void setChartType(ChartType eChartType)
+	{
+		if (eChartType != this.eChartType)
+		{
+			// force re-initialization with the new chart type
+			aChartWidget = null;
+		}
+
+		this.eChartType = eChartType;
+	}
+
+	/***************************************
+	 * Sets the data of multiple related series that will be displayed together
+	 * in this chart. Instead of stacking several chart components the series
+	 * are combined into a single data table with a {@link CompositeChartData}
+	 * instance and drawn by the widget of this chart. The rows of the series
+	 * are matched by their labels. Data sets can be added as series by
+	 * wrapping them in {@link DataSetChartData} instances.
+	 *
+	 * @param rSeries The data of the series to display
+	 */
+	public void setCompositeData(List<? extends ChartData> rSeries)
+	{
+		setData(rSeries.size() == 1 ? rSeries.get(0)
+									: new CompositeChartData(rSeries));
+	}
+
+	/***************************************
+	 * Sets the data to be displayed by this chart. This method should be
+	 * invoked after all other chart parameters have been set because it will
+	 * trigger a redraw of the chart.
+	 *
+	 * <p>If the chart has already been displayed and the column layout of the
+	 * new data is the same as before only the changed cells of the existing
+	 * data tables will be updated and the next repaint will redraw the
+	 * existing chart widget. Otherwise the chart will be fully re-initialized
+	 * on the next repaint.</p>
+	 *
+	 * @param rDataSet The new data
+	 */
+	public void setData(DataSet<?> rDataSet)
+	{
+		if (aChartWidget != null &&
+			(rNumericData != null || bSampled || rDataModel != null ||
+			 isSamplingRequired(rDataSet.getRowCount()) ||
+			 !eChartType.updateChartData(getContext(),
+										 aDataTables,
+										 rChartData,
+										 rDataSet)))
+		{
+			aChartWidget = null;
+		}
+
+		releaseDataModel();
+
+		rChartData   = rDataSet;
+		rNumericData = null;
+		rEncodedData = null;
+		sEncodedData = null;
+		rNetworkData = null;
+		rFactData    = null;
+		rTileCache   = null;
+		nDataRevision++;
+	}
+
+	/***************************************
+	 * Sets numeric data to be displayed by this chart. This is an alternative
+	 * to {@link #setData(DataSet)} for large data because the values can be
+	 * provided as primitives, e.g. by a {@link ColumnarChartData} instance,
+	 * instead of being boxed in a data set. Like the data set method this
+	 * method should be invoked after all other chart parameters have been set.
+	 *
+	 * @param rData The new chart data
+	 */
+	public void setData(ChartData rData)
+	{
+		releaseDataModel();
+
+		rNumericData = rData;
+		rEncodedData = null;
+		sEncodedData = null;
+		rChartData   = null;
+		rNetworkData = null;
+		rFactData    = null;
+		rTileCache   = null;
+		aChartWidget = null;
+		nDataRevision++;
+	}
+
+	/***************************************
+	 * Sets a data model that is shared with other charts. The data table of
+	 * the model is only created once for all charts that display it and each
+	 * chart can display a different subset of it through an optional view.
+	 * If the model data changes this chart will be redrawn automatically.
+	 * The model can only be displayed by chart types that use the standard
+	 * data table layout of row labels and numeric columns. Setting other data
+	 * afterwards will detach this chart from the model.
+	 *
+	 * @param rModel The data model
+	 * @param rView  The view of the model data to display or NULL to display
+	 *               the complete data
+	 */
+	public void setDataModel(ChartDataModel rModel, ChartDataView rView)
+	{
+		setData((ChartData) null);
+
+		rDataModel = rModel;
+		rDataView  = rView;
+
+		rModel.addListener(aModelListener);
+	}
+
+	/***************************************
+	 * Sets a provider that loads the data of this chart on demand for the
+	 * visible range of the row axis. This allows to zoom into and pan over
+	 * data that is too large to be loaded completely, e.g. years of data with
+	 * a resolution of seconds. The data is requested in tiles with a row
+	 * count matching the pixel width of the chart and the tiles are kept in
+	 * a {@link ChartTileCache} that can be configured through {@link
+	 * #getTileCache()}. The visible range is initially the full range and
+	 * can be changed with {@link #setVisibleRange(double, double)}, {@link
+	 * #zoom(double, double)}, and {@link #pan(double)}. It can also be changed
+	 * by the user with the mouse wheel and by dragging the chart.
+	 *
+	 * <p>This is intended for charts with a continuous row axis like {@link
+	 * ChartType#LINE} and {@link ChartType#AREA}. Like {@link
+	 * #setData(DataSet)} this method should be invoked after all other chart
+	 * parameters have been set.</p>
+	 *
+	 * @param rProvider The data provider
+	 * @param fStart    The start of the full row axis range
+	 * @param fEnd      The end of the full row axis range
+	 */
+	public void setDataProvider(ChartDataProvider rProvider,
+								double			  fStart,
+								double			  fEnd)
+	{
+		setData((ChartData) null);
+
+		rTileCache = new ChartTileCache(rProvider, fStart, fEnd);
+
+		if (aZoomPanHandler == null)
+		{
+			aZoomPanHandler = new ZoomPanHandler();
+
+			Widget rWidget = getWidget();
+
+			rWidget.addDomHandler(aZoomPanHandler, MouseWheelEvent.getType());
+			rWidget.addDomHandler(aZoomPanHandler, MouseDownEvent.getType());
+			rWidget.addDomHandler(aZoomPanHandler, MouseMoveEvent.getType());
+			rWidget.addDomHandler(aZoomPanHandler, MouseUpEvent.getType());
+		}
+
+		setVisibleRange(fStart, fEnd);
+	}
+
+	/***************************************
+	 * Sets this chart to streaming mode where the displayed data is a sliding
+	 * window of data rows that can be extended incrementally by invoking
+	 * {@link #appendData(String, double...)}. Setting a data set with {@link
+	 * #setData(DataSet)} will end the streaming mode.
+	 *
+	 * @param rWindow The data window
+	 */
+	public void setDataWindow(ChartDataWindow rWindow)
+	{
+		setData(rWindow);
+	}
+
+	/***************************************
+	 * Sets the range of data rows that will be displayed by this chart. The
+	 * rows in the range will be re-sampled from the original data according
+	 * to the current downsampling settings so that zooming into the data
+	 * will reveal more details.
+	 *
+	 * @param nFirstRow The index of the first row to display
+	 * @param nRowCount The number of rows to display or -1 for all rows from
+	 *                  the first
+	 */
+	public void setDisplayedRows(int nFirstRow, int nRowCount)
+	{
+		this.nFirstRow = nFirstRow;
+		this.nRowCount = nRowCount;
+
+		// the data is unchanged, the new rows are sampled on reinitialization
+		aChartWidget = null;
+	}
+
+	/***************************************
+	 * Sets the downsampling that is applied to reduce large data before it is
+	 * displayed. The original data is always retained so that it can be
+	 * re-sampled later, e.g. with {@link #setDisplayedRows(int, int)}.
+	 *
+	 * @param eDownsampling The downsampling algorithm or NULL for the default
+	 *                      of the chart type
+	 * @param nMaxRows      The maximum number of displayed rows or zero to
+	 *                      use the pixel width of the chart
+	 */
+	public void setDownsampling(ChartDownsampling eDownsampling, int nMaxRows)
+	{
+		this.eDownsampling   = eDownsampling;
+		this.nMaxDisplayRows = nMaxRows;
+
+		// the data is unchanged, it is re-sampled on reinitialization
+		aChartWidget = null;
+	}
+
+	/***************************************
+	 * Sets chart data that has been encoded for the transfer from the server
+	 * with {@link ChartDataCodec}. This has the same effect as invoking
+	 * {@link #setData(ChartData)} with the decoded data but if the data is
+	 * displayed without downsampling the data table will be created directly
+	 * from the encoded data instead of being converted cell by cell.
+	 *
+	 * @param sEncodedData The encoded chart data
+	 */
+	public void setEncodedData(String sEncodedData)
+	{
+		ColumnarChartData aData = ChartDataCodec.decode(sEncodedData);
+
+		setData(aData);
+
+		this.rEncodedData = aData;
+		this.sEncodedData = sEncodedData;
+	}
+
+	/***************************************
+	 * Enables or disables the lazy rendering of this chart. If enabled the
+	 * chart will only be initialized and drawn when it is (or is about to be)
+	 * scrolled into the viewport. Optionally the chart can release its chart
+	 * widget when it is scrolled far away from the viewport to reduce the DOM
+	 * size. It will then be re-created when it becomes visible again.
+	 *
+	 * @param bLazy            TRUE to enable lazy rendering
+	 * @param nReleaseDistance The distance in pixels from the viewport at
+	 *                         which the chart widget will be released or zero
+	 *                         to never release it
+	 */
+	public void setLazyRendering(boolean bLazy, int nReleaseDistance)
+	{
+		if (aVisibilityTracker != null)
+		{
+			aVisibilityTracker.stop();
+			rAttachHandler.removeHandler();
+			aVisibilityTracker = null;
+			rAttachHandler     = null;
+		}
+
+		if (bLazy)
+		{
+			Widget rWidget = getWidget();
+
+			VisibilityListener rListener =
+				new VisibilityListener()
+				{
+					@Override
+					public void visibilityChanged(Visibility eVisibility)
+					{
+						chartVisibilityChanged(eVisibility);
+					}
+				};
+
+			final ChartVisibilityTracker rTracker =
+				new ChartVisibilityTracker(rWidget.getElement(),
+										   LAZY_RENDERING_PRELOAD_DISTANCE,
+										   nReleaseDistance,
+										   rListener);
+
+			rAttachHandler =
+				rWidget.addAttachHandler(new AttachEvent.Handler()
+					{
+						@Override
+						public void onAttachOrDetach(AttachEvent rEvent)
+						{
+							if (rEvent.isAttached())
+							{
+								rTracker.start();
+							}
+							else
+							{
+								rTracker.stop();
+							}
+						}
+					});
+
+			aVisibilityTracker = rTracker;
+
+			if (rWidget.isAttached())
+			{
+				rTracker.start();
+			}
+		}
+		else if (bRepaintPending)
+		{
+			bRepaintPending = false;
+			repaint();
+		}
+	}
+
+	/***************************************
+	 * Sets raw fact data that will be aggregated on the client to create the
+	 * displayed data. The facts are kept so that the aggregation can be
+	 * changed later with {@link #setAggregation(ChartAggregation)} without
+	 * requesting new data. Like {@link #setData(DataSet)} this method should
+	 * be invoked after all other chart parameters have been set.
+	 *
+	 * @param rFacts       The fact data (data sets can be wrapped in {@link
+	 *                     DataSetFacts})
+	 * @param rAggregation The aggregation to apply
+	 */
+	public void setFactData(ChartFacts rFacts, ChartAggregation rAggregation)
+	{
+		setData(rAggregation.aggregate(rFacts));
+
+		this.rFactData    = rFacts;
+		this.rAggregation = rAggregation;
+	}
+
+	/***************************************
+	 * Sets the legend position.
+	 *
+	 * @param ePosition The legend position or NULL for the default
+	 */
+	public final void setLegendPosition(ChartLegendPosition ePosition)
+	{
+		if (ePosition == null && eLegendPosition != null)
+		{
+			// reused options cannot be reset to the default legend
+			aChartOptions.clear();
+		}
+
+		eLegendPosition = ePosition;
+	}
+
+	/***************************************
+	 * Enables the instrumentation of this chart by setting the metrics that
+	 * the durations of the rendering phases, the number of processed rows and
+	 * cells, and the number of redraws will be recorded in. Instrumentation
+	 * is disabled by default so that it doesn't incur any cost. The same
+	 * metrics instance can be set on multiple charts to aggregate the
+	 * measurements per chart type.
+	 *
+	 * @param rMetrics The metrics to record the measurements in or NULL to
+	 *                 disable instrumentation
+	 */
+	public void setMetrics(ChartMetrics rMetrics)
+	{
+		this.rMetrics   = rMetrics;
+		fApiRequestTime = -1;
+	}
+
+	/***************************************
+	 * Sets the network to be displayed by this chart and sets the chart type
+	 * to {@link ChartType#NETWORK}. The network can be modified afterwards.
+	 * A subsequent {@link #repaint()} will then only add new nodes to the
+	 * displayed data if possible and only rebuild it after other changes. The
+	 * level of detail of large networks can be limited through the methods of
+	 * {@link ChartNetwork}.
+	 *
+	 * @param rNetwork The network to display
+	 */
+	public void setNetworkData(ChartNetwork rNetwork)
+	{
+		setChartType(ChartType.NETWORK);
+		releaseDataModel();
+
+		rNetworkData = rNetwork;
+		rChartData   = null;
+		rNumericData = null;
+		rEncodedData = null;
+		sEncodedData = null;
+		rFactData    = null;
+		rTileCache   = null;
+		aChartWidget = null;
+	}
+
+	/***************************************
+	 * Sets the number of rendered charts that are cached by their {@link
+	 * #getRenderFingerprint() fingerprint}. If enabled the rendered markup of
+	 * the chart API will be cached when the chart changes to another state
+	 * and restored without a redraw if the chart returns to a cached state,
+	 * e.g. when switching back and forth between different data. Restored
+	 * charts are static and don't support tooltips and chart events until
+	 * the chart is drawn again. Charts that are drawn by the canvas backend
+	 * are not cached.
+	 *
+	 * @param nMaxCharts The maximum number of cached charts or zero to
+	 *                   disable caching
+	 */
+	@SuppressWarnings("serial")
+	public void setRenderCacheSize(int nMaxCharts)
+	{
+		nMaxCachedCharts = nMaxCharts;
+
+		if (nMaxCharts > 0 && aRenderCache == null)
+		{
+			aRenderCache =
+				new LinkedHashMap<ChartFingerprint, String>(16, 0.75f, true)
+				{
+					@Override
+					protected boolean removeEldestEntry(
+						Entry<ChartFingerprint, String> rEldest)
+					{
+						return size() > nMaxCachedCharts;
+					}
+				};
+		}
+		else if (nMaxCharts <= 0)
+		{
+			aRenderCache = null;
+		}
+	}
+
+	/***************************************
+	 * Sets whether a {@link #repaint()} will be skipped if the {@link
+	 * #getRenderFingerprint() render fingerprint} shows that neither the data
+	 * nor the rendering settings have changed since the last draw. This is
+	 * enabled by default so that applications that poll for data can invoke
+	 * {@link #setData(DataSet)} and {@link #repaint()} on each update without
+	 * redrawing unchanged charts. Charts without a fingerprint will always be
+	 * redrawn.
+	 *
+	 * @param bSkip TRUE to skip unchanged repaints, FALSE to always redraw
+	 */
+	public void setSkipUnchangedRepaints(boolean bSkip)
+	{
+		bSkipUnchanged = bSkip;
+	}
+
+	/***************************************
+	 * Sets the stacked D display state of certain charts.
+	 *
+	 * @param bStacked b3D The 3D display flag
+	 */
+	public final void setStacked(boolean bStacked)
+	{
+		bIsStacked = bStacked;
+	}
+
+	/***************************************
+	 * Sets the visible row axis range of a chart with a data provider. The
+	 * range will be limited to the full range of the provider. Like the other
+	 * data modifying methods this will only be displayed after the next
+	 * {@link #repaint()}.
+	 *
+	 * @param fStart The start of the visible range
+	 * @param fEnd   The end of the visible range
+	 *
+	 * @see   #setDataProvider(ChartDataProvider, double, double)
+	 */
+	public void setVisibleRange(double fStart, double fEnd)
+	{
+		if (rTileCache == null)
+		{
+			throw new IllegalStateException("No data provider set");
+		}
+
+		double fMin  = rTileCache.getRangeStart();
+		double fMax  = rTileCache.getRangeEnd();
+		double fFull = fMax - fMin;
+		double fSize = Math.min(fEnd - fStart, fFull);
+
+		fSize  = Math.max(fSize, fFull / (1L << ChartTileCache.MAX_LEVEL));
+		fStart = Math.max(fMin, Math.min(fStart, fMax - fSize));
+
+		if (fStart != fVisibleStart || fStart + fSize != fVisibleEnd)
+		{
+			fVisibleStart = fStart;
+			fVisibleEnd   = fStart + fSize;
+			bQueryTiles   = true;
+		}
+	}
+
+	/***************************************
+	 * Removes the oldest rows from the sliding data window of this chart so
+	 * that it contains at most the given number of the most recent rows.
+	 *
+	 * @param nMaxRows The maximum number of rows to keep
+	 */
+	public void trimData(int nMaxRows)
+	{
+		if (rNumericData instanceof ChartDataWindow)
+		{
+			ChartDataWindow rDataWindow = (ChartDataWindow) rNumericData;
+			int			    nRemoved    = rDataWindow.trim(nMaxRows);
+
+			if (rDataFingerprint != null &&
+				nFingerprintRevision == nDataRevision)
+			{
+				rDataFingerprint = rDataFingerprint.removeRows(nRemoved);
+				nFingerprintRevision++;
+			}
+
+			nDataRevision++;
+
+			if (aChartWidget != null && nRemoved > 0)
+			{
+				if (!bSampled && rDataWindow.getRowCount() > 0)
+				{
+					aDataTables.get(0).removeRows(0, nRemoved);
+				}
+				else
+				{
+					aChartWidget = null;
+				}
+			}
+		}
+	}
+
+	/***************************************
+	 * Zooms the visible range of a chart with a data provider. The range will
+	 * be limited to the full range of the provider. Like the other data
+	 * modifying methods this will only be displayed after the next {@link
+	 * #repaint()}.
+	 *
+	 * @param fFactor The factor to multiply the size of the visible range
+	 *                with (values below 1 zoom in)
+	 * @param fAnchor The relative position in the visible range that stays
+	 *                fixed (from 0 for the start to 1 for the end)
+	 */
+	public void zoom(double fFactor, double fAnchor)
+	{
+		double fSize   = fVisibleEnd - fVisibleStart;
+		double fFixed  = fVisibleStart + fAnchor * fSize;
+		double fNewEnd = fFixed + (1 - fAnchor) * fSize * fFactor;
+
+		setVisibleRange(fFixed - fAnchor * fSize * fFactor, fNewEnd);
+	}
+
+	/***************************************
+	 * Invoked by the visibility tracker of a lazily rendered chart if the
+	 * visibility has changed.
+	 *
+	 * @param eVisibility The new visibility
+	 */
+	private void chartVisibilityChanged(Visibility eVisibility)
+	{
+		if (eVisibility == Visibility.VISIBLE)
+		{
+			if (bRepaintPending)
+			{
+				bRepaintPending = false;
+				repaint();
+			}
+		}
+		else if (eVisibility == Visibility.FAR_AWAY)
+		{
+			if (ChartApiLoader.get().cancel(aApiClient))
+			{
+				bRepaintPending = true;
+			}
+
+			if (aChartWidget != null)
+			{
+				releaseChartWidgets();
+				bRepaintPending = true;
+			}
+		}
+	}
+
+	/***************************************
+	 * Creates the payload of a selection event from the selection of the
+	 * displayed chart widget.
+	 *
+	 * @param  rWidgetSelection The selection of the chart widget
+	 *
+	 * @return The chart selection
+	 */
+	private ChartSelection createSelection(JsArray<Selection> rWidgetSelection)
+	{
+		List<ChartElement> aElements =
+			ChartSelection.readElements(rWidgetSelection);
+
+		String[] aRowKeys = new String[aElements.size()];
+
+		for (int i = 0; i < aRowKeys.length; i++)
+		{
+			int nRow = aElements.get(i).getRow();
+
+			if (nRow >= 0)
+			{
+				aRowKeys[i] = getRowKey(nRow);
+			}
+		}
+
+		return new ChartSelection(aElements, aRowKeys);
+	}
+
+	/***************************************
+	 * Draws this chart immediately and initializes it if necessary.
+	 */
+	@SuppressWarnings("unchecked")
+	private void draw()
+	{
+		if (rTileCache != null && !updateVisibleData())
+		{
+			// no tile loaded yet
+			return;
+		}
+
+		ChartFingerprint rFingerprint =
+			bSkipUnchanged || aRenderCache != null ? getRenderFingerprint()
+												   : null;
+
+		if (bSkipUnchanged && rFingerprint != null &&
+			rFingerprint.equals(rShownFingerprint))
+		{
+			return;
+		}
+
+		if (aRenderCache != null && restoreCachedChart(rFingerprint))
+		{
+			return;
+		}
+
+		if (isCanvasRendering())
+		{
+			// keep the fingerprint while the data is still being prepared
+			if (drawCanvas())
+			{
+				setShownFingerprint(rFingerprint, false);
+			}
+
+			return;
+		}
+
+		if (aChartWidget != null && rNetworkData != null &&
+			rNetworkData.getModificationCount() != nDrawnModCount &&
+			!updateNetworkTable())
+		{
+			aChartWidget = null;
+		}
+
+		if (aChartWidget == null)
+		{
+			init();
+		}
+
+		if (aOptions instanceof GeoChartOptions)
+		{
+			// not working if set before...
+			((GeoChartOptions) aOptions).hideLegend();
+		}
+
+		if (aChartWidget != null)
+		{
+			DataSource rData  =
+				rDrawView != null ? rDrawView : aDataTables.get(0);
+			double     fStart = startTiming();
+
+			((ChartWidget<Options>) aChartWidget).draw(rData, aOptions);
+			recordTiming(Phase.DRAW, fStart, rData);
+			setShownFingerprint(rFingerprint, true);
+		}
+		else if (!bPreparing)
+		{
+			// no data label
+			setShownFingerprint(null, false);
+		}
+	}
+
+	/***************************************
+	 * Draws this chart with the canvas renderer.
+	 *
+	 * @return TRUE if the chart has been drawn, FALSE if the data is still
+	 *         being prepared asynchronously
+	 */
+	private boolean drawCanvas()
+	{
+		HasWidgets rChartPanel = (HasWidgets) getWidget();
+		Widget     rCanvas     = aCanvasRenderer.getCanvas();
+
+		if (rCanvas.getParent() != rChartPanel)
+		{
+			rChartPanel.clear();
+			rChartPanel.add(rCanvas);
+
+			// the chart API widget must be re-initialized after a switch
+			aChartWidget = null;
+		}
+
+		ChartData rData = getSampledData();
+
+		if (bPreparing)
+		{
+			return false;
+		}
+
+		bSampled = (rData != null);
+
+		if (!bSampled)
+		{
+			rData =
+				rNumericData != null ? rNumericData
+									 : new DataSetChartData(rChartData);
+		}
+
+		// the canvas draws the labels directly so resources must be expanded
+		rData = new LabeledChartData(rData, getLabelCache(getContext()));
+
+		aCanvasRenderer.setShape(eChartType.getCanvasShape());
+		aCanvasRenderer.setStacked(bIsStacked);
+		aCanvasRenderer.setBackgroundColor(sBackgroundColor);
+		aCanvasRenderer.setLegendPosition(eLegendPosition != null
+										  ? eLegendPosition.rImplLegendPosition
+										  : null);
+
+		double fStart = startTiming();
+		int    nRows  = rData.getRowCount();
+
+		aCanvasRenderer.draw(rData,
+							 getWidget().getOffsetWidth(),
+							 getWidget().getOffsetHeight());
+		recordTiming(Phase.DRAW,
+					 fStart,
+					 nRows,
+					 nRows * rData.getColumnCount());
+
+		return true;
+	}
+
+	/***************************************
+	 * Checks whether this chart is currently drawn by the canvas renderer and
+	 * creates the renderer if necessary.
+	 *
+	 * @return TRUE for canvas rendering
+	 */
+	private boolean isCanvasRendering()
+	{
+		if (eBackend == ChartBackend.CANVAS &&
+			eChartType.getCanvasShape() != null &&
+			(rChartData != null || rNumericData != null))
+		{
+			if (aCanvasRenderer == null)
+			{
+				aCanvasRenderer = CanvasChartRenderer.createIfSupported();
+			}
+
+			return aCanvasRenderer != null;
+		}
+
+		return false;
+	}
+
+	/***************************************
+	 * Checks whether data with a certain number of rows must be sampled for
+	 * display because it exceeds the target row count of the downsampling or
+	 * because only a subset of the rows is displayed.
+	 *
+	 * @param  nRows The number of data rows
+	 *
+	 * @return TRUE if the data must be sampled
+	 */
+	private boolean isSamplingRequired(int nRows)
+	{
+		ChartDownsampling eMode =
+			eDownsampling != null ? eDownsampling
+								  : eChartType.getDefaultDownsampling();
+
+		int nFirst = Math.min(nFirstRow, nRows);
+		int nCount =
+			nRowCount >= 0 ? Math.min(nRowCount, nRows - nFirst)
+						   : nRows - nFirst;
+
+		int nTargetRows =
+			nMaxDisplayRows > 0 ? nMaxDisplayRows : getDisplayWidth();
+
+		return nCount != nRows ||
+			   (eMode != ChartDownsampling.NONE && nRows > nTargetRows);
+	}
+
+	/***************************************
+	 * Returns the asynchronously prepared data for the current data and
+	 * sampling parameters or starts the preparation if it is not available
+	 * yet.
+	 *
+	 * @param  rData       The chart data to sample
+	 * @param  eMode       The downsampling mode
+	 * @param  nFirst      The index of the first row to sample
+	 * @param  nCount      The number of rows to sample
+	 * @param  nTargetRows The target row count
+	 *
+	 * @return The prepared data or NULL if the preparation is in progress
+	 */
+	private ChartData prepareDataAsync(ChartData		 rData,
+									   ChartDownsampling eMode,
+									   int				 nFirst,
+									   int				 nCount,
+									   int				 nTargetRows)
+	{
+		final String sKey =
+			nDataRevision + ":" + eMode + ":" + nFirst + ":" + nCount + ":" +
+			nTargetRows;
+
+		if (sKey.equals(sPreparedKey))
+		{
+			return rPreparedData;
+		}
+
+		if (!sKey.equals(sPendingKey))
+		{
+			final int nRevision = nDataRevision;
+
+			ChartDataWorker rWorker  = ChartDataWorker.get();
+			ResultHandler   rHandler =
+				new ResultHandler()
+				{
+					@Override
+					public void dataPrepared(ChartData rResult)
+					{
+						if (nRevision == nDataRevision &&
+							sKey.equals(sPendingKey))
+						{
+							rPreparedData = rResult;
+							sPreparedKey  = sKey;
+							aChartWidget  = null;
+							repaint();
+						}
+					}
+				};
+
+			rWorker.cancel(nPendingJob);
+
+			sPendingKey = sKey;
+			nPendingJob =
+				rWorker.prepare(rData,
+								eMode,
+								nFirst,
+								nCount,
+								nTargetRows,
+								rHandler);
+
+			if (sKey.equals(sPreparedKey))
+			{
+				// the request has been completed synchronously
+				return rPreparedData;
+			}
+		}
+
+		bPreparing = true;
+
+		return null;
+	}
+
+	/***************************************
+	 * Records the duration of a rendering phase for the rows and cells of a
+	 * data table if instrumentation is enabled.
+	 *
+	 * @param ePhase The rendering phase
+	 * @param fStart The start time returned by {@link #startTiming()}
+	 * @param rTable The processed data table or view
+	 */
+	private void recordTiming(Phase ePhase, double fStart, DataSource rTable)
+	{
+		if (rMetrics != null)
+		{
+			int nRows = rTable.getNumberOfRows();
+
+			recordTiming(ePhase,
+						 fStart,
+						 nRows,
+						 nRows * rTable.getNumberOfColumns());
+		}
+	}
+
+	/***************************************
+	 * Records the duration of a rendering phase if instrumentation is
+	 * enabled.
+	 *
+	 * @param ePhase The rendering phase
+	 * @param fStart The start time returned by {@link #startTiming()}
+	 * @param nRows  The number of processed rows
+	 * @param nCells The number of processed cells
+	 */
+	private void recordTiming(Phase  ePhase,
+							  double fStart,
+							  int    nRows,
+							  int    nCells)
+	{
+		if (rMetrics != null)
+		{
+			rMetrics.record(eChartType.name(),
+							ePhase,
+							Duration.currentTimeMillis() - fStart,
+							nRows,
+							nCells);
+		}
+	}
+
+	/***************************************
+	 * Removes the chart widgets from this chart and returns them to the
+	 * global widget pool if enabled.
+	 */
+	private void releaseChartWidgets()
+	{
+		((HasWidgets) getWidget()).clear();
+
+		for (Entry<ChartType, ChartEventDispatcher> rEntry :
+			 aChartWidgets.entrySet())
+		{
+			List<ChartEventDispatcher> rPooled =
+				aWidgetPool.get(rEntry.getKey());
+
+			if (rPooled == null)
+			{
+				rPooled = new ArrayList<>();
+				aWidgetPool.put(rEntry.getKey(), rPooled);
+			}
+
+			rEntry.getValue().setTargetChart(null);
+
+			if (rPooled.size() < nMaxPooledWidgets)
+			{
+				rPooled.add(rEntry.getValue());
+			}
+		}
+
+		aChartWidgets.clear();
+		aPointerEvents.cancel();
+		aChartWidget	  = null;
+		aDataTables		  = null;
+		rDrawView		  = null;
+		rShownFingerprint = null;
+	}
+
+	/***************************************
+	 * Detaches this chart from a shared data model if one has been set.
+	 */
+	private void releaseDataModel()
+	{
+		if (rDataModel != null)
+		{
+			rDataModel.removeListener(aModelListener);
+
+			rDataModel   = null;
+			rDataView    = null;
+			aChartWidget = null;
+		}
+	}
+
+	/***************************************
+	 * Restores a cached chart rendering if available. The currently displayed
+	 * chart will be added to the cache before.
+	 *
+	 * @param  rFingerprint The fingerprint of the chart to display or NULL
+	 *                      for none
+	 *
+	 * @return TRUE if a cached chart has been restored
+	 */
+	private boolean restoreCachedChart(ChartFingerprint rFingerprint)
+	{
+		HasWidgets rChartPanel = (HasWidgets) getWidget();
+
+		if (rShownFingerprint != null && bShownCacheable)
+		{
+			aRenderCache.put(rShownFingerprint,
+							 getWidget().getElement().getInnerHTML());
+		}
+
+		String sCachedChart = null;
+
+		if (rFingerprint != null && !rFingerprint.equals(rShownFingerprint))
+		{
+			sCachedChart = aRenderCache.get(rFingerprint);
+		}
+
+		if (sCachedChart != null)
+		{
+			aPointerEvents.cancel();
+			rChartPanel.clear();
+			rChartPanel.add(new HTML(sCachedChart));
+
+			// the chart API widget must be re-initialized on the next draw
+			aChartWidget = null;
+			setShownFingerprint(rFingerprint, false);
+		}
+
+		return sCachedChart != null;
 	}
 
 	/***************************************
-	 * Sets the background color in the HTML color format.
+	 * Sets the fingerprint of the displayed chart.
 	 *
-	 * @param sColor The color definition
+	 * @param rFingerprint The fingerprint or NULL if not available
+	 * @param bCacheable   TRUE if the displayed chart can be cached
 	 */
-	public final void setBackgroundColor(String sColor)
+	private void setShownFingerprint(ChartFingerprint rFingerprint,
+									 boolean		  bCacheable)
 	{
-		sBackgroundColor = sColor;
+		rShownFingerprint = rFingerprint;
+		bShownCacheable   = bCacheable;
 	}
 
 	/***************************************
-	 * Sets the chart type.
-	 *
-	 * @param eChartType The new chart type
+	 * Replaces the content of the chart panel with a label that indicates
+	 * that no chart data can be displayed.
 	 */
-	public final void setChartType(ChartType eChartType)
+	private void showNoDataLabel()
 	{
-		this.eChartType = eChartType;
+		HasWidgets rChartPanel = (HasWidgets) getWidget();
+		HTML	   aLabel	   =
+			new HTML(getContext().expandResource("$lblNoEwtChartData"));
+
+		aLabel.addStyleName(GewtResources.INSTANCE.css().ewtNoChartDataLabel());
+		rChartPanel.clear();
+		rChartPanel.add(aLabel);
 	}
 
 	/***************************************
-	 * Sets the data to be displayed by this chart. This method should be
-	 * invoked after all other chart parameters have been set because it will
-	 * trigger a redraw of the chart.
+	 * Returns the pixel width at which the chart data will be displayed.
 	 *
-	 * @param rDataSet The new data
+	 * @return The display width
 	 */
-	public void setData(DataSet<?> rDataSet)
+	private int getDisplayWidth()
 	{
-		rChartData = rDataSet;
+		int nWidth = getWidget().getOffsetWidth();
+
+		// use the window width if not yet laid out
+		return nWidth > 0 ? nWidth : Window.getClientWidth();
 	}
 
 	/***************************************
-	 * Sets the legend position.
+	 * Returns the key of the original data row that corresponds to a row of
+	 * the displayed data table. This is the row label of the chart data or
+	 * the node ID of a network.
 	 *
-	 * @param ePosition The legend position
+	 * @param  nRow The data table row
+	 *
+	 * @return The row key or NULL if not available
 	 */
-	public final void setLegendPosition(ChartLegendPosition ePosition)
+	private String getRowKey(int nRow)
 	{
-		eLegendPosition = ePosition;
+		String sKey = null;
+
+		if (rDrawView != null)
+		{
+			// map view rows to the rows of the shared model table
+			nRow = rDrawView.getTableRowIndex(nRow);
+		}
+
+		if (rNetworkData != null && aDataTables != null)
+		{
+			// the first column of network tables contains the node IDs
+			sKey = aDataTables.get(0).getValueString(nRow, 0);
+		}
+		else if (rTableData != null)
+		{
+			if (nRow < rTableData.getRowCount())
+			{
+				sKey = rTableData.getRowLabel(nRow);
+			}
+		}
+		else if (rChartData != null && nRow < rChartData.getRowCount())
+		{
+			sKey = rChartData.getRowLabel(nRow);
+		}
+
+		return sKey;
 	}
 
 	/***************************************
-	 * Sets the stacked D display state of certain charts.
+	 * Returns the downsampled data to display if downsampling is necessary
+	 * for the current data or if a subset of the rows is displayed. Network
+	 * charts and data sets with non-numeric values cannot be sampled and are
+	 * always displayed completely.
 	 *
-	 * @param bStacked b3D The 3D display flag
+	 * @return The sampled chart data or NULL if the full data should be
+	 *         displayed or if the data is still being prepared asynchronously
+	 *         (see {@link #setAsyncDataPreparation(boolean)})
 	 */
-	public final void setStacked(boolean bStacked)
+	private ChartData getSampledData()
 	{
-		bIsStacked = bStacked;
+		bPreparing = false;
+
+		ChartDownsampling eMode =
+			eDownsampling != null ? eDownsampling
+								  : eChartType.getDefaultDownsampling();
+
+		int nRows =
+			rNumericData != null
+			? rNumericData.getRowCount()
+			: rChartData != null ? rChartData.getRowCount() : 0;
+
+		int nFirst = Math.min(nFirstRow, nRows);
+		int nCount =
+			nRowCount >= 0 ? Math.min(nRowCount, nRows - nFirst)
+						   : nRows - nFirst;
+
+		int nTargetRows =
+			nMaxDisplayRows > 0 ? nMaxDisplayRows : getDisplayWidth();
+
+		if (eChartType == ChartType.NETWORK || !isSamplingRequired(nRows))
+		{
+			return null;
+		}
+
+		ChartData rData = rNumericData;
+
+		if (rData == null)
+		{
+			DataSetChartData aDataSetData = new DataSetChartData(rChartData);
+
+			// sampling only supports numeric values
+			if (!aDataSetData.isNumeric())
+			{
+				return null;
+			}
+
+			rData = aDataSetData;
+		}
+
+		if (bAsyncPreparation && eMode != ChartDownsampling.NONE &&
+			nCount > nTargetRows && ChartDataWorker.isSupported())
+		{
+			return prepareDataAsync(rData, eMode, nFirst, nCount, nTargetRows);
+		}
+
+		return eMode.sample(rData, nFirst, nCount, nTargetRows);
 	}
 
 	/***************************************
-	 * Invoked when the chart javascript API has been fully loaded.
+	 * Returns the chart widget for a certain chart type. Each chart keeps the
+	 * widgets of the chart types it has displayed so that switching between
+	 * chart types reuses the existing widgets and their event handlers. New
+	 * widgets are taken from the global widget pool if possible.
+	 *
+	 * @param  eType The chart type
+	 *
+	 * @return The chart widget
 	 */
-	void chartApiLoaded()
+	private ChartWidget<?> getChartWidget(ChartType eType)
 	{
-		bChartApiLoaded = true;
+		ChartEventDispatcher rDispatcher = aChartWidgets.get(eType);
 
-		for (Chart rDeferredChart : aDeferredCharts)
+		if (rDispatcher == null)
 		{
-			if (rDeferredChart.aChartWidget == null)
+			List<ChartEventDispatcher> rPooled = aWidgetPool.get(eType);
+
+			if (rPooled != null && !rPooled.isEmpty())
+			{
+				rDispatcher = rPooled.remove(rPooled.size() - 1);
+			}
+			else
 			{
-				rDeferredChart.init();
-				rDeferredChart.repaint();
+				rDispatcher = new ChartEventDispatcher(eType.createChart());
 			}
+
+			rDispatcher.setTargetChart(this);
+			aChartWidgets.put(eType, rDispatcher);
 		}
 
-		aDeferredCharts = null;
+		return rDispatcher.getChartWidget();
 	}
 
 	/***************************************
@@ -619,8 +2591,17 @@ public class Chart extends Component
 	{
 		HasWidgets rChartPanel = (HasWidgets) getWidget();
 
-		rChartPanel.clear();
-		aOptions = eChartType.createOptions(bIs3D);
+		aOptions = aChartOptions.get(eChartType);
+
+		if (aOptions == null)
+		{
+			aOptions = eChartType.createOptions(bIs3D);
+			aChartOptions.put(eChartType, aOptions);
+		}
+		else if (aOptions instanceof PieChartOptions)
+		{
+			((PieChartOptions) aOptions).setIs3D(bIs3D);
+		}
 
 		if (aOptions instanceof CoreOptions)
 		{
@@ -653,57 +2634,165 @@ public class Chart extends Component
 			((ColumnChartOptions) aOptions).setIsStacked(bIsStacked);
 		}
 
-		aDataTables = eChartType.createChartData(getContext(), rChartData);
+		double    fStart	   = startTiming();
+		ChartData rSampledData = getSampledData();
+
+		if (bPreparing)
+		{
+			// keep displaying the previous chart until the data is prepared
+			return;
+		}
+
+		bSampled	   = (rSampledData != null);
+		nUnsampledRows = 0;
+		rTableData     = bSampled ? rSampledData : rNumericData;
+		rDrawView	   = null;
+
+		if (rDataModel != null)
+		{
+			DataTable rModelTable = rDataModel.getDataTable();
+
+			if (rModelTable == null)
+			{
+				rModelTable = DataTable.create();
+			}
+			else if (rDataView != null)
+			{
+				rDrawView =
+					rDataView.createView(rModelTable, rDataModel.getData());
+			}
+
+			rTableData  = rDataModel.getData();
+			aDataTables = Arrays.asList(rModelTable);
+		}
+		else if (rTableData != null && rTableData == rEncodedData)
+		{
+			ChartLabelCache rLabels = getLabelCache(getContext());
+
+			aDataTables =
+				Arrays.asList(ChartDataCodec.decodeTable(sEncodedData,
+														 rLabels));
+		}
+		else if (rTableData != null)
+		{
+			aDataTables =
+				Arrays.asList(createDataTable(getContext(), rTableData));
+		}
+		else if (rNetworkData != null)
+		{
+			aDataTables = Arrays.asList(createNetworkTable(rNetworkData));
+			rDrawnNodes = rNetworkData.getVisibleNodes();
+
+			nDrawnNodeCount   = rNetworkData.getNodeCount();
+			nDrawnModCount    = rNetworkData.getModificationCount();
+			nDrawnLayoutCount = rNetworkData.getLayoutCount();
+		}
+		else
+		{
+			aDataTables = eChartType.createChartData(getContext(), rChartData);
+		}
 
 		DataTable aFirstTable = aDataTables.get(0);
 
+		recordTiming(Phase.TABLE_BUILD, fStart, aFirstTable);
+		rChartPanel.clear();
+
 		if (aFirstTable.getNumberOfRows() > 0 &&
 			aFirstTable.getNumberOfColumns() > 0)
 		{
-			aChartWidget = eChartType.createChart();
+			fStart		 = startTiming();
+			aChartWidget = getChartWidget(eChartType);
 
 			rChartPanel.add(aChartWidget);
-			new ChartEventDispatcher().initEventDispatching(aChartWidget);
+			recordTiming(Phase.WIDGET_INIT, fStart, 0, 0);
 		}
 		else
 		{
-			HTML aLabel =
-				new HTML(getContext().expandResource("$lblNoEwtChartData"));
-
-			aLabel.addStyleName(GewtResources.INSTANCE.css()
-								.ewtNoChartDataLabel());
-			rChartPanel.add(aLabel);
+			showNoDataLabel();
 		}
 	}
 
 	/***************************************
-	 * Loads the external chart API.
+	 * Returns the start time for the measurement of a rendering phase.
+	 *
+	 * @return The current time in milliseconds or zero if instrumentation is
+	 *         disabled
+	 */
+	private double startTiming()
+	{
+		return rMetrics != null ? Duration.currentTimeMillis() : 0;
+	}
+
+	/***************************************
+	 * Tries to update the data table of a displayed network incrementally
+	 * after nodes have been added to the network. This is only possible if
+	 * the layout of the network is unchanged and all new nodes are visible.
 	 *
-	 * @param rPackages The chart packages to load the API for
+	 * @return TRUE if the table has been updated, FALSE if it needs to be
+	 *         re-created
 	 */
-	private void loadChartApi(ChartPackage... rPackages)
+	private boolean updateNetworkTable()
 	{
-		aChartLoader = new ChartLoader(rPackages);
+		int[] rNodes    = rNetworkData.getVisibleNodes();
+		int   nPrevRows = rDrawnNodes.length;
+		int   nAdded    = rNetworkData.getNodeCount() - nDrawnNodeCount;
+
+		if (rNetworkData.getLayoutCount() != nDrawnLayoutCount ||
+			rNodes.length != nPrevRows + nAdded)
+		{
+			return false;
+		}
 
-		aChartLoader.loadApi(new Runnable()
+		for (int i = 0; i < nPrevRows; i++)
+		{
+			if (rNodes[i] != rDrawnNodes[i])
 			{
-				@Override
-				public void run()
-				{
-					bChartApiLoaded = true;
+				return false;
+			}
+		}
 
-					for (Chart rDeferredChart : aDeferredCharts)
-					{
-						if (rDeferredChart.aChartWidget == null)
-						{
-							rDeferredChart.init();
-							rDeferredChart.repaint();
-						}
-					}
+		DataTable rTable = aDataTables.get(0);
 
-					aDeferredCharts = null;
-				}
-			});
+		ChartTableConverter.addNetworkRows(rNetworkData,
+										   rNodes,
+										   nPrevRows,
+										   new DataTableBuilder(rTable),
+										   rTable.getNumberOfRows());
+
+		rDrawnNodes     = rNodes;
+		nDrawnNodeCount = rNetworkData.getNodeCount();
+		nDrawnModCount  = rNetworkData.getModificationCount();
+
+		return true;
+	}
+
+	/***************************************
+	 * Queries the tile cache for the data of the visible range if the range
+	 * has changed or if new tiles have been loaded since the last query.
+	 *
+	 * @return TRUE if data for the visible range is available
+	 */
+	private boolean updateVisibleData()
+	{
+		if (bQueryTiles)
+		{
+			ChartData rData =
+				rTileCache.getData(fVisibleStart,
+								   fVisibleEnd,
+								   getDisplayWidth(),
+								   aTileListener);
+
+			bQueryTiles = false;
+
+			if (rData != null)
+			{
+				rNumericData = rData;
+				aChartWidget = null;
+				nDataRevision++;
+			}
+		}
+
+		return rNumericData != null;
 	}
 
 	//~ Inner Classes ----------------------------------------------------------
@@ -733,7 +2822,7 @@ public class Chart extends Component
 	 *
 	 * @author eso
 	 */
-	public abstract class RegionSelectHandler implements EventHandler
+	public abstract static class RegionSelectHandler implements EventHandler
 	{
 		//~ Methods ------------------------------------------------------------
 
@@ -825,20 +2914,126 @@ public class Chart extends Component
 	}
 
 	/********************************************************************
-	 * Dispatcher for list-specific events.
+	 * Dispatcher for list-specific events. Each dispatcher is permanently
+	 * associated with a chart widget so that the event handlers only need to
+	 * be registered once, even if the widget is reused by different charts.
 	 *
 	 * @author eso
 	 */
-	class ChartEventDispatcher
+	static class ChartEventDispatcher
 	{
+		//~ Instance fields ----------------------------------------------------
+
+		private final ChartWidget<?> rChartWidget;
+		private Chart				 rTargetChart;
+
+		//~ Constructors -------------------------------------------------------
+
+		/***************************************
+		 * Creates a new instance and initializes the event dispatching for a
+		 * certain visualization widget.
+		 *
+		 * @param rChartWidget The visualization widget
+		 */
+		ChartEventDispatcher(ChartWidget<?> rChartWidget)
+		{
+			this.rChartWidget = rChartWidget;
+
+			initEventDispatching(rChartWidget);
+		}
+
 		//~ Methods ------------------------------------------------------------
 
+		/***************************************
+		 * Returns the chart widget of this dispatcher.
+		 *
+		 * @return The chart widget
+		 */
+		final ChartWidget<?> getChartWidget()
+		{
+			return rChartWidget;
+		}
+
+		/***************************************
+		 * Sets the chart that events will be dispatched to.
+		 *
+		 * @param rChart The target chart or NULL to ignore events
+		 */
+		final void setTargetChart(Chart rChart)
+		{
+			rTargetChart = rChart;
+		}
+
+		/***************************************
+		 * Notifies the target chart of an event.
+		 *
+		 * @param eEventType The event type
+		 * @param rElement   The event element or NULL for none
+		 */
+		void dispatchEvent(EventType eEventType, Object rElement)
+		{
+			if (rTargetChart != null)
+			{
+				rTargetChart.notifyEventHandler(eEventType, rElement, null);
+			}
+		}
+
+		/***************************************
+		 * Notifies the target chart of a selection event. The event element
+		 * will be a {@link ChartSelection} containing the selected elements
+		 * of the chart widget. The selection must be queried by the caller
+		 * because only some chart widget types provide it.
+		 *
+		 * @param rWidgetSelection The current selection of the chart widget
+		 */
+		void dispatchSelection(JsArray<Selection> rWidgetSelection)
+		{
+			if (rTargetChart != null)
+			{
+				ChartSelection aSelection =
+					rTargetChart.createSelection(rWidgetSelection);
+
+				rTargetChart.notifyEventHandler(EventType.SELECTION,
+												aSelection,
+												null);
+			}
+		}
+
+		/***************************************
+		 * Notifies the target chart of a pointer event. The event will be
+		 * dispatched through the chart's {@link ChartPointerEvents}.
+		 *
+		 * @param bEntered TRUE if the pointer entered the element, FALSE if
+		 *                 it left it
+		 * @param nRow     The row of the element
+		 * @param nColumn  The column of the element
+		 */
+		void dispatchPointerEvent(boolean bEntered, int nRow, int nColumn)
+		{
+			if (rTargetChart != null)
+			{
+				ChartPointerEvents rPointerEvents =
+					rTargetChart.aPointerEvents;
+				ChartElement	   aElement		  =
+					new ChartElement(nRow, nColumn);
+
+				if (bEntered)
+				{
+					rPointerEvents.elementEntered(aElement);
+				}
+				else
+				{
+					rPointerEvents.elementExited(aElement);
+				}
+			}
+		}
+
 		/***************************************
 		 * Initializes the event dispatching for a certain visualization widget.
 		 *
 		 * @param rChartWidget The visualization widget
 		 */
-		void initEventDispatching(ChartWidget<?> rChartWidget)
+		private void initEventDispatching(ChartWidget<?> rChartWidget)
 		{
 			if (rChartWidget instanceof CoreChartWidget)
 			{
@@ -850,7 +3045,7 @@ public class Chart extends Component
 						@Override
 						public void onSelect(SelectEvent rEvent)
 						{
-							notifyEventHandler(EventType.SELECTION);
+							dispatchSelection(rChart.getSelection());
 						}
 					});
 
@@ -859,7 +3054,9 @@ public class Chart extends Component
 						@Override
 						public void onMouseOver(OnMouseOverEvent rEvent)
 						{
-							notifyEventHandler(EventType.POINTER_ENTERED);
+							dispatchPointerEvent(true,
+												 rEvent.getRow(),
+												 rEvent.getColumn());
 						}
 					});
 
@@ -868,7 +3065,22 @@ public class Chart extends Component
 						@Override
 						public void onMouseOutEvent(OnMouseOutEvent rEvent)
 						{
-							notifyEventHandler(EventType.POINTER_EXITED);
+							dispatchPointerEvent(false,
+												 rEvent.getRow(),
+												 rEvent.getColumn());
+						}
+					});
+			}
+			else if (rChartWidget instanceof OrgChart)
+			{
+				final OrgChart rOrgChart = (OrgChart) rChartWidget;
+
+				rOrgChart.addSelectHandler(new SelectHandler()
+					{
+						@Override
+						public void onSelect(SelectEvent rEvent)
+						{
+							dispatchSelection(rOrgChart.getSelection());
 						}
 					});
 			}
@@ -881,12 +3093,99 @@ public class Chart extends Component
 						@Override
 						public void onRegionSelect(RegionSelectEvent rEvent)
 						{
-							notifyEventHandler(EventType.SELECTION,
-											   rEvent.getRegion(),
-											   null);
+							dispatchEvent(EventType.SELECTION,
+										  rEvent.getRegion());
 						}
 					});
 			}
 		}
 	}
+
+	/********************************************************************
+	 * Handles the mouse events for zooming and panning a chart with a data
+	 * provider. The mouse wheel zooms around the mouse position and dragging
+	 * the chart moves the visible range. The mouse is captured while dragging
+	 * so that the drag continues outside of the chart.
+	 *
+	 * @author eso
+	 */
+	class ZoomPanHandler implements MouseWheelHandler, MouseDownHandler,
+									MouseMoveHandler, MouseUpHandler
+	{
+		//~ Instance fields ----------------------------------------------------
+
+		private int nDragX = -1;
+
+		//~ Methods ------------------------------------------------------------
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void onMouseDown(MouseDownEvent rEvent)
+		{
+			if (rTileCache != null)
+			{
+				nDragX = rEvent.getClientX();
+				DOM.setCapture(getWidget().getElement());
+
+				// prevent text selection while dragging
+				rEvent.preventDefault();
+			}
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void onMouseMove(MouseMoveEvent rEvent)
+		{
+			int nWidth = getWidget().getOffsetWidth();
+
+			if (nDragX >= 0 && rTileCache != null && nWidth > 0)
+			{
+				int nX = rEvent.getClientX();
+
+				pan((double) (nDragX - nX) / nWidth);
+				nDragX = nX;
+				repaint();
+			}
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void onMouseUp(MouseUpEvent rEvent)
+		{
+			if (nDragX >= 0)
+			{
+				nDragX = -1;
+				DOM.releaseCapture(getWidget().getElement());
+			}
+		}
+
+		/***************************************
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void onMouseWheel(MouseWheelEvent rEvent)
+		{
+			Element rElement = getWidget().getElement();
+			int     nWidth   = getWidget().getOffsetWidth();
+
+			if (rTileCache != null && nWidth > 0)
+			{
+				int    nX	   = rEvent.getRelativeX(rElement);
+				double fAnchor = (double) nX / nWidth;
+
+				zoom(rEvent.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP,
+					 Math.max(0, Math.min(fAnchor, 1)));
+
+				// prevent scrolling of the page
+				rEvent.preventDefault();
+				repaint();
+			}
+		}
+	}
 }
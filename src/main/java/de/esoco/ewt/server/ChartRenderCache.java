@@ -0,0 +1,185 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.server;
+
+import de.esoco.ewt.chart.ChartFingerprint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+
+/********************************************************************
+ * A cache for rendered charts that is keyed by the {@link ChartFingerprint}
+ * of the chart data and the rendering settings. Reports and thumbnails often
+ * contain the same charts many times (e.g. the same KPI chart in the reports
+ * of all recipients) which will then only be rendered once. The size of the
+ * cache is bounded and the least recently used charts will be evicted if the
+ * maximum size is exceeded.
+ *
+ * <p>All methods are synchronized so that a cache can be shared by multiple
+ * rendering threads. Cached values must not be modified.</p>
+ *
+ * @author eso
+ */
+public class ChartRenderCache<T>
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The default maximum number of cached charts. */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final Map<ChartFingerprint, T> aCharts;
+
+	private int  nMaxSize;
+	private long nHits   = 0;
+	private long nMisses = 0;
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance with the default maximum size.
+	 */
+	public ChartRenderCache()
+	{
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param nMaxSize The maximum number of cached charts
+	 */
+	@SuppressWarnings("serial")
+	public ChartRenderCache(int nMaxSize)
+	{
+		this.nMaxSize = nMaxSize;
+
+		aCharts =
+			new LinkedHashMap<ChartFingerprint, T>(64, 0.75f, true)
+			{
+				@Override
+				protected boolean removeEldestEntry(
+					Entry<ChartFingerprint, T> rEldest)
+				{
+					return size() > ChartRenderCache.this.nMaxSize;
+				}
+			};
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Removes all charts from this cache.
+	 */
+	public synchronized void clear()
+	{
+		aCharts.clear();
+	}
+
+	/***************************************
+	 * Returns a cached chart.
+	 *
+	 * @param  rFingerprint The fingerprint of the chart
+	 *
+	 * @return The cached chart or NULL if not cached
+	 */
+	public synchronized T get(ChartFingerprint rFingerprint)
+	{
+		T rChart = aCharts.get(rFingerprint);
+
+		if (rChart != null)
+		{
+			nHits++;
+		}
+		else
+		{
+			nMisses++;
+		}
+
+		return rChart;
+	}
+
+	/***************************************
+	 * Returns the number of lookups that have been served from the cache.
+	 *
+	 * @return The hit count
+	 */
+	public synchronized long getHitCount()
+	{
+		return nHits;
+	}
+
+	/***************************************
+	 * Returns the maximum number of charts in this cache.
+	 *
+	 * @return The maximum size
+	 */
+	public synchronized int getMaxSize()
+	{
+		return nMaxSize;
+	}
+
+	/***************************************
+	 * Returns the number of lookups that didn't find a cached chart.
+	 *
+	 * @return The miss count
+	 */
+	public synchronized long getMissCount()
+	{
+		return nMisses;
+	}
+
+	/***************************************
+	 * Adds a rendered chart to this cache.
+	 *
+	 * @param rFingerprint The fingerprint of the chart
+	 * @param rChart       The rendered chart
+	 */
+	public synchronized void put(ChartFingerprint rFingerprint, T rChart)
+	{
+		aCharts.put(rFingerprint, rChart);
+	}
+
+	/***************************************
+	 * Sets the maximum number of charts in this cache. If the current size
+	 * exceeds the new maximum the cache will be cleared.
+	 *
+	 * @param nNewMaxSize The new maximum size
+	 */
+	public synchronized void setMaxSize(int nNewMaxSize)
+	{
+		nMaxSize = nNewMaxSize;
+
+		if (aCharts.size() > nMaxSize)
+		{
+			clear();
+		}
+	}
+
+	/***************************************
+	 * Returns the current number of charts in this cache.
+	 *
+	 * @return The cache size
+	 */
+	public synchronized int size()
+	{
+		return aCharts.size();
+	}
+}
@@ -0,0 +1,471 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.server;
+
+import de.esoco.ewt.chart.ChartData;
+import de.esoco.ewt.chart.ChartFingerprint;
+import de.esoco.ewt.chart.ChartPainter;
+import de.esoco.ewt.chart.ChartPainter.Shape;
+import de.esoco.ewt.chart.ChartSurface;
+import de.esoco.ewt.chart.DataSetChartData;
+import de.esoco.ewt.component.Chart.ChartLegendPosition;
+import de.esoco.ewt.component.Chart.ChartType;
+
+import de.esoco.lib.model.DataSet;
+
+import java.util.Arrays;
+
+import com.googlecode.gwt.charts.client.options.LegendPosition;
+
+
+/********************************************************************
+ * Renders charts on the server without a browser, e.g. for scheduled reports
+ * or thumbnails. The renderer takes the same settings as the {@link
+ * de.esoco.ewt.component.Chart} component and draws the chart with the
+ * {@link ChartPainter} that is also used by the canvas backend of charts in
+ * the browser. Charts can be rendered as SVG documents or as PNG images; the
+ * latter works in headless mode of the JVM.
+ *
+ * <p>The supported chart types are those with a canvas shape (see {@link
+ * ChartType#getCanvasShape()}) and {@link ChartType#PIE}. 3D charts are drawn
+ * flat. Rendered charts are cached in {@link ChartRenderCache} instances
+ * that are keyed by the {@link ChartFingerprint} of the data and all
+ * settings, so that identical charts will only be rendered once. The caches
+ * can be shared between multiple renderers. A renderer that has been
+ * configured completely can be used by multiple threads concurrently.</p>
+ *
+ * <p>This class is part of the server package that is excluded from the GWT
+ * compilation.</p>
+ *
+ * @author eso
+ */
+public class HeadlessChartRenderer
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	/** The default chart width in pixels. */
+	public static final int DEFAULT_WIDTH = 400;
+
+	/** The default chart height in pixels. */
+	public static final int DEFAULT_HEIGHT = 200;
+
+	private static final String FORMAT_SVG = "svg";
+	private static final String FORMAT_PNG = "png";
+
+	//~ Instance fields --------------------------------------------------------
+
+	private ChartType		    eChartType	    = ChartType.LINE;
+	private ChartLegendPosition eLegendPosition = null;
+
+	private String   sBackgroundColor = null;
+	private String[] rColors		  = null;
+	private boolean  bIs3D			  = false;
+	private boolean  bIsStacked		  = false;
+	private int		 nWidth			  = DEFAULT_WIDTH;
+	private int		 nHeight		  = DEFAULT_HEIGHT;
+
+	private ChartRenderCache<String> rSvgCache = new ChartRenderCache<>();
+	private ChartRenderCache<byte[]> rPngCache = new ChartRenderCache<>();
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Checks whether a chart type can be rendered by this class.
+	 *
+	 * @param  eChartType The chart type
+	 *
+	 * @return TRUE if the chart type is supported
+	 */
+	public static boolean isSupported(ChartType eChartType)
+	{
+		return getShape(eChartType) != null;
+	}
+
+	/***************************************
+	 * Maps a chart legend position to the corresponding painter position.
+	 *
+	 * @param  ePosition The chart legend position or NULL for the default
+	 *
+	 * @return The painter legend position or NULL for the default
+	 */
+	private static LegendPosition getLegendPosition(
+		ChartLegendPosition ePosition)
+	{
+		LegendPosition eResult = null;
+
+		if (ePosition != null)
+		{
+			switch (ePosition)
+			{
+				case TOP:
+					eResult = LegendPosition.TOP;
+					break;
+
+				case BOTTOM:
+					eResult = LegendPosition.BOTTOM;
+					break;
+
+				case LEFT:
+					// same mapping as for the chart API
+					eResult = LegendPosition.IN;
+					break;
+
+				case NONE:
+					eResult = LegendPosition.NONE;
+					break;
+
+				default:
+					eResult = LegendPosition.RIGHT;
+			}
+		}
+
+		return eResult;
+	}
+
+	/***************************************
+	 * Returns the painter shape for a chart type.
+	 *
+	 * @param  eChartType The chart type
+	 *
+	 * @return The shape or NULL if the chart type is not supported
+	 */
+	private static Shape getShape(ChartType eChartType)
+	{
+		return eChartType == ChartType.PIE ? Shape.PIE
+										   : eChartType.getCanvasShape();
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Returns the chart type.
+	 *
+	 * @return The chart type
+	 */
+	public final ChartType getChartType()
+	{
+		return eChartType;
+	}
+
+	/***************************************
+	 * Returns the fingerprint of a chart that would be rendered by this
+	 * instance. It contains the chart data, all settings, and the output
+	 * format.
+	 *
+	 * @param  rData   The chart data
+	 * @param  sFormat The output format
+	 *
+	 * @return The chart fingerprint
+	 */
+	public ChartFingerprint getFingerprint(ChartData rData, String sFormat)
+	{
+		return ChartFingerprint.of(rData,
+								   sFormat,
+								   eChartType,
+								   eLegendPosition,
+								   sBackgroundColor,
+								   Arrays.toString(rColors),
+								   bIsStacked,
+								   nWidth,
+								   nHeight);
+	}
+
+	/***************************************
+	 * Returns the height of rendered charts.
+	 *
+	 * @return The height in pixels
+	 */
+	public final int getHeight()
+	{
+		return nHeight;
+	}
+
+	/***************************************
+	 * Returns the cache for rendered PNG images.
+	 *
+	 * @return The PNG cache or NULL if PNG images are not cached
+	 */
+	public final ChartRenderCache<byte[]> getPngCache()
+	{
+		return rPngCache;
+	}
+
+	/***************************************
+	 * Returns the cache for rendered SVG documents.
+	 *
+	 * @return The SVG cache or NULL if SVG documents are not cached
+	 */
+	public final ChartRenderCache<String> getSvgCache()
+	{
+		return rSvgCache;
+	}
+
+	/***************************************
+	 * Returns the width of rendered charts.
+	 *
+	 * @return The width in pixels
+	 */
+	public final int getWidth()
+	{
+		return nWidth;
+	}
+
+	/***************************************
+	 * Returns the 3D display state.
+	 *
+	 * @return The 3D display flag
+	 */
+	public final boolean is3D()
+	{
+		return bIs3D;
+	}
+
+	/***************************************
+	 * Returns the stacked display state.
+	 *
+	 * @return The stacked display flag
+	 */
+	public final boolean isStacked()
+	{
+		return bIsStacked;
+	}
+
+	/***************************************
+	 * Paints chart data onto an arbitrary chart surface with the settings of
+	 * this instance. This can be used to render charts into other output
+	 * formats. The result will not be cached.
+	 *
+	 * @param rData    The chart data
+	 * @param rSurface The surface to paint on
+	 */
+	public void paint(ChartData rData, ChartSurface rSurface)
+	{
+		ChartPainter aPainter = new ChartPainter();
+
+		aPainter.setShape(getShape(eChartType));
+		aPainter.setLegendPosition(getLegendPosition(eLegendPosition));
+		aPainter.setBackgroundColor(sBackgroundColor);
+		aPainter.setColors(rColors);
+		aPainter.setStacked(bIsStacked);
+		aPainter.paint(rSurface, rData, nWidth, nHeight);
+	}
+
+	/***************************************
+	 * Renders a chart from a data set as a PNG image. The values of the data
+	 * set must either be NULL or instances of {@link Number}.
+	 *
+	 * @param  rDataSet The chart data set
+	 *
+	 * @return The PNG image data
+	 */
+	public byte[] renderPng(DataSet<?> rDataSet)
+	{
+		return renderPng(new DataSetChartData(rDataSet));
+	}
+
+	/***************************************
+	 * Renders a chart as a PNG image.
+	 *
+	 * @param  rData The chart data
+	 *
+	 * @return The PNG image data
+	 */
+	public byte[] renderPng(ChartData rData)
+	{
+		ChartRenderCache<byte[]> rCache    = rPngCache;
+		ChartFingerprint		 rKey	   = null;
+		byte[]					 rPngImage = null;
+
+		if (rCache != null)
+		{
+			rKey	  = getFingerprint(rData, FORMAT_PNG);
+			rPngImage = rCache.get(rKey);
+		}
+
+		if (rPngImage == null)
+		{
+			ImageChartSurface aSurface = new ImageChartSurface(nWidth, nHeight);
+
+			try
+			{
+				paint(rData, aSurface);
+				rPngImage = aSurface.toPng();
+			}
+			finally
+			{
+				aSurface.dispose();
+			}
+
+			if (rCache != null)
+			{
+				rCache.put(rKey, rPngImage);
+			}
+		}
+
+		// prevent modification of the cached image
+		return rPngImage.clone();
+	}
+
+	/***************************************
+	 * Renders a chart from a data set as an SVG document. The values of the
+	 * data set must either be NULL or instances of {@link Number}.
+	 *
+	 * @param  rDataSet The chart data set
+	 *
+	 * @return The SVG document
+	 */
+	public String renderSvg(DataSet<?> rDataSet)
+	{
+		return renderSvg(new DataSetChartData(rDataSet));
+	}
+
+	/***************************************
+	 * Renders a chart as an SVG document.
+	 *
+	 * @param  rData The chart data
+	 *
+	 * @return The SVG document
+	 */
+	public String renderSvg(ChartData rData)
+	{
+		ChartRenderCache<String> rCache = rSvgCache;
+		ChartFingerprint		 rKey   = null;
+		String					 sSvg   = null;
+
+		if (rCache != null)
+		{
+			rKey = getFingerprint(rData, FORMAT_SVG);
+			sSvg = rCache.get(rKey);
+		}
+
+		if (sSvg == null)
+		{
+			SvgChartSurface aSurface = new SvgChartSurface(nWidth, nHeight);
+
+			paint(rData, aSurface);
+			sSvg = aSurface.getSvg();
+
+			if (rCache != null)
+			{
+				rCache.put(rKey, sSvg);
+			}
+		}
+
+		return sSvg;
+	}
+
+	/***************************************
+	 * Sets the 3D display state. This is accepted for compatibility with the
+	 * chart component but 3D charts are drawn flat.
+	 *
+	 * @param b3D The 3D display flag
+	 */
+	public final void set3D(boolean b3D)
+	{
+		bIs3D = b3D;
+	}
+
+	/***************************************
+	 * Sets the background color.
+	 *
+	 * @param sColor The HTML background color or NULL for transparent
+	 */
+	public final void setBackgroundColor(String sColor)
+	{
+		sBackgroundColor = sColor;
+	}
+
+	/***************************************
+	 * Sets the chart type.
+	 *
+	 * @param  eChartType The new chart type
+	 *
+	 * @throws IllegalArgumentException If the chart type is not supported
+	 */
+	public final void setChartType(ChartType eChartType)
+	{
+		if (!isSupported(eChartType))
+		{
+			throw new IllegalArgumentException("Unsupported chart type: " +
+											   eChartType);
+		}
+
+		this.eChartType = eChartType;
+	}
+
+	/***************************************
+	 * Sets the colors of the data series.
+	 *
+	 * @param rColors The HTML colors or NULL for the default colors
+	 */
+	public final void setColors(String... rColors)
+	{
+		this.rColors = rColors != null ? rColors.clone() : null;
+	}
+
+	/***************************************
+	 * Sets the legend position.
+	 *
+	 * @param ePosition The legend position or NULL for the default
+	 */
+	public final void setLegendPosition(ChartLegendPosition ePosition)
+	{
+		eLegendPosition = ePosition;
+	}
+
+	/***************************************
+	 * Sets the cache for rendered PNG images.
+	 *
+	 * @param rCache The new cache or NULL to disable caching
+	 */
+	public final void setPngCache(ChartRenderCache<byte[]> rCache)
+	{
+		rPngCache = rCache;
+	}
+
+	/***************************************
+	 * Sets the size of rendered charts.
+	 *
+	 * @param nWidth  The width in pixels
+	 * @param nHeight The height in pixels
+	 */
+	public final void setSize(int nWidth, int nHeight)
+	{
+		this.nWidth  = nWidth;
+		this.nHeight = nHeight;
+	}
+
+	/***************************************
+	 * Sets the stacked display state of certain charts.
+	 *
+	 * @param bStacked The stacked display flag
+	 */
+	public final void setStacked(boolean bStacked)
+	{
+		bIsStacked = bStacked;
+	}
+
+	/***************************************
+	 * Sets the cache for rendered SVG documents.
+	 *
+	 * @param rCache The new cache or NULL to disable caching
+	 */
+	public final void setSvgCache(ChartRenderCache<String> rCache)
+	{
+		rSvgCache = rCache;
+	}
+}
@@ -0,0 +1,359 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.server;
+
+import de.esoco.ewt.chart.ChartSurface;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+
+/********************************************************************
+ * A chart surface that draws into a bitmap image with Java2D. It works in
+ * headless mode (<code>-Djava.awt.headless=true</code>) and doesn't require a
+ * display. Colors must be given in hexadecimal notation (e.g. "#3366cc" or
+ * "36c"), the values "none" and "transparent" are drawn invisible.
+ *
+ * @author eso
+ */
+public class ImageChartSurface implements ChartSurface
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	private static final Font FONT =
+		new Font(Font.SANS_SERIF, Font.PLAIN, FONT_SIZE);
+
+	private static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final BufferedImage aImage;
+	private final Graphics2D    aGraphics;
+	private final FontMetrics   rFontMetrics;
+
+	private Path2D			   aPath   = new Path2D.Double();
+	private Map<String, Color> aColors = new HashMap<>();
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance with a transparent background.
+	 *
+	 * @param nWidth  The image width in pixels
+	 * @param nHeight The image height in pixels
+	 */
+	public ImageChartSurface(int nWidth, int nHeight)
+	{
+		aImage    = new BufferedImage(nWidth, nHeight,
+									  BufferedImage.TYPE_INT_ARGB);
+		aGraphics = aImage.createGraphics();
+
+		aGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+								   RenderingHints.VALUE_ANTIALIAS_ON);
+		aGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+								   RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		aGraphics.setFont(FONT);
+
+		rFontMetrics = aGraphics.getFontMetrics();
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void arc(double fX,
+					double fY,
+					double fR,
+					double fStart,
+					double fEnd)
+	{
+		// Java2D angles are in degrees and increase counter-clockwise
+		Arc2D aArc =
+			new Arc2D.Double(fX - fR,
+							 fY - fR,
+							 2 * fR,
+							 2 * fR,
+							 -Math.toDegrees(fStart),
+							 -Math.toDegrees(fEnd - fStart),
+							 Arc2D.OPEN);
+
+		aPath.append(aArc, aPath.getCurrentPoint() != null);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void beginPath()
+	{
+		aPath = new Path2D.Double();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void closePath()
+	{
+		if (aPath.getCurrentPoint() != null)
+		{
+			aPath.closePath();
+		}
+	}
+
+	/***************************************
+	 * Releases the graphics resources of this surface. It must not be used
+	 * for drawing afterwards.
+	 */
+	public void dispose()
+	{
+		aGraphics.dispose();
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void fill(String sColor, double fAlpha)
+	{
+		aGraphics.setComposite(
+			AlphaComposite.getInstance(AlphaComposite.SRC_OVER,
+									   (float) fAlpha));
+		aGraphics.setColor(getColor(sColor));
+		aGraphics.fill(aPath);
+		aGraphics.setComposite(AlphaComposite.SrcOver);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void fillRect(double fX,
+						 double fY,
+						 double fWidth,
+						 double fHeight,
+						 String sColor)
+	{
+		aGraphics.setColor(getColor(sColor));
+		aGraphics.fill(new Rectangle2D.Double(fX, fY, fWidth, fHeight));
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void fillText(String		  sText,
+						 double		  fX,
+						 double		  fY,
+						 TextAlign    eAlign,
+						 TextBaseline eBaseline,
+						 String		  sColor)
+	{
+		int nAscent = rFontMetrics.getAscent();
+
+		if (eAlign != TextAlign.LEFT)
+		{
+			double fWidth = rFontMetrics.stringWidth(sText);
+
+			fX -= eAlign == TextAlign.CENTER ? fWidth / 2 : fWidth;
+		}
+
+		fY +=
+			eBaseline == TextBaseline.TOP
+			? nAscent : (nAscent - rFontMetrics.getDescent()) / 2.0;
+
+		aGraphics.setColor(getColor(sColor));
+		aGraphics.drawString(sText, (float) fX, (float) fY);
+	}
+
+	/***************************************
+	 * Returns the image that has been drawn.
+	 *
+	 * @return The image
+	 */
+	public final BufferedImage getImage()
+	{
+		return aImage;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void lineTo(double fX, double fY)
+	{
+		if (aPath.getCurrentPoint() == null)
+		{
+			aPath.moveTo(fX, fY);
+		}
+		else
+		{
+			aPath.lineTo(fX, fY);
+		}
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double measureText(String sText)
+	{
+		return rFontMetrics.stringWidth(sText);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void moveTo(double fX, double fY)
+	{
+		aPath.moveTo(fX, fY);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rect(double fX, double fY, double fWidth, double fHeight)
+	{
+		aPath.append(new Rectangle2D.Double(fX, fY, fWidth, fHeight), false);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void stroke(String sColor, double fLineWidth)
+	{
+		aGraphics.setColor(getColor(sColor));
+		aGraphics.setStroke(new BasicStroke((float) fLineWidth));
+		aGraphics.draw(aPath);
+	}
+
+	/***************************************
+	 * Encodes the image in the PNG format.
+	 *
+	 * @return The PNG data
+	 */
+	public byte[] toPng()
+	{
+		ByteArrayOutputStream aOut = new ByteArrayOutputStream(16384);
+
+		try
+		{
+			ImageIO.write(aImage, "png", aOut);
+		}
+		catch (IOException e)
+		{
+			// cannot occur with an in-memory stream
+			throw new IllegalStateException(e);
+		}
+
+		return aOut.toByteArray();
+	}
+
+	/***************************************
+	 * Returns the Java2D color for an HTML color definition.
+	 *
+	 * @param  sColor The HTML color
+	 *
+	 * @return The corresponding color
+	 */
+	private Color getColor(String sColor)
+	{
+		Color rColor = aColors.get(sColor);
+
+		if (rColor == null)
+		{
+			rColor = parseColor(sColor);
+			aColors.put(sColor, rColor);
+		}
+
+		return rColor;
+	}
+
+	/***************************************
+	 * Parses a hexadecimal color definition with or without a leading '#'.
+	 *
+	 * @param  sColor The color definition
+	 *
+	 * @return The color
+	 *
+	 * @throws IllegalArgumentException If the color cannot be parsed
+	 */
+	private Color parseColor(String sColor)
+	{
+		String sHex = sColor.trim();
+
+		if (sHex.equalsIgnoreCase("none") ||
+			sHex.equalsIgnoreCase("transparent"))
+		{
+			return TRANSPARENT;
+		}
+
+		if (sHex.startsWith("#"))
+		{
+			sHex = sHex.substring(1);
+		}
+
+		if (sHex.length() == 3)
+		{
+			char[] aRgb = new char[6];
+
+			for (int i = 0; i < 3; i++)
+			{
+				aRgb[2 * i]     = sHex.charAt(i);
+				aRgb[2 * i + 1] = sHex.charAt(i);
+			}
+
+			sHex = new String(aRgb);
+		}
+
+		try
+		{
+			if (sHex.length() != 6)
+			{
+				throw new NumberFormatException(sHex);
+			}
+
+			return new Color(Integer.parseInt(sHex, 16));
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Unsupported color: " + sColor);
+		}
+	}
+}
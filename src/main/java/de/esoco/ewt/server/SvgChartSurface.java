@@ -0,0 +1,347 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.server;
+
+import de.esoco.ewt.chart.ChartSurface;
+
+
+/********************************************************************
+ * A chart surface that creates an SVG document. The document is built with a
+ * string builder and doesn't require any graphics libraries so that it can be
+ * used on headless servers. Each path is written as a single SVG path
+ * element and coordinates are rounded to two decimal places to keep the
+ * documents small. Text widths are estimated from the text length because
+ * the actual font is only known when the document is displayed.
+ *
+ * @author eso
+ */
+public class SvgChartSurface implements ChartSurface
+{
+	//~ Static fields/initializers ---------------------------------------------
+
+	private static final double CHAR_WIDTH = FONT_SIZE * 0.55;
+
+	//~ Instance fields --------------------------------------------------------
+
+	private final StringBuilder aSvg  = new StringBuilder(4096);
+	private final StringBuilder aPath = new StringBuilder(1024);
+
+	//~ Constructors -----------------------------------------------------------
+
+	/***************************************
+	 * Creates a new instance.
+	 *
+	 * @param nWidth  The width of the SVG document in pixels
+	 * @param nHeight The height of the SVG document in pixels
+	 */
+	public SvgChartSurface(int nWidth, int nHeight)
+	{
+		aSvg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"");
+		aSvg.append(nWidth).append("\" height=\"").append(nHeight);
+		aSvg.append("\" viewBox=\"0 0 ").append(nWidth).append(' ');
+		aSvg.append(nHeight).append("\" font-family=\"sans-serif\"");
+		aSvg.append(" font-size=\"").append(FONT_SIZE).append("\">");
+	}
+
+	//~ Static methods ---------------------------------------------------------
+
+	/***************************************
+	 * Appends a coordinate rounded to two decimal places without using the
+	 * exponential notation of {@link Double#toString(double)}.
+	 *
+	 * @param rBuilder The string builder to append to
+	 * @param fValue   The value to append
+	 */
+	static void appendNumber(StringBuilder rBuilder, double fValue)
+	{
+		long nScaled = Math.round(fValue * 100);
+
+		if (nScaled < 0)
+		{
+			rBuilder.append('-');
+			nScaled = -nScaled;
+		}
+
+		rBuilder.append(nScaled / 100);
+
+		int nFraction = (int) (nScaled % 100);
+
+		if (nFraction != 0)
+		{
+			rBuilder.append('.').append(nFraction / 10);
+
+			if (nFraction % 10 != 0)
+			{
+				rBuilder.append(nFraction % 10);
+			}
+		}
+	}
+
+	/***************************************
+	 * Appends a text with the XML special characters escaped.
+	 *
+	 * @param rBuilder The string builder to append to
+	 * @param sText    The text to append
+	 */
+	static void appendText(StringBuilder rBuilder, String sText)
+	{
+		int nLength = sText.length();
+
+		for (int i = 0; i < nLength; i++)
+		{
+			char c = sText.charAt(i);
+
+			switch (c)
+			{
+				case '&':
+					rBuilder.append("&amp;");
+					break;
+
+				case '<':
+					rBuilder.append("&lt;");
+					break;
+
+				case '>':
+					rBuilder.append("&gt;");
+					break;
+
+				case '"':
+					rBuilder.append("&quot;");
+					break;
+
+				default:
+					rBuilder.append(c);
+			}
+		}
+	}
+
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void arc(double fX,
+					double fY,
+					double fR,
+					double fStart,
+					double fEnd)
+	{
+		double fExtent = fEnd - fStart;
+		int    nParts  = (int) Math.max(Math.ceil(Math.abs(fExtent) / Math.PI),
+										1);
+
+		addPoint(aPath.length() == 0 ? 'M' : 'L',
+				 fX + fR * Math.cos(fStart),
+				 fY + fR * Math.sin(fStart));
+
+		for (int i = 1; i <= nParts; i++)
+		{
+			double fAngle = fStart + fExtent * i / nParts;
+
+			aPath.append('A');
+			appendNumber(aPath, fR);
+			aPath.append(' ');
+			appendNumber(aPath, fR);
+			aPath.append(fExtent >= 0 ? " 0 0 1 " : " 0 0 0 ");
+			appendNumber(aPath, fX + fR * Math.cos(fAngle));
+			aPath.append(' ');
+			appendNumber(aPath, fY + fR * Math.sin(fAngle));
+		}
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void beginPath()
+	{
+		aPath.setLength(0);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void closePath()
+	{
+		aPath.append('Z');
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void fill(String sColor, double fAlpha)
+	{
+		if (aPath.length() > 0)
+		{
+			aSvg.append("<path d=\"").append(aPath).append("\" fill=\"");
+			appendText(aSvg, sColor);
+
+			if (fAlpha < 1)
+			{
+				aSvg.append("\" fill-opacity=\"");
+				appendNumber(aSvg, fAlpha);
+			}
+
+			aSvg.append("\"/>");
+		}
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void fillRect(double fX,
+						 double fY,
+						 double fWidth,
+						 double fHeight,
+						 String sColor)
+	{
+		aSvg.append("<rect x=\"");
+		appendNumber(aSvg, fX);
+		aSvg.append("\" y=\"");
+		appendNumber(aSvg, fY);
+		aSvg.append("\" width=\"");
+		appendNumber(aSvg, fWidth);
+		aSvg.append("\" height=\"");
+		appendNumber(aSvg, fHeight);
+		aSvg.append("\" fill=\"");
+		appendText(aSvg, sColor);
+		aSvg.append("\"/>");
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void fillText(String		  sText,
+						 double		  fX,
+						 double		  fY,
+						 TextAlign    eAlign,
+						 TextBaseline eBaseline,
+						 String		  sColor)
+	{
+		// baseline offsets instead of dominant-baseline which is not
+		// supported by all SVG consumers
+		fY += eBaseline == TextBaseline.TOP ? FONT_SIZE * 0.8
+											: FONT_SIZE * 0.35;
+
+		aSvg.append("<text x=\"");
+		appendNumber(aSvg, fX);
+		aSvg.append("\" y=\"");
+		appendNumber(aSvg, fY);
+
+		if (eAlign != TextAlign.LEFT)
+		{
+			aSvg.append("\" text-anchor=\"");
+			aSvg.append(eAlign == TextAlign.CENTER ? "middle" : "end");
+		}
+
+		aSvg.append("\" fill=\"");
+		appendText(aSvg, sColor);
+		aSvg.append("\">");
+		appendText(aSvg, sText);
+		aSvg.append("</text>");
+	}
+
+	/***************************************
+	 * Returns the SVG document.
+	 *
+	 * @return The SVG document
+	 */
+	public String getSvg()
+	{
+		return aSvg.toString() + "</svg>";
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void lineTo(double fX, double fY)
+	{
+		addPoint('L', fX, fY);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double measureText(String sText)
+	{
+		return sText.length() * CHAR_WIDTH;
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void moveTo(double fX, double fY)
+	{
+		addPoint('M', fX, fY);
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rect(double fX, double fY, double fWidth, double fHeight)
+	{
+		addPoint('M', fX, fY);
+		aPath.append('h');
+		appendNumber(aPath, fWidth);
+		aPath.append('v');
+		appendNumber(aPath, fHeight);
+		aPath.append('h');
+		appendNumber(aPath, -fWidth);
+		aPath.append('Z');
+	}
+
+	/***************************************
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void stroke(String sColor, double fLineWidth)
+	{
+		if (aPath.length() > 0)
+		{
+			aSvg.append("<path d=\"").append(aPath);
+			aSvg.append("\" fill=\"none\" stroke=\"");
+			appendText(aSvg, sColor);
+			aSvg.append("\" stroke-width=\"");
+			appendNumber(aSvg, fLineWidth);
+			aSvg.append("\"/>");
+		}
+	}
+
+	/***************************************
+	 * Adds a point command to the current path.
+	 *
+	 * @param cCommand The path command
+	 * @param fX       The X coordinate
+	 * @param fY       The Y coordinate
+	 */
+	private void addPoint(char cCommand, double fX, double fY)
+	{
+		aPath.append(cCommand);
+		appendNumber(aPath, fX);
+		aPath.append(' ');
+		appendNumber(aPath, fY);
+	}
+}
@@ -0,0 +1,119 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+
+/********************************************************************
+ * Test of {@link ChartFingerprint}.
+ *
+ * @author eso
+ */
+public class ChartFingerprintTest
+{
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Test of the fingerprints of modified data.
+	 */
+	@Test
+	public void testDataFingerprint()
+	{
+		ColumnarChartData aData  = new ColumnarChartData("x", "a", "b");
+		ColumnarChartData aOther = new ColumnarChartData("x", "a", "b");
+
+		aData.addColumn("v", new double[] { 1.0, 2.0 });
+		aOther.addColumn("v", new double[] { 1.0, 2.0 + Math.ulp(2.0) });
+
+		ChartFingerprint rPrint = ChartFingerprint.of(aData);
+
+		assertEquals(rPrint, ChartFingerprint.of(aData));
+		assertFalse(rPrint.equals(ChartFingerprint.of(aOther)));
+		assertFalse(rPrint.equals(ChartFingerprint.of(aData, "LINE")));
+		assertFalse(rPrint.equals(rPrint.appendRow("c", 3.0)));
+		assertFalse(rPrint.equals(rPrint.removeRows(1)));
+		assertEquals(rPrint, rPrint.removeRows(0));
+	}
+
+	/***************************************
+	 * Test of {@link ChartFingerprint#getBits(double, int[])}.
+	 */
+	@Test
+	public void testGetBits()
+	{
+		double[] aValues =
+			new double[]
+			{
+				0.0, -0.0, 1.0, -1.0, 0.1, 1e-310, -Double.MIN_VALUE,
+				Double.MIN_NORMAL, Double.MAX_VALUE, Double.POSITIVE_INFINITY,
+				Double.NEGATIVE_INFINITY, Math.PI, 4294967296.0, 1e300
+			};
+
+		for (double fValue : aValues)
+		{
+			assertBits(fValue);
+		}
+
+		Random aRandom = new Random(42);
+
+		for (int i = 0; i < 10000; i++)
+		{
+			assertBits(Double.longBitsToDouble(aRandom.nextLong()));
+			assertBits((aRandom.nextDouble() - 0.5) * 1000);
+		}
+	}
+
+	/***************************************
+	 * Test of the conversion of fingerprints to values and strings.
+	 */
+	@Test
+	public void testValue()
+	{
+		ChartFingerprint aPrint = new ChartFingerprint(0x0123456789abcdefL);
+
+		assertEquals(0x0123456789abcdefL, aPrint.getValue());
+		assertEquals("0123456789abcdef", aPrint.toString());
+		assertEquals(aPrint, new ChartFingerprint(aPrint.getValue()));
+		assertEquals(-1L, new ChartFingerprint(-1L).getValue());
+	}
+
+	/***************************************
+	 * Asserts that the bits of a double value are determined correctly.
+	 *
+	 * @param fValue The value to check
+	 */
+	private void assertBits(double fValue)
+	{
+		if (!Double.isNaN(fValue))
+		{
+			long  nExpected = Double.doubleToLongBits(fValue);
+			int[] aBits     = new int[2];
+
+			ChartFingerprint.getBits(fValue, aBits);
+
+			assertEquals(Double.toString(fValue),
+						 nExpected,
+						 ((long) aBits[0] << 32) | (aBits[1] & 0xffffffffL));
+		}
+	}
+}
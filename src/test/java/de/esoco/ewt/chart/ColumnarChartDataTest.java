@@ -0,0 +1,110 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'gewt-chart' project.
+// Copyright 2018 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.ewt.chart;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/********************************************************************
+ * Test of {@link ColumnarChartData}.
+ *
+ * @author eso
+ */
+public class ColumnarChartDataTest
+{
+	//~ Methods ----------------------------------------------------------------
+
+	/***************************************
+	 * Test of undefined values in double columns.
+	 */
+	@Test
+	public void testDoubleColumnNulls()
+	{
+		ColumnarChartData aData = new ColumnarChartData("x", "a", "b", "c");
+
+		aData.addColumn("v", new double[] { 1.5, Double.NaN, 3.0 });
+
+		assertFalse(aData.isNull(0, 0));
+		assertTrue(aData.isNull(1, 0));
+		assertEquals(1.5, aData.getValue(0, 0), 0);
+
+		aData.setNull(2, 0);
+
+		assertFalse(aData.isNull(0, 0));
+		assertTrue(aData.isNull(1, 0));
+		assertTrue(aData.isNull(2, 0));
+		assertTrue(Double.isNaN(aData.getValue(2, 0)));
+	}
+
+	/***************************************
+	 * Test of undefined values in integer columns.
+	 */
+	@Test
+	public void testIntegerColumnNulls()
+	{
+		ColumnarChartData aData = new ColumnarChartData("x", "a", "b");
+
+		aData.addColumn("v", new int[] { 1, 2 });
+
+		assertTrue(aData.isIntegerColumn(0));
+		assertFalse(aData.isNull(1, 0));
+
+		aData.setNull(1, 0);
+
+		assertFalse(aData.isNull(0, 0));
+		assertTrue(aData.isNull(1, 0));
+		assertEquals(1, aData.getValue(0, 0), 0);
+		assertTrue(Double.isNaN(aData.getValue(1, 0)));
+	}
+
+	/***************************************
+	 * Test of the bitmap for more than 32 rows.
+	 */
+	@Test
+	public void testNullBitmapRows()
+	{
+		String[] aRows   = new String[40];
+		double[] aValues = new double[40];
+
+		for (int i = 0; i < aRows.length; i++)
+		{
+			aRows[i] = "r" + i;
+		}
+
+		ColumnarChartData aData = new ColumnarChartData("x", aRows);
+
+		aData.addColumn("v", aValues);
+		aData.setNull(33, 0);
+
+		assertTrue(aData.isNull(33, 0));
+		assertFalse(aData.isNull(1, 0));
+		assertFalse(aData.isNull(32, 0));
+	}
+
+	/***************************************
+	 * Test that an invalid row cannot be marked as undefined.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSetNullInvalidRow()
+	{
+		new ColumnarChartData("x", "a").setNull(1, 0);
+	}
+}